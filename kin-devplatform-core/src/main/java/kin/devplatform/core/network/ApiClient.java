@@ -5,7 +5,7 @@
 package kin.devplatform.core.network;
 
 import android.support.annotation.StringDef;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,10 +43,12 @@ import javax.net.ssl.X509TrustManager;
 import kin.devplatform.core.BuildConfig;
 import kin.devplatform.core.network.model.Error;
 import kin.devplatform.core.util.StringUtil;
+import okhttp3.Authenticator;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.FormBody;
 import okhttp3.Headers;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -54,6 +56,7 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import okhttp3.internal.http.HttpMethod;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okio.BufferedSink;
@@ -63,9 +66,10 @@ import okio.Okio;
 public class ApiClient {
 
 	private String basePath;
+	private volatile HttpUrl baseUrl;
 
 	private boolean debugging = false;
-	private Map<String, String> defaultHeaderMap = new HashMap<>();
+	private volatile Headers defaultHeaders = Headers.of();
 	private String tempFolderPath = null;
 
 	private Map<String, Authentication> authentications;
@@ -75,11 +79,28 @@ public class ApiClient {
 	private KeyManager[] keyManagers;
 
 	private OkHttpClient.Builder httpClientBuilder;
+	private volatile OkHttpClient httpClient;
 	private JSON json;
 
 	private HttpLoggingInterceptor loggingInterceptor;
+	private volatile RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
 
 	public static final String APPLICATION_JSON_KEY = "application/json";
+	public static final String HEADER_REQUEST_ID = "X-REQUEST-ID";
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	/**
+	 * Request header with the number of seconds a cached response may be stale and still be returned,
+	 * while it is revalidated in the background. It is consumed locally and never sent to the server.
+	 */
+	public static final String HEADER_STALE_WHILE_REVALIDATE = "X-Stale-While-Revalidate";
+
+	/**
+	 * Request header marking a non idempotent method (e.g. POST) as safe to retry, since the server dedupes it by its
+	 * X-REQUEST-ID. It is consumed locally and never sent to the server.
+	 */
+	public static final String HEADER_IDEMPOTENT = "X-Idempotent";
 
 	public static final String POST = "POST";
 	public static final String GET = "GET";
@@ -96,9 +117,10 @@ public class ApiClient {
 	 * Constructor for ApiClient
 	 */
 	public ApiClient(final String baseUrlPath) {
-		basePath = baseUrlPath;
-		httpClientBuilder = new OkHttpClient.Builder();
-		httpClientBuilder.connectTimeout(30, TimeUnit.SECONDS);
+		setBasePath(baseUrlPath);
+		httpClientBuilder = HttpClientProvider.getSharedClient().newBuilder();
+		httpClientBuilder.addInterceptor(new StaleWhileRevalidateInterceptor(this));
+		httpClientBuilder.addInterceptor(new RetryInterceptor(this));
 
 		//Depends on build variants
 		setDebugging(BuildConfig.DEBUG);
@@ -130,16 +152,46 @@ public class ApiClient {
 	 */
 	public ApiClient setBasePath(String basePath) {
 		this.basePath = basePath;
+		this.baseUrl = basePath != null ? HttpUrl.parse(basePath) : null;
 		return this;
 	}
 
 	/**
-	 * Get HTTP client
+	 * Get HTTP client, built once from the builder and rebuilt only after the builder was changed.
 	 *
 	 * @return An instance of OkHttpClient
 	 */
-	private OkHttpClient getHttpClient() {
-		return httpClientBuilder.build();
+	OkHttpClient getHttpClient() {
+		OkHttpClient client = httpClient;
+		if (client == null) {
+			synchronized (this) {
+				client = httpClient;
+				if (client == null) {
+					client = httpClientBuilder.build();
+					httpClient = client;
+				}
+			}
+		}
+		return client;
+	}
+
+	private synchronized void invalidateHttpClient() {
+		httpClient = null;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Set the policy used to retry idempotent requests on transient failures.
+	 *
+	 * @param retryPolicy RetryPolicy, {@link RetryPolicy#NO_RETRY} to disable retries.
+	 * @return ApiClient
+	 */
+	public ApiClient setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
 	}
 
 	/**
@@ -254,8 +306,9 @@ public class ApiClient {
 	 * @param value The header's value
 	 * @return ApiClient
 	 */
-	public ApiClient addDefaultHeader(String key, String value) {
-		defaultHeaderMap.put(key, value);
+	public synchronized ApiClient addDefaultHeader(String key, String value) {
+		// Rebuilt only when a default header changes, every request then shares the same immutable block.
+		defaultHeaders = defaultHeaders.newBuilder().set(key, parameterToString(value)).build();
 		return this;
 	}
 
@@ -284,6 +337,7 @@ public class ApiClient {
 				httpClientBuilder.addInterceptor(loggingInterceptor);
 				loggingInterceptor = null;
 			}
+			invalidateHttpClient();
 		}
 		this.debugging = debugging;
 		return this;
@@ -320,6 +374,7 @@ public class ApiClient {
 	 */
 	public ApiClient setConnectTimeout(int connectionTimeout) {
 		httpClientBuilder.connectTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+		invalidateHttpClient();
 		return this;
 	}
 
@@ -524,26 +579,39 @@ public class ApiClient {
 			return (T) downloadFileFromResponse(response);
 		}
 
+		final ResponseBody body = response.body();
+		if (body == null) {
+			return null;
+		}
+
+		String contentType = response.headers().get("Content-Type");
+		if (contentType == null) {
+			// ensuring a default content type
+			contentType = "application/json";
+		}
+		if (isJsonMime(contentType) && !returnType.equals(String.class)) {
+			// Stream the body straight into the parser, the raw String is never materialized.
+			try {
+				return json.deserialize(body.charStream(), returnType);
+			} catch (JsonParseException e) {
+				// Gson reports a body that failed to be read midway as a syntax error.
+				throw new ApiException(e.getCause() instanceof IOException ? e.getCause() : e);
+			} finally {
+				body.close();
+			}
+		}
+
 		String respBody;
 		try {
-			if (response.body() != null) {
-				respBody = response.body().string();
-			} else {
-				respBody = null;
-			}
+			respBody = body.string();
 		} catch (IOException e) {
 			throw new ApiException(e);
 		}
 
-		if (respBody == null || "".equals(respBody)) {
+		if ("".equals(respBody)) {
 			return null;
 		}
 
-		String contentType = response.headers().get("Content-Type");
-		if (contentType == null) {
-			// ensuring a default content type
-			contentType = "application/json";
-		}
 		if (isJsonMime(contentType)) {
 			return json.deserialize(respBody, returnType);
 		} else if (returnType.equals(String.class)) {
@@ -560,13 +628,32 @@ public class ApiClient {
 
 	private Error deserializeError(String respBody) {
 		try {
-			return (Error) (json.deserialize(respBody, new TypeToken<Error>() {
-			}.getType()));
+			return json.deserialize(respBody, Error.class);
 		} catch (Throwable throwable) {
 			return null;
 		}
 	}
 
+	private Error deserializeError(Response response) throws ApiException {
+		final ResponseBody body = response.body();
+		if (body == null) {
+			return null;
+		}
+		try {
+			return json.deserialize(body.charStream(), Error.class);
+		} catch (JsonParseException e) {
+			if (e.getCause() instanceof IOException) {
+				throw new ApiException(response.message(), e.getCause(), response.code(),
+					response.headers().toMultimap());
+			}
+			return null;
+		} catch (Throwable throwable) {
+			return null;
+		} finally {
+			body.close();
+		}
+	}
+
 	/**
 	 * Serialize the given Java object into request body according to the object's class and the request Content-Type.
 	 *
@@ -755,16 +842,8 @@ public class ApiClient {
 				return deserialize(response, returnType);
 			}
 		} else {
-			String respBody = null;
-			if (response.body() != null) {
-				try {
-					respBody = response.body().string();
-				} catch (IOException e) {
-					throw new ApiException(response.message(), e, response.code(), response.headers().toMultimap());
-				}
-			}
 			throw new ApiException(response.message(), response.code(), response.headers().toMultimap(),
-				deserializeError(respBody));
+				deserializeError(response));
 		}
 	}
 
@@ -791,6 +870,22 @@ public class ApiClient {
 		return getHttpClient().newCall(request);
 	}
 
+	/**
+	 * Build HTTP call from a precompiled endpoint template.
+	 *
+	 * @param template The endpoint template
+	 * @param path The sub-path of the HTTP URL, already escaped
+	 * @param queryParams The query parameters, may be null
+	 * @param body The request body object, may be null
+	 * @param requestId The X-REQUEST-ID header value, may be null
+	 * @return The HTTP call
+	 * @throws ApiException If fail to serialize the request body object
+	 */
+	public Call buildCall(RequestTemplate template, String path, List<Pair> queryParams, Object body,
+		String requestId) throws ApiException {
+		return getHttpClient().newCall(buildRequest(template, path, queryParams, body, requestId));
+	}
+
 	/**
 	 * Build an HTTP request with the given options.
 	 *
@@ -811,8 +906,8 @@ public class ApiClient {
 		throws ApiException {
 		updateParamsForAuth(authNames, queryParams, headerParams);
 
-		final String url = buildUrl(path, queryParams, collectionQueryParams);
-		final Request.Builder reqBuilder = new Request.Builder().url(url);
+		final Request.Builder reqBuilder = new Request.Builder().url(buildHttpUrl(path, queryParams,
+			collectionQueryParams));
 		processHeaderParams(headerParams, reqBuilder);
 
 		String contentType = (String) headerParams.get("Content-Type");
@@ -845,6 +940,90 @@ public class ApiClient {
 		return request;
 	}
 
+	/**
+	 * Build an HTTP request from a precompiled endpoint template, only the per call parameters are processed.
+	 *
+	 * @param template The endpoint template
+	 * @param path The sub-path of the HTTP URL, already escaped
+	 * @param queryParams The query parameters, may be null
+	 * @param body The request body object, may be null
+	 * @param requestId The X-REQUEST-ID header value, may be null
+	 * @return The HTTP request
+	 * @throws ApiException If fail to serialize the request body object
+	 */
+	public Request buildRequest(RequestTemplate template, String path, List<Pair> queryParams, Object body,
+		String requestId) throws ApiException {
+		final Request.Builder reqBuilder = new Request.Builder()
+			.url(buildHttpUrl(path, queryParams, null))
+			.headers(defaultHeaders)
+			// Identifies the endpoint in the network metrics.
+			.tag(template);
+		final Headers templateHeaders = template.getHeaders();
+		for (int i = 0, size = templateHeaders.size(); i < size; i++) {
+			reqBuilder.header(templateHeaders.name(i), templateHeaders.value(i));
+		}
+		if (requestId != null) {
+			reqBuilder.header(HEADER_REQUEST_ID, requestId);
+		}
+
+		final String method = template.getMethod();
+		RequestBody reqBody;
+		if (!HttpMethod.permitsRequestBody(method)) {
+			reqBody = null;
+		} else if (body == null) {
+			// allow calling DELETE without sending a request body, use an empty one for POST, PUT and PATCH
+			reqBody = DELETE.equals(method) ? null : RequestBody.create(template.getContentType(), EMPTY_BODY);
+		} else {
+			reqBody = RequestBody.create(template.getContentType(), json.serialize(body));
+		}
+		return reqBuilder.method(method, reqBody).build();
+	}
+
+	/**
+	 * Build full URL on top of the pre parsed base URL, falls back to {@link #buildUrl(String, List, List)} for paths
+	 * with a constant query string or when the base path isn't a valid URL.
+	 *
+	 * @param path The sub path, already escaped
+	 * @param queryParams The query parameters
+	 * @param collectionQueryParams The collection query parameters, values already escaped
+	 * @return The full URL
+	 * @throws ApiException If the URL is not valid
+	 */
+	public HttpUrl buildHttpUrl(String path, List<Pair> queryParams, List<Pair> collectionQueryParams)
+		throws ApiException {
+		final HttpUrl base = baseUrl;
+		if (base == null || path.indexOf('?') >= 0) {
+			final String url = buildUrl(path, queryParams, collectionQueryParams);
+			final HttpUrl httpUrl = HttpUrl.parse(url);
+			if (httpUrl == null) {
+				throw new ApiException("Invalid url: " + url);
+			}
+			return httpUrl;
+		}
+
+		final HttpUrl.Builder urlBuilder = base.newBuilder();
+		final String segments = path.startsWith("/") ? path.substring(1) : path;
+		if (!segments.isEmpty()) {
+			urlBuilder.addEncodedPathSegments(segments);
+		}
+		if (queryParams != null) {
+			for (Pair param : queryParams) {
+				if (param.getValue() != null) {
+					urlBuilder.addQueryParameter(param.getName(), parameterToString(param.getValue()));
+				}
+			}
+		}
+		if (collectionQueryParams != null) {
+			for (Pair param : collectionQueryParams) {
+				if (param.getValue() != null) {
+					urlBuilder.addEncodedQueryParameter(escapeString(param.getName()),
+						parameterToString(param.getValue()));
+				}
+			}
+		}
+		return urlBuilder.build();
+	}
+
 	/**
 	 * Build full URL by concatenating base path, the given sub path and query parameters.
 	 *
@@ -901,14 +1080,10 @@ public class ApiClient {
 	 * @param reqBuilder Reqeust.Builder
 	 */
 	public void processHeaderParams(Map<String, String> headerParams, Request.Builder reqBuilder) {
+		reqBuilder.headers(defaultHeaders);
 		for (Entry<String, String> param : headerParams.entrySet()) {
 			reqBuilder.header(param.getKey(), parameterToString(param.getValue()));
 		}
-		for (Entry<String, String> header : defaultHeaderMap.entrySet()) {
-			if (!headerParams.containsKey(header.getKey())) {
-				reqBuilder.header(header.getKey(), parameterToString(header.getValue()));
-			}
-		}
 	}
 
 	/**
@@ -1043,6 +1218,7 @@ public class ApiClient {
 			if (hostnameVerifier != null) {
 				httpClientBuilder.hostnameVerifier(hostnameVerifier);
 			}
+			invalidateHttpClient();
 		} catch (GeneralSecurityException e) {
 			throw new RuntimeException(e);
 		}
@@ -1060,9 +1236,19 @@ public class ApiClient {
 
 	public void addInterceptor(Interceptor interceptor) {
 		httpClientBuilder.addInterceptor(interceptor);
+		invalidateHttpClient();
 	}
 
 	public void addNetworkInterceptor(Interceptor interceptor) {
 		httpClientBuilder.addNetworkInterceptor(interceptor);
+		invalidateHttpClient();
+	}
+
+	/**
+	 * Set the authenticator asked for new credentials when the server responds with 401 Unauthorized.
+	 */
+	public void setAuthenticator(Authenticator authenticator) {
+		httpClientBuilder.authenticator(authenticator);
+		invalidateHttpClient();
 	}
 }
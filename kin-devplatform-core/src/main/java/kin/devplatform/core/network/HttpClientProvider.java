@@ -0,0 +1,281 @@
+package kin.devplatform.core.network;
+
+import android.support.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Holds the single {@link OkHttpClient} of the process.
+ * Every {@link ApiClient} derives its own client from it using {@link OkHttpClient#newBuilder()},
+ * so all of them share the same connection pool, dispatcher and thread pools.
+ */
+public final class HttpClientProvider {
+
+	private static final int MAX_IDLE_CONNECTIONS = 5;
+	private static final long KEEP_ALIVE_DURATION_MINUTES = 5;
+	private static final long CONNECT_TIMEOUT_SECONDS = 30;
+
+	private static volatile OkHttpClient sharedClient;
+	private static volatile Cache cache;
+
+	private static final AtomicLong acquiredConnections = new AtomicLong();
+	private static final AtomicLong newConnections = new AtomicLong();
+
+	// Tags the pre-warming requests, they are kept out of the network metrics and connection stats.
+	private static final Object PREWARM_TAG = new Object();
+
+	private static final Callback PREWARM_CALLBACK = new Callback() {
+		@Override
+		public void onFailure(Call call, IOException e) {
+			// Nothing to warm, the real request will report the error.
+		}
+
+		@Override
+		public void onResponse(Call call, Response response) {
+			response.close();
+		}
+	};
+
+	private HttpClientProvider() {
+	}
+
+	public static OkHttpClient getSharedClient() {
+		if (sharedClient == null) {
+			synchronized (HttpClientProvider.class) {
+				if (sharedClient == null) {
+					sharedClient = new OkHttpClient.Builder()
+						.cache(cache)
+						.connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MINUTES,
+							TimeUnit.MINUTES))
+						.connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+						.addNetworkInterceptor(new MetricsInterceptor())
+						.eventListenerFactory(new EventListener.Factory() {
+							@Override
+							public EventListener create(Call call) {
+								return isPrewarm(call.request()) ? EventListener.NONE : new ConnectionStatsListener();
+							}
+						})
+						.build();
+				}
+			}
+		}
+		return sharedClient;
+	}
+
+	/**
+	 * Install a disk backed HTTP cache on the shared client, honoring Cache-Control and ETag / Last-Modified
+	 * validation. Should be called before the first {@link ApiClient} is created, clients created earlier keep
+	 * working without the cache.
+	 *
+	 * @param directory cache directory, owned exclusively by the cache.
+	 * @param maxSizeBytes maximum size of the cache in bytes.
+	 */
+	public static void enableCache(File directory, long maxSizeBytes) {
+		synchronized (HttpClientProvider.class) {
+			if (cache != null) {
+				return;
+			}
+			cache = new Cache(directory, maxSizeBytes);
+			if (sharedClient != null) {
+				sharedClient = sharedClient.newBuilder().cache(cache).build();
+			}
+		}
+	}
+
+	@Nullable
+	public static Cache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Remove all the cached responses, e.g. when the user changes and cached data is no longer relevant.
+	 */
+	public static void evictCache() {
+		final Cache currentCache = cache;
+		if (currentCache != null) {
+			try {
+				currentCache.evictAll();
+			} catch (IOException e) {
+				// Cache will be overridden on next responses.
+			}
+		}
+	}
+
+	/**
+	 * Open connections to the hosts of the given urls in the background, with a HEAD request per host, so the DNS
+	 * lookup, TCP and TLS handshakes are already done and the connections wait in the shared pool for the first real
+	 * request. Hosts only reached by other HTTP stacks get their DNS lookup warmed only. The pre-warming traffic is
+	 * not recorded in {@link NetworkMetrics}.
+	 *
+	 * @param connectUrls urls of the hosts to connect to, invalid or null urls are ignored.
+	 * @param lookupUrls urls of the hosts to look up only, invalid or null urls are ignored.
+	 */
+	public static void prewarm(Collection<String> connectUrls, Collection<String> lookupUrls) {
+		final OkHttpClient client = getSharedClient();
+		final Set<HttpUrl> origins = new HashSet<>();
+		for (String url : connectUrls) {
+			final HttpUrl httpUrl = url != null ? HttpUrl.parse(url) : null;
+			if (httpUrl == null) {
+				continue;
+			}
+			final HttpUrl origin = httpUrl.resolve("/");
+			if (origin != null && origins.add(origin)) {
+				final Request request = new Request.Builder().url(origin).head().tag(PREWARM_TAG).build();
+				client.newCall(request).enqueue(PREWARM_CALLBACK);
+			}
+		}
+		final Set<String> hosts = new HashSet<>();
+		for (String url : lookupUrls) {
+			final HttpUrl httpUrl = url != null ? HttpUrl.parse(url) : null;
+			if (httpUrl != null && hosts.add(httpUrl.host())) {
+				lookup(client, httpUrl.host());
+			}
+		}
+	}
+
+	private static void lookup(final OkHttpClient client, final String host) {
+		client.dispatcher().executorService().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					client.dns().lookup(host);
+				} catch (UnknownHostException e) {
+					// Nothing to warm, the real request will report the error.
+				}
+			}
+		});
+	}
+
+	static boolean isPrewarm(Request request) {
+		return request.tag() == PREWARM_TAG;
+	}
+
+	/**
+	 * @return a snapshot of the shared connection pool state.
+	 */
+	public static ConnectionPoolStats getConnectionPoolStats() {
+		ConnectionPool pool = getSharedClient().connectionPool();
+		final int total = pool.connectionCount();
+		final int idle = pool.idleConnectionCount();
+		final long acquired = acquiredConnections.get();
+		final long created = newConnections.get();
+		return new ConnectionPoolStats(idle, total - idle, created, Math.max(0, acquired - created));
+	}
+
+	/**
+	 * Created per call, counts connections and records DNS, connect and TLS handshake times.
+	 */
+	private static class ConnectionStatsListener extends EventListener {
+
+		private long dnsStartTime;
+		private long connectStartTime;
+		private long secureConnectStartTime;
+
+		@Override
+		public void dnsStart(Call call, String domainName) {
+			dnsStartTime = System.nanoTime();
+		}
+
+		@Override
+		public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+			NetworkMetrics.getInstance().recordDns(elapsedMillis(dnsStartTime));
+		}
+
+		@Override
+		public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+			connectStartTime = System.nanoTime();
+		}
+
+		@Override
+		public void secureConnectStart(Call call) {
+			secureConnectStartTime = System.nanoTime();
+		}
+
+		@Override
+		public void secureConnectEnd(Call call, Handshake handshake) {
+			NetworkMetrics.getInstance().recordTls(elapsedMillis(secureConnectStartTime));
+		}
+
+		@Override
+		public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+			newConnections.incrementAndGet();
+			NetworkMetrics.getInstance().recordConnect(elapsedMillis(connectStartTime));
+		}
+
+		@Override
+		public void connectionAcquired(Call call, Connection connection) {
+			acquiredConnections.incrementAndGet();
+		}
+
+		private static long elapsedMillis(long startTime) {
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		}
+	}
+
+	public static class ConnectionPoolStats {
+
+		private final int idleConnections;
+		private final int activeConnections;
+		private final long createdConnections;
+		private final long reusedConnections;
+
+		ConnectionPoolStats(int idleConnections, int activeConnections, long createdConnections,
+			long reusedConnections) {
+			this.idleConnections = idleConnections;
+			this.activeConnections = activeConnections;
+			this.createdConnections = createdConnections;
+			this.reusedConnections = reusedConnections;
+		}
+
+		public int getIdleConnections() {
+			return idleConnections;
+		}
+
+		public int getActiveConnections() {
+			return activeConnections;
+		}
+
+		public long getCreatedConnections() {
+			return createdConnections;
+		}
+
+		/**
+		 * @return number of calls that were served by an already open pooled connection.
+		 */
+		public long getReusedConnections() {
+			return reusedConnections;
+		}
+
+		@Override
+		public String toString() {
+			return "ConnectionPoolStats{" +
+				"idle=" + idleConnections +
+				", active=" + activeConnections +
+				", created=" + createdConnections +
+				", reused=" + reusedConnections +
+				'}';
+		}
+	}
+}
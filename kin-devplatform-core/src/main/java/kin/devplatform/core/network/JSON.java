@@ -15,12 +15,18 @@ package kin.devplatform.core.network;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import com.google.gson.internal.bind.util.ISO8601Utils;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.text.DateFormat;
@@ -31,15 +37,27 @@ import java.util.Date;
 public class JSON {
 
 	private Gson gson;
+	private final GsonBuilder gsonBuilder;
 	private boolean isLenientOnJson = false;
 	private DateTypeAdapter dateTypeAdapter = new DateTypeAdapter();
 	private SqlDateTypeAdapter sqlDateTypeAdapter = new SqlDateTypeAdapter();
 
 	public JSON() {
-		gson = new GsonBuilder()
+		gsonBuilder = new GsonBuilder()
 			.registerTypeAdapter(Date.class, dateTypeAdapter)
-			.registerTypeAdapter(java.sql.Date.class, sqlDateTypeAdapter)
-			.create();
+			.registerTypeAdapter(java.sql.Date.class, sqlDateTypeAdapter);
+		gson = gsonBuilder.create();
+	}
+
+	/**
+	 * Register a type adapter factory, it takes precedence over Gson's reflective adapter for the types it handles.
+	 *
+	 * @param factory TypeAdapterFactory
+	 * @return JSON
+	 */
+	public JSON registerTypeAdapterFactory(TypeAdapterFactory factory) {
+		gson = gsonBuilder.registerTypeAdapterFactory(factory).create();
+		return this;
 	}
 
 	/**
@@ -107,6 +125,36 @@ public class JSON {
 		}
 	}
 
+	/**
+	 * Deserialize the JSON read from the given stream to Java object, without buffering the whole body in memory.
+	 *
+	 * @param <T> Type
+	 * @param reader The JSON character stream
+	 * @param returnType The type to deserialize into
+	 * @return The deserialized Java object, or null for an empty stream
+	 */
+	public <T> T deserialize(Reader reader, Type returnType) {
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(isLenientOnJson);
+		T result = gson.fromJson(jsonReader, returnType);
+		if (!isLenientOnJson) {
+			assertFullConsumption(jsonReader);
+		}
+		return result;
+	}
+
+	private static void assertFullConsumption(JsonReader jsonReader) {
+		try {
+			if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+				throw new JsonIOException("JSON document was not fully consumed.");
+			}
+		} catch (MalformedJsonException e) {
+			throw new JsonSyntaxException(e);
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
 	/**
 	 * Gson TypeAdapter for java.sql.Date type
 	 * If the dateFormat is null, a simple "yyyy-MM-dd" format will be used
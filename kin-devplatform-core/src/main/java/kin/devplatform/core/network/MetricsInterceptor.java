@@ -0,0 +1,115 @@
+package kin.devplatform.core.network;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor recording latency (until the response headers arrive), status code and payload sizes of every
+ * request that reaches the network into {@link NetworkMetrics}, grouped by the endpoint route. Response bytes are
+ * counted while the body is read, chunked and gzip responses have no content length.
+ */
+class MetricsInterceptor implements Interceptor {
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		final Request request = chain.request();
+		if (HttpClientProvider.isPrewarm(request)) {
+			return chain.proceed(request);
+		}
+		final String endpoint = getEndpoint(request);
+		final long bytesSent = request.body() != null ? Math.max(0, request.body().contentLength()) : 0;
+		final long startTime = System.nanoTime();
+		final Response response;
+		try {
+			response = chain.proceed(request);
+		} catch (IOException e) {
+			NetworkMetrics.getInstance().recordFailure(endpoint, elapsedMillis(startTime), bytesSent);
+			throw e;
+		}
+		NetworkMetrics.getInstance().recordResponse(endpoint, response.code(), elapsedMillis(startTime), bytesSent);
+		if (response.body() == null) {
+			return response;
+		}
+		return response.newBuilder().body(new CountingResponseBody(endpoint, response.body())).build();
+	}
+
+	private static long elapsedMillis(long startTime) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+	}
+
+	/**
+	 * @return method and route of the endpoint template the request was built from, so all the calls of an endpoint
+	 * share one entry. Requests built without a route are grouped by host.
+	 */
+	static String getEndpoint(Request request) {
+		final Object tag = request.tag();
+		final String route = tag instanceof RequestTemplate ? ((RequestTemplate) tag).getRoute() : null;
+		return request.method() + ' ' + (route != null ? route : request.url().host());
+	}
+
+	/**
+	 * Records the bytes read from the body once it is exhausted or closed.
+	 */
+	private static class CountingResponseBody extends ResponseBody {
+
+		private final String endpoint;
+		private final ResponseBody body;
+		private final BufferedSource source;
+		private long bytesRead;
+		private boolean isRecorded;
+
+		CountingResponseBody(final String endpoint, final ResponseBody body) {
+			this.endpoint = endpoint;
+			this.body = body;
+			this.source = Okio.buffer(new ForwardingSource(body.source()) {
+				@Override
+				public long read(Buffer sink, long byteCount) throws IOException {
+					final long read = super.read(sink, byteCount);
+					if (read == -1) {
+						record();
+					} else {
+						bytesRead += read;
+					}
+					return read;
+				}
+
+				@Override
+				public void close() throws IOException {
+					record();
+					super.close();
+				}
+			});
+		}
+
+		private void record() {
+			if (!isRecorded) {
+				isRecorded = true;
+				NetworkMetrics.getInstance().recordBytesReceived(endpoint, bytesRead);
+			}
+		}
+
+		@Override
+		public MediaType contentType() {
+			return body.contentType();
+		}
+
+		@Override
+		public long contentLength() {
+			return body.contentLength();
+		}
+
+		@Override
+		public BufferedSource source() {
+			return source;
+		}
+	}
+}
@@ -0,0 +1,299 @@
+package kin.devplatform.core.network;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import kin.devplatform.core.network.HttpClientProvider.ConnectionPoolStats;
+
+/**
+ * Process wide network metrics, collected by {@link MetricsInterceptor} per endpoint and by the shared client
+ * event listener per connection.
+ */
+public final class NetworkMetrics {
+
+	/**
+	 * Upper bounds (inclusive) of the latency histogram buckets, the last bucket counts everything above the last
+	 * bound.
+	 */
+	static final long[] LATENCY_BUCKETS_MILLIS = {50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+	private static final NetworkMetrics instance = new NetworkMetrics();
+
+	private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+	private final TimingMetrics dns = new TimingMetrics();
+	private final TimingMetrics connect = new TimingMetrics();
+	private final TimingMetrics tls = new TimingMetrics();
+
+	private NetworkMetrics() {
+	}
+
+	public static NetworkMetrics getInstance() {
+		return instance;
+	}
+
+	void recordResponse(String endpoint, int code, long latencyMillis, long bytesSent) {
+		getEndpoint(endpoint).recordResponse(code, latencyMillis, bytesSent);
+	}
+
+	void recordBytesReceived(String endpoint, long bytesReceived) {
+		getEndpoint(endpoint).recordBytesReceived(bytesReceived);
+	}
+
+	void recordFailure(String endpoint, long latencyMillis, long bytesSent) {
+		getEndpoint(endpoint).recordFailure(latencyMillis, bytesSent);
+	}
+
+	void recordDns(long millis) {
+		dns.record(millis);
+	}
+
+	void recordConnect(long millis) {
+		connect.record(millis);
+	}
+
+	void recordTls(long millis) {
+		tls.record(millis);
+	}
+
+	private EndpointMetrics getEndpoint(String endpoint) {
+		EndpointMetrics metrics = endpoints.get(endpoint);
+		if (metrics == null) {
+			final EndpointMetrics newMetrics = new EndpointMetrics();
+			metrics = endpoints.putIfAbsent(endpoint, newMetrics);
+			if (metrics == null) {
+				metrics = newMetrics;
+			}
+		}
+		return metrics;
+	}
+
+	public Snapshot snapshot() {
+		Map<String, EndpointSnapshot> endpointSnapshots = new HashMap<>();
+		for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+			endpointSnapshots.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return new Snapshot(Collections.unmodifiableMap(endpointSnapshots),
+			dns.snapshot(), connect.snapshot(), tls.snapshot(), HttpClientProvider.getConnectionPoolStats());
+	}
+
+	public void reset() {
+		endpoints.clear();
+		dns.reset();
+		connect.reset();
+		tls.reset();
+	}
+
+	private static class EndpointMetrics {
+
+		private long requestCount;
+		private long failureCount;
+		private long totalLatencyMillis;
+		private long bytesSent;
+		private long bytesReceived;
+		private final long[] latencyHistogram = new long[LATENCY_BUCKETS_MILLIS.length + 1];
+		private final Map<Integer, Long> statusCodes = new HashMap<>();
+
+		synchronized void recordResponse(int code, long latencyMillis, long sent) {
+			requestCount++;
+			addLatency(latencyMillis);
+			bytesSent += sent;
+			final Long count = statusCodes.get(code);
+			statusCodes.put(code, count == null ? 1 : count + 1);
+		}
+
+		synchronized void recordBytesReceived(long received) {
+			bytesReceived += received;
+		}
+
+		synchronized void recordFailure(long latencyMillis, long sent) {
+			requestCount++;
+			failureCount++;
+			addLatency(latencyMillis);
+			bytesSent += sent;
+		}
+
+		private void addLatency(long latencyMillis) {
+			totalLatencyMillis += latencyMillis;
+			int bucket = 0;
+			while (bucket < LATENCY_BUCKETS_MILLIS.length && latencyMillis > LATENCY_BUCKETS_MILLIS[bucket]) {
+				bucket++;
+			}
+			latencyHistogram[bucket]++;
+		}
+
+		synchronized EndpointSnapshot snapshot() {
+			return new EndpointSnapshot(requestCount, failureCount, totalLatencyMillis, bytesSent, bytesReceived,
+				latencyHistogram.clone(), Collections.unmodifiableMap(new HashMap<>(statusCodes)));
+		}
+	}
+
+	private static class TimingMetrics {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong totalMillis = new AtomicLong();
+
+		void record(long millis) {
+			count.incrementAndGet();
+			totalMillis.addAndGet(millis);
+		}
+
+		TimingSnapshot snapshot() {
+			return new TimingSnapshot(count.get(), totalMillis.get());
+		}
+
+		void reset() {
+			count.set(0);
+			totalMillis.set(0);
+		}
+	}
+
+	public static class Snapshot {
+
+		private final Map<String, EndpointSnapshot> endpoints;
+		private final TimingSnapshot dns;
+		private final TimingSnapshot connect;
+		private final TimingSnapshot tls;
+		private final ConnectionPoolStats connectionPoolStats;
+
+		Snapshot(Map<String, EndpointSnapshot> endpoints, TimingSnapshot dns, TimingSnapshot connect,
+			TimingSnapshot tls, ConnectionPoolStats connectionPoolStats) {
+			this.endpoints = endpoints;
+			this.dns = dns;
+			this.connect = connect;
+			this.tls = tls;
+			this.connectionPoolStats = connectionPoolStats;
+		}
+
+		/**
+		 * @return metrics keyed by endpoint, e.g. "GET /orders/{order_id}".
+		 */
+		public Map<String, EndpointSnapshot> getEndpoints() {
+			return endpoints;
+		}
+
+		public TimingSnapshot getDns() {
+			return dns;
+		}
+
+		public TimingSnapshot getConnect() {
+			return connect;
+		}
+
+		public TimingSnapshot getTls() {
+			return tls;
+		}
+
+		public ConnectionPoolStats getConnectionPoolStats() {
+			return connectionPoolStats;
+		}
+	}
+
+	public static class EndpointSnapshot {
+
+		private final long requestCount;
+		private final long failureCount;
+		private final long totalLatencyMillis;
+		private final long bytesSent;
+		private final long bytesReceived;
+		private final long[] latencyHistogram;
+		private final Map<Integer, Long> statusCodes;
+
+		EndpointSnapshot(long requestCount, long failureCount, long totalLatencyMillis, long bytesSent,
+			long bytesReceived, long[] latencyHistogram, Map<Integer, Long> statusCodes) {
+			this.requestCount = requestCount;
+			this.failureCount = failureCount;
+			this.totalLatencyMillis = totalLatencyMillis;
+			this.bytesSent = bytesSent;
+			this.bytesReceived = bytesReceived;
+			this.latencyHistogram = latencyHistogram;
+			this.statusCodes = statusCodes;
+		}
+
+		public long getRequestCount() {
+			return requestCount;
+		}
+
+		/**
+		 * @return number of requests that failed without a response (IO errors).
+		 */
+		public long getFailureCount() {
+			return failureCount;
+		}
+
+		public long getAverageLatencyMillis() {
+			return requestCount == 0 ? 0 : totalLatencyMillis / requestCount;
+		}
+
+		/**
+		 * @param percentile between 0 and 100.
+		 * @return upper bound of the histogram bucket containing the percentile, or -1 when it falls above the last
+		 * bound.
+		 */
+		public long getLatencyPercentileMillis(double percentile) {
+			long total = 0;
+			for (long count : latencyHistogram) {
+				total += count;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			final long rank = (long) Math.ceil(total * percentile / 100d);
+			long accumulated = 0;
+			for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+				accumulated += latencyHistogram[i];
+				if (accumulated >= rank) {
+					return LATENCY_BUCKETS_MILLIS[i];
+				}
+			}
+			return -1;
+		}
+
+		public long[] getLatencyBucketsMillis() {
+			return LATENCY_BUCKETS_MILLIS.clone();
+		}
+
+		/**
+		 * @return request count per latency bucket, one more entry than {@link #getLatencyBucketsMillis()} for the
+		 * overflow bucket.
+		 */
+		public long[] getLatencyHistogram() {
+			return latencyHistogram.clone();
+		}
+
+		public long getBytesSent() {
+			return bytesSent;
+		}
+
+		/**
+		 * @return bytes of the response bodies as read from the network, counted as the bodies are consumed.
+		 */
+		public long getBytesReceived() {
+			return bytesReceived;
+		}
+
+		public Map<Integer, Long> getStatusCodes() {
+			return statusCodes;
+		}
+	}
+
+	public static class TimingSnapshot {
+
+		private final long count;
+		private final long totalMillis;
+
+		TimingSnapshot(long count, long totalMillis) {
+			this.count = count;
+			this.totalMillis = totalMillis;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getAverageMillis() {
+			return count == 0 ? 0 : totalMillis / count;
+		}
+	}
+}
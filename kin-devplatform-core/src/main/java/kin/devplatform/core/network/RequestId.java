@@ -0,0 +1,25 @@
+package kin.devplatform.core.network;
+
+import java.nio.charset.Charset;
+import java.util.UUID;
+
+/**
+ * Creates the X-REQUEST-ID of a logical operation. The same id should be sent on every retransmission of that
+ * operation so the server can recognize it.
+ */
+public final class RequestId {
+
+	private RequestId() {
+	}
+
+	public static String create() {
+		return UUID.randomUUID().toString();
+	}
+
+	/**
+	 * @return an id derived from the key, the same key always yields the same id.
+	 */
+	public static String forKey(String key) {
+		return UUID.nameUUIDFromBytes(key.getBytes(Charset.forName("UTF-8"))).toString();
+	}
+}
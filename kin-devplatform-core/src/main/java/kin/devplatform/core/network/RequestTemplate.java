@@ -0,0 +1,108 @@
+package kin.devplatform.core.network;
+
+import static kin.devplatform.core.network.ApiClient.APPLICATION_JSON_KEY;
+
+import android.support.annotation.Nullable;
+import java.lang.reflect.Type;
+import kin.devplatform.core.network.ApiClient.Methods;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+
+/**
+ * The constant part of an endpoint call - method, route, fixed headers, body content type and response type, prepared
+ * once per endpoint so building a request only costs the per call parameters.
+ * See {@link ApiClient#buildCall(RequestTemplate, String, java.util.List, Object, String)}.
+ */
+public final class RequestTemplate {
+
+	private static final String HEADER_ACCEPT = "Accept";
+	private static final String HEADER_CONTENT_TYPE = "Content-Type";
+	private static final MediaType DEFAULT_CONTENT_TYPE = MediaType.parse(APPLICATION_JSON_KEY);
+
+	private final String method;
+	private final String route;
+	private final Headers headers;
+	private final MediaType contentType;
+	private final Type returnType;
+
+	private RequestTemplate(Builder builder) {
+		this.method = builder.method;
+		this.route = builder.route;
+		this.headers = builder.headers.build();
+		final String contentTypeValue = headers.get(HEADER_CONTENT_TYPE);
+		this.contentType = contentTypeValue != null ? MediaType.parse(contentTypeValue) : DEFAULT_CONTENT_TYPE;
+		this.returnType = builder.returnType;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return the path of the endpoint with placeholders for its parameters, e.g. "/orders/{order_id}", null if not
+	 * set.
+	 */
+	@Nullable
+	public String getRoute() {
+		return route;
+	}
+
+	Headers getHeaders() {
+		return headers;
+	}
+
+	MediaType getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return the type to deserialize the response body to, null if the response has no body.
+	 */
+	@Nullable
+	public Type getReturnType() {
+		return returnType;
+	}
+
+	public static class Builder {
+
+		private final String method;
+		private final Headers.Builder headers = new Headers.Builder();
+		private String route;
+		private Type returnType;
+
+		public Builder(@Methods String method) {
+			this.method = method;
+		}
+
+		/**
+		 * The path of the endpoint with placeholders for its parameters, the network metrics are keyed by it.
+		 */
+		public Builder route(String route) {
+			this.route = route;
+			return this;
+		}
+
+		/**
+		 * Accept and send JSON.
+		 */
+		public Builder json() {
+			headers.set(HEADER_ACCEPT, APPLICATION_JSON_KEY);
+			headers.set(HEADER_CONTENT_TYPE, APPLICATION_JSON_KEY);
+			return this;
+		}
+
+		public Builder header(String name, String value) {
+			headers.set(name, value);
+			return this;
+		}
+
+		public Builder returnType(Type returnType) {
+			this.returnType = returnType;
+			return this;
+		}
+
+		public RequestTemplate build() {
+			return new RequestTemplate(this);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package kin.devplatform.core.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries requests that are safe to repeat according to the {@link ApiClient} {@link RetryPolicy}.
+ * GET, HEAD, PUT and DELETE are idempotent by definition, other methods only when the endpoint marked the request
+ * with {@link ApiClient#HEADER_IDEMPOTENT} and a X-REQUEST-ID, which the server uses to dedupe the retransmission.
+ * Calls cancelled by the caller are never retried.
+ */
+class RetryInterceptor implements Interceptor {
+
+	private final ApiClient apiClient;
+
+	RetryInterceptor(ApiClient apiClient) {
+		this.apiClient = apiClient;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		final boolean idempotent = isIdempotent(request);
+		if (request.header(ApiClient.HEADER_IDEMPOTENT) != null) {
+			request = request.newBuilder().removeHeader(ApiClient.HEADER_IDEMPOTENT).build();
+		}
+
+		final RetryPolicy retryPolicy = apiClient.getRetryPolicy();
+		int retryCount = 0;
+		while (true) {
+			final Response response;
+			try {
+				response = chain.proceed(request);
+			} catch (IOException e) {
+				if (!idempotent || isInterrupted(e) || chain.call().isCanceled() || !retryPolicy.canRetry(retryCount)) {
+					throw e;
+				}
+				waitBeforeRetry(retryPolicy, retryCount++, e);
+				continue;
+			}
+
+			if (idempotent && retryPolicy.isRetryableStatus(response.code()) && retryPolicy.canRetry(retryCount)
+				&& !chain.call().isCanceled()) {
+				if (response.body() != null) {
+					response.body().close();
+				}
+				waitBeforeRetry(retryPolicy, retryCount++, null);
+				continue;
+			}
+			return response;
+		}
+	}
+
+	private void waitBeforeRetry(RetryPolicy retryPolicy, int retryCount, IOException cause) throws IOException {
+		try {
+			Thread.sleep(retryPolicy.getDelayMillis(retryCount));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to retry");
+			if (cause != null) {
+				interrupted.initCause(cause);
+			}
+			throw interrupted;
+		}
+	}
+
+	private static boolean isInterrupted(IOException e) {
+		return e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException);
+	}
+
+	private static boolean isIdempotent(Request request) {
+		switch (request.method()) {
+			case "GET":
+			case "HEAD":
+			case "PUT":
+			case "DELETE":
+				return true;
+			default:
+				final String requestId = request.header(ApiClient.HEADER_REQUEST_ID);
+				return request.header(ApiClient.HEADER_IDEMPOTENT) != null
+					&& requestId != null && !requestId.isEmpty();
+		}
+	}
+}
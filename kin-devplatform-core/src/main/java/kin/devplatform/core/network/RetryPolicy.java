@@ -0,0 +1,60 @@
+package kin.devplatform.core.network;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter, used by {@link ApiClient} to retry idempotent requests that failed on a transient
+ * error (IO failure or a 502 / 503 / 504 response).
+ */
+public class RetryPolicy {
+
+	/**
+	 * One cheap retry, enough to get over a dropped connection or a server hiccup.
+	 */
+	public static final RetryPolicy DEFAULT = new RetryPolicy(1, 500, 4000);
+	public static final RetryPolicy NO_RETRY = new RetryPolicy(0, 0, 0);
+
+	private final int maxRetries;
+	private final long baseDelayMillis;
+	private final long maxDelayMillis;
+	private final Random random = new Random();
+
+	/**
+	 * @param maxRetries number of retries after the first attempt.
+	 * @param baseDelayMillis delay before the first retry, doubled on every following retry.
+	 * @param maxDelayMillis upper bound of a single delay.
+	 */
+	public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+		this.maxRetries = maxRetries;
+		this.baseDelayMillis = baseDelayMillis;
+		this.maxDelayMillis = maxDelayMillis;
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	boolean canRetry(int retryCount) {
+		return retryCount < maxRetries;
+	}
+
+	boolean isRetryableStatus(int code) {
+		return code == 502 || code == 503 || code == 504;
+	}
+
+	/**
+	 * @param retryCount zero based number of the retry about to be performed.
+	 * @return the delay before that retry, half of it fixed and half random so clients that failed together don't
+	 * retry together.
+	 */
+	long getDelayMillis(int retryCount) {
+		final long exponential = baseDelayMillis << Math.min(retryCount, 16);
+		final long delay = Math.min(maxDelayMillis, exponential);
+		final long half = delay / 2;
+		final long jitter;
+		synchronized (random) {
+			jitter = half > 0 ? (long) (random.nextDouble() * half) : 0;
+		}
+		return half + jitter;
+	}
+}
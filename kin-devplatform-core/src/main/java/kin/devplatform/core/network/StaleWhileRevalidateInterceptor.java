@@ -0,0 +1,113 @@
+package kin.devplatform.core.network;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Serves a cached response that is stale by up to the number of seconds given in {@link ApiClient#HEADER_STALE_WHILE_REVALIDATE}
+ * right away, and revalidates it in the background with a conditional request (If-None-Match / If-Modified-Since),
+ * so the next call gets the fresh copy or a cheap 304.
+ * Requests without the header, or when no {@link Cache} is installed, go to the network as usual.
+ */
+class StaleWhileRevalidateInterceptor implements Interceptor {
+
+	private static final int UNSATISFIABLE_REQUEST_CODE = 504;
+	private static final String STALE_WARNING_PREFIX = "110";
+
+	private final ApiClient apiClient;
+	private final Set<String> revalidatingUrls = Collections
+		.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	StaleWhileRevalidateInterceptor(ApiClient apiClient) {
+		this.apiClient = apiClient;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		final Request request = chain.request();
+		final String maxStaleValue = request.header(ApiClient.HEADER_STALE_WHILE_REVALIDATE);
+		if (maxStaleValue == null) {
+			return chain.proceed(request);
+		}
+
+		final Request networkRequest = request.newBuilder().removeHeader(ApiClient.HEADER_STALE_WHILE_REVALIDATE).build();
+		final int maxStaleSeconds = parseSeconds(maxStaleValue);
+		if (maxStaleSeconds <= 0 || HttpClientProvider.getCache() == null) {
+			return chain.proceed(networkRequest);
+		}
+
+		final Request cacheOnlyRequest = networkRequest.newBuilder()
+			.cacheControl(new CacheControl.Builder()
+				.onlyIfCached()
+				.maxStale(maxStaleSeconds, TimeUnit.SECONDS)
+				.build())
+			.build();
+		final Response cachedResponse = chain.proceed(cacheOnlyRequest);
+		if (cachedResponse.code() == UNSATISFIABLE_REQUEST_CODE) {
+			// Nothing usable in the cache.
+			closeQuietly(cachedResponse);
+			return chain.proceed(networkRequest);
+		}
+
+		if (isStale(cachedResponse)) {
+			revalidate(networkRequest);
+		}
+		return cachedResponse;
+	}
+
+	private boolean isStale(Response response) {
+		for (String warning : response.headers("Warning")) {
+			if (warning.startsWith(STALE_WARNING_PREFIX)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void revalidate(Request networkRequest) {
+		final String url = networkRequest.url().toString();
+		if (!revalidatingUrls.add(url)) {
+			return;
+		}
+		// max-age=0 makes the cache send a conditional request and store the result.
+		final Request revalidateRequest = networkRequest.newBuilder()
+			.cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+			.build();
+		apiClient.getHttpClient().newCall(revalidateRequest).enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException e) {
+				revalidatingUrls.remove(url);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response) {
+				revalidatingUrls.remove(url);
+				closeQuietly(response);
+			}
+		});
+	}
+
+	private static int parseSeconds(String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static void closeQuietly(Response response) {
+		if (response.body() != null) {
+			response.body().close();
+		}
+	}
+}
@@ -9,18 +9,29 @@ import java.util.TimeZone;
 
 public class DateUtil {
 
-	private static DateFormat utcDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm", Locale.US);
-	private static DateFormat localFormat = DateFormat.getDateInstance(DateFormat.SHORT ,Locale.getDefault());
 	private static TimeZone utcTimeZone = TimeZone.getTimeZone("UTC");
 
-	static {
-		utcDateFormat.setTimeZone(utcTimeZone);
-	}
+	// DateFormat is not thread safe, dates are parsed on the network and worker threads too.
+	private static final ThreadLocal<DateFormat> utcDateFormat = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm", Locale.US);
+			dateFormat.setTimeZone(utcTimeZone);
+			return dateFormat;
+		}
+	};
+
+	private static final ThreadLocal<DateFormat> localFormat = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			return DateFormat.getDateInstance(DateFormat.SHORT, Locale.getDefault());
+		}
+	};
 
 	public static String getDateFormatted(String dateStr) {
 		Date date = getDateFromUTCString(dateStr);
 		if (date != null) {
-			return localFormat.format(date);
+			return localFormat.get().format(date);
 		} else {
 			return "";
 		}
@@ -28,7 +39,7 @@ public class DateUtil {
 
 	public static Date getDateFromUTCString(String dateStr) {
 		try {
-			return utcDateFormat.parse(dateStr);
+			return utcDateFormat.get().parse(dateStr);
 		} catch (ParseException e) {
 			return null;
 		}
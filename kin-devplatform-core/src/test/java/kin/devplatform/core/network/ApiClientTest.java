@@ -0,0 +1,188 @@
+package kin.devplatform.core.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.util.Collections;
+import kin.devplatform.core.network.model.Error;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class ApiClientTest {
+
+	private static final String BASE_PATH = "https://api.kinecosystem.com/v1";
+	private static final MediaType JSON_TYPE = MediaType.parse(ApiClient.APPLICATION_JSON_KEY);
+
+	private static final RequestTemplate GET_ORDER = new RequestTemplate.Builder(ApiClient.GET)
+		.route("/orders/{order_id}")
+		.json()
+		.build();
+
+	private static final RequestTemplate SUBMIT_ORDER = new RequestTemplate.Builder(ApiClient.POST)
+		.route("/orders/{order_id}")
+		.json()
+		.header(ApiClient.HEADER_IDEMPOTENT, "true")
+		.build();
+
+	private static final RequestTemplate CANCEL_ORDER = new RequestTemplate.Builder(ApiClient.DELETE)
+		.route("/orders/{order_id}")
+		.build();
+
+	private ApiClient apiClient;
+
+	@Before
+	public void setUp() {
+		apiClient = new ApiClient(BASE_PATH);
+		apiClient.addDefaultHeader("X-SDK-VERSION", "1.0");
+	}
+
+	@Test
+	public void buildRequest_FromTemplate_UrlHeadersAndTag() throws Exception {
+		final Request request = apiClient.buildRequest(GET_ORDER, "/orders/1",
+			Collections.singletonList(new Pair("limit", "10")), null, "request-id");
+
+		assertEquals("GET", request.method());
+		assertEquals(BASE_PATH + "/orders/1?limit=10", request.url().toString());
+		assertEquals("1.0", request.header("X-SDK-VERSION"));
+		assertEquals(ApiClient.APPLICATION_JSON_KEY, request.header("Accept"));
+		assertEquals("request-id", request.header(ApiClient.HEADER_REQUEST_ID));
+		assertSame(GET_ORDER, request.tag());
+		assertNull(request.body());
+	}
+
+	@Test
+	public void buildRequest_PostWithBody_SerializedWithTemplateContentType() throws Exception {
+		final Request request = apiClient.buildRequest(SUBMIT_ORDER, "/orders/1", null,
+			Collections.singletonMap("content", "jwt"), null);
+
+		assertEquals("POST", request.method());
+		assertEquals("true", request.header(ApiClient.HEADER_IDEMPOTENT));
+		assertNull(request.header(ApiClient.HEADER_REQUEST_ID));
+		assertEquals("application/json; charset=utf-8", request.body().contentType().toString());
+		final Buffer body = new Buffer();
+		request.body().writeTo(body);
+		assertEquals("{\"content\":\"jwt\"}", body.readUtf8());
+	}
+
+	@Test
+	public void buildRequest_PostWithoutBody_EmptyBody() throws Exception {
+		final Request request = apiClient.buildRequest(SUBMIT_ORDER, "/orders/1", null, null, null);
+
+		assertEquals(0, request.body().contentLength());
+	}
+
+	@Test
+	public void buildRequest_DeleteWithoutBody_NoBody() throws Exception {
+		final Request request = apiClient.buildRequest(CANCEL_ORDER, "/orders/1", null, null, null);
+
+		assertEquals("DELETE", request.method());
+		assertNull(request.body());
+	}
+
+	@Test
+	public void deserialize_JsonBody_StreamedIntoType() throws Exception {
+		final Response response = response(200,
+			ResponseBody.create(JSON_TYPE, "{\"error\":\"NotFound\",\"message\":\"order not found\",\"code\":4041}"));
+
+		final Error error = apiClient.handleResponse(response, Error.class);
+
+		assertEquals("NotFound", error.getError());
+		assertEquals("order not found", error.getMessage());
+		assertEquals(Integer.valueOf(4041), error.getCode());
+	}
+
+	@Test
+	public void deserialize_BodyReadFailsMidway_ApiExceptionWithIOCause() throws Exception {
+		final Response response = response(200, failingBody("{\"error\":\"Not"));
+
+		try {
+			apiClient.handleResponse(response, Error.class);
+			fail("expected ApiException");
+		} catch (ApiException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void deserialize_BodyNotMatchingType_ApiException() throws Exception {
+		final Response response = response(200, ResponseBody.create(JSON_TYPE, "{\"code\":\"not a number\"}"));
+
+		try {
+			apiClient.handleResponse(response, Error.class);
+			fail("expected ApiException");
+		} catch (ApiException e) {
+			assertTrue(e.getCause() instanceof JsonParseException);
+		}
+	}
+
+	@Test
+	public void handleResponse_ErrorBodyReadFailsMidway_ApiExceptionWithStatus() throws Exception {
+		final Response response = response(500, failingBody("{\"error\":\"Inter"));
+
+		try {
+			apiClient.handleResponse(response, Error.class);
+			fail("expected ApiException");
+		} catch (ApiException e) {
+			assertEquals(500, e.getCode());
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	/**
+	 * A body that returns the given prefix and then fails, like a connection dropped while the body is streamed.
+	 */
+	private static ResponseBody failingBody(final String prefix) {
+		final Source source = new Source() {
+			private boolean isPrefixRead;
+
+			@Override
+			public long read(Buffer sink, long byteCount) throws IOException {
+				if (isPrefixRead) {
+					throw new IOException("unexpected end of stream");
+				}
+				isPrefixRead = true;
+				sink.writeUtf8(prefix);
+				return prefix.length();
+			}
+
+			@Override
+			public Timeout timeout() {
+				return Timeout.NONE;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		return ResponseBody.create(JSON_TYPE, -1, Okio.buffer(source));
+	}
+
+	private static Response response(int code, ResponseBody body) {
+		return new Response.Builder()
+			.request(new Request.Builder().url(BASE_PATH + "/orders/1").build())
+			.protocol(Protocol.HTTP_1_1)
+			.code(code)
+			.message("")
+			.body(body)
+			.build();
+	}
+}
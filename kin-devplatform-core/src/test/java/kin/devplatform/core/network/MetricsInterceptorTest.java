@@ -0,0 +1,157 @@
+package kin.devplatform.core.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Map;
+import kin.devplatform.core.network.NetworkMetrics.EndpointSnapshot;
+import okhttp3.Interceptor.Chain;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class MetricsInterceptorTest {
+
+	private static final MediaType JSON_TYPE = MediaType.parse(ApiClient.APPLICATION_JSON_KEY);
+	private static final RequestTemplate GET_ORDER = new RequestTemplate.Builder(ApiClient.GET)
+		.route("/orders/{order_id}")
+		.json()
+		.build();
+
+	@Mock
+	private Chain chain;
+
+	private final MetricsInterceptor metricsInterceptor = new MetricsInterceptor();
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		NetworkMetrics.getInstance().reset();
+	}
+
+	@Test
+	public void getEndpoint_RequestFromTemplate_KeyedByRoute() {
+		final Request firstOrder = new Request.Builder().url("https://api.kinecosystem.com/v1/orders/1")
+			.tag(GET_ORDER).build();
+		final Request secondOrder = new Request.Builder().url("https://api.kinecosystem.com/v1/orders/2")
+			.tag(GET_ORDER).build();
+
+		assertEquals("GET /orders/{order_id}", MetricsInterceptor.getEndpoint(firstOrder));
+		assertEquals("GET /orders/{order_id}", MetricsInterceptor.getEndpoint(secondOrder));
+	}
+
+	@Test
+	public void getEndpoint_RequestWithoutTemplate_KeyedByHost() {
+		final Request request = new Request.Builder().url("https://horizon.kinfederation.com/accounts/GABC").build();
+
+		assertEquals("GET horizon.kinfederation.com", MetricsInterceptor.getEndpoint(request));
+	}
+
+	@Test
+	public void intercept_ChunkedResponse_ReceivedBytesCountedWhenBodyRead() throws Exception {
+		final Request request = new Request.Builder().url("https://api.kinecosystem.com/v1/orders/1")
+			.tag(GET_ORDER).build();
+		final String body = "{\"id\":\"1\"}";
+		when(chain.request()).thenReturn(request);
+		// Chunked and gzip responses have no content length.
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 200,
+			ResponseBody.create(JSON_TYPE, -1, new Buffer().writeUtf8(body))));
+
+		final Response response = metricsInterceptor.intercept(chain);
+		EndpointSnapshot endpoint = getEndpointSnapshot("GET /orders/{order_id}");
+		assertEquals(1, endpoint.getRequestCount());
+		assertEquals(Long.valueOf(1), endpoint.getStatusCodes().get(200));
+		assertEquals(0, endpoint.getBytesReceived());
+
+		assertEquals(body, response.body().string());
+		assertEquals(body.length(), getEndpointSnapshot("GET /orders/{order_id}").getBytesReceived());
+	}
+
+	@Test
+	public void intercept_BodyReadAndClosed_ReceivedBytesRecordedOnce() throws Exception {
+		final Request request = new Request.Builder().url("https://api.kinecosystem.com/v1/orders/1")
+			.tag(GET_ORDER).build();
+		final String body = "{\"id\":\"1\"}";
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 200, ResponseBody.create(JSON_TYPE, body)));
+
+		final Response response = metricsInterceptor.intercept(chain);
+		response.body().string();
+		response.body().close();
+
+		assertEquals(body.length(), getEndpointSnapshot("GET /orders/{order_id}").getBytesReceived());
+	}
+
+	@Test
+	public void intercept_IOException_FailureRecorded() throws Exception {
+		final Request request = new Request.Builder().url("https://api.kinecosystem.com/v1/orders/1")
+			.post(RequestBody.create(JSON_TYPE, "{}"))
+			.tag(new RequestTemplate.Builder(ApiClient.POST).route("/orders/{order_id}").build())
+			.build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+		try {
+			metricsInterceptor.intercept(chain);
+			fail("expected IOException");
+		} catch (IOException e) {
+			EndpointSnapshot endpoint = getEndpointSnapshot("POST /orders/{order_id}");
+			assertEquals(1, endpoint.getFailureCount());
+			assertEquals(2, endpoint.getBytesSent());
+		}
+	}
+
+	@Test
+	public void intercept_PrewarmRequest_NotRecorded() throws Exception {
+		final Request request = new Request.Builder().url("https://api.kinecosystem.com/").head()
+			.tag(getPrewarmTag()).build();
+		assertTrue(HttpClientProvider.isPrewarm(request));
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(request)).thenReturn(response(request, 200, ResponseBody.create(JSON_TYPE, "")));
+
+		metricsInterceptor.intercept(chain);
+
+		assertFalse(NetworkMetrics.getInstance().snapshot().getEndpoints().containsKey("HEAD api.kinecosystem.com"));
+	}
+
+	private static Object getPrewarmTag() throws Exception {
+		final Field prewarmTag = HttpClientProvider.class.getDeclaredField("PREWARM_TAG");
+		prewarmTag.setAccessible(true);
+		return prewarmTag.get(null);
+	}
+
+	private static EndpointSnapshot getEndpointSnapshot(String endpoint) {
+		final Map<String, EndpointSnapshot> endpoints = NetworkMetrics.getInstance().snapshot().getEndpoints();
+		assertTrue(endpoints.containsKey(endpoint));
+		return endpoints.get(endpoint);
+	}
+
+	private static Response response(Request request, int code, ResponseBody body) {
+		return new Response.Builder()
+			.request(request)
+			.protocol(Protocol.HTTP_1_1)
+			.code(code)
+			.message("")
+			.body(body)
+			.build();
+	}
+}
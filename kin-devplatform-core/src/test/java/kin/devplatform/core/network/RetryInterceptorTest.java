@@ -0,0 +1,196 @@
+package kin.devplatform.core.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import okhttp3.Call;
+import okhttp3.Interceptor.Chain;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class RetryInterceptorTest {
+
+	private static final String URL = "https://api.kinecosystem.com/v1/orders/1";
+
+	@Mock
+	private ApiClient apiClient;
+
+	@Mock
+	private Chain chain;
+
+	@Mock
+	private Call call;
+
+	private RetryInterceptor retryInterceptor;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(apiClient.getRetryPolicy()).thenReturn(new RetryPolicy(1, 0, 0));
+		when(chain.call()).thenReturn(call);
+		retryInterceptor = new RetryInterceptor(apiClient);
+	}
+
+	@Test
+	public void get_IOException_Retried() throws Exception {
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset")).thenReturn(response(request, 200));
+
+		assertEquals(200, retryInterceptor.intercept(chain).code());
+		verify(chain, times(2)).proceed(any(Request.class));
+	}
+
+	@Test
+	public void get_RetryableStatus_Retried() throws Exception {
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 503), response(request, 200));
+
+		assertEquals(200, retryInterceptor.intercept(chain).code());
+		verify(chain, times(2)).proceed(any(Request.class));
+	}
+
+	@Test
+	public void get_RetriesExhausted_LastResponseReturned() throws Exception {
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 503));
+
+		assertEquals(503, retryInterceptor.intercept(chain).code());
+		verify(chain, times(2)).proceed(any(Request.class));
+	}
+
+	@Test
+	public void post_IOException_NotRetried() throws Exception {
+		final Request request = new Request.Builder().url(URL).post(emptyBody()).build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+		try {
+			retryInterceptor.intercept(chain);
+			fail("expected IOException");
+		} catch (IOException e) {
+			verify(chain, times(1)).proceed(any(Request.class));
+		}
+	}
+
+	@Test
+	public void post_RetryableStatus_NotRetried() throws Exception {
+		final Request request = new Request.Builder().url(URL).post(emptyBody()).build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 503));
+
+		assertEquals(503, retryInterceptor.intercept(chain).code());
+		verify(chain, times(1)).proceed(any(Request.class));
+	}
+
+	@Test
+	public void post_MarkedIdempotentWithRequestId_RetriedWithoutMarker() throws Exception {
+		final Request request = new Request.Builder().url(URL).post(emptyBody())
+			.header(ApiClient.HEADER_IDEMPOTENT, "true")
+			.header(ApiClient.HEADER_REQUEST_ID, "request-id")
+			.build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset")).thenReturn(response(request, 200));
+
+		assertEquals(200, retryInterceptor.intercept(chain).code());
+		ArgumentCaptor<Request> sentRequests = ArgumentCaptor.forClass(Request.class);
+		verify(chain, times(2)).proceed(sentRequests.capture());
+		for (Request sent : sentRequests.getAllValues()) {
+			assertNull(sent.header(ApiClient.HEADER_IDEMPOTENT));
+			assertEquals("request-id", sent.header(ApiClient.HEADER_REQUEST_ID));
+		}
+	}
+
+	@Test
+	public void post_MarkedIdempotentWithoutRequestId_NotRetried() throws Exception {
+		final Request request = new Request.Builder().url(URL).post(emptyBody())
+			.header(ApiClient.HEADER_IDEMPOTENT, "true")
+			.build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+		try {
+			retryInterceptor.intercept(chain);
+			fail("expected IOException");
+		} catch (IOException e) {
+			verify(chain, times(1)).proceed(any(Request.class));
+		}
+	}
+
+	@Test
+	public void get_CallCanceled_NotRetried() throws Exception {
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(call.isCanceled()).thenReturn(true);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("Canceled"));
+
+		try {
+			retryInterceptor.intercept(chain);
+			fail("expected IOException");
+		} catch (IOException e) {
+			verify(chain, times(1)).proceed(any(Request.class));
+		}
+	}
+
+	@Test
+	public void get_CallCanceledAfterRetryableStatus_NotRetried() throws Exception {
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(call.isCanceled()).thenReturn(true);
+		when(chain.proceed(any(Request.class))).thenReturn(response(request, 503));
+
+		assertEquals(503, retryInterceptor.intercept(chain).code());
+		verify(chain, times(1)).proceed(any(Request.class));
+	}
+
+	@Test
+	public void get_NoRetryPolicy_NotRetried() throws Exception {
+		when(apiClient.getRetryPolicy()).thenReturn(RetryPolicy.NO_RETRY);
+		final Request request = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(request);
+		when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+		try {
+			retryInterceptor.intercept(chain);
+			fail("expected IOException");
+		} catch (IOException e) {
+			verify(chain, times(1)).proceed(any(Request.class));
+		}
+	}
+
+	private static RequestBody emptyBody() {
+		return RequestBody.create(MediaType.parse(ApiClient.APPLICATION_JSON_KEY), "");
+	}
+
+	private static Response response(Request request, int code) {
+		return new Response.Builder()
+			.request(request)
+			.protocol(Protocol.HTTP_1_1)
+			.code(code)
+			.message("")
+			.body(ResponseBody.create(MediaType.parse(ApiClient.APPLICATION_JSON_KEY), ""))
+			.build();
+	}
+}
@@ -0,0 +1,152 @@
+package kin.devplatform.core.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor.Chain;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class StaleWhileRevalidateInterceptorTest {
+
+	private static final String URL = "https://api.kinecosystem.com/v1/offers";
+	private static final String STALE_WARNING = "110 HttpURLConnection \"Response is stale\"";
+
+	@Mock
+	private ApiClient apiClient;
+
+	@Mock
+	private OkHttpClient httpClient;
+
+	@Mock
+	private Chain chain;
+
+	@Mock
+	private Call revalidateCall;
+
+	private StaleWhileRevalidateInterceptor interceptor;
+	private Request request;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		HttpClientProvider.enableCache(new File(System.getProperty("java.io.tmpdir"), "http_cache_test"), 1024 * 1024);
+		when(apiClient.getHttpClient()).thenReturn(httpClient);
+		when(httpClient.newCall(any(Request.class))).thenReturn(revalidateCall);
+		interceptor = new StaleWhileRevalidateInterceptor(apiClient);
+		request = new Request.Builder().url(URL).get()
+			.header(ApiClient.HEADER_STALE_WHILE_REVALIDATE, "60")
+			.build();
+		when(chain.request()).thenReturn(request);
+	}
+
+	@Test
+	public void staleCachedResponse_ServedAndRevalidated() throws Exception {
+		final Response cachedResponse = response(200, STALE_WARNING);
+		when(chain.proceed(any(Request.class))).thenReturn(cachedResponse);
+
+		assertSame(cachedResponse, interceptor.intercept(chain));
+
+		ArgumentCaptor<Request> cacheRequest = ArgumentCaptor.forClass(Request.class);
+		verify(chain, times(1)).proceed(cacheRequest.capture());
+		assertTrue(cacheRequest.getValue().cacheControl().onlyIfCached());
+		assertEquals(60, cacheRequest.getValue().cacheControl().maxStaleSeconds());
+
+		ArgumentCaptor<Request> revalidateRequest = ArgumentCaptor.forClass(Request.class);
+		verify(httpClient).newCall(revalidateRequest.capture());
+		assertEquals(0, revalidateRequest.getValue().cacheControl().maxAgeSeconds());
+		assertNull(revalidateRequest.getValue().header(ApiClient.HEADER_STALE_WHILE_REVALIDATE));
+		verify(revalidateCall).enqueue(any(Callback.class));
+	}
+
+	@Test
+	public void staleCachedResponse_RevalidationInFlight_NotRevalidatedAgain() throws Exception {
+		when(chain.proceed(any(Request.class))).thenReturn(response(200, STALE_WARNING));
+
+		interceptor.intercept(chain);
+		interceptor.intercept(chain);
+		verify(httpClient, times(1)).newCall(any(Request.class));
+
+		ArgumentCaptor<Callback> callback = ArgumentCaptor.forClass(Callback.class);
+		verify(revalidateCall).enqueue(callback.capture());
+		callback.getValue().onFailure(revalidateCall, new IOException("timeout"));
+
+		interceptor.intercept(chain);
+		verify(httpClient, times(2)).newCall(any(Request.class));
+	}
+
+	@Test
+	public void freshCachedResponse_ServedWithoutRevalidation() throws Exception {
+		final Response cachedResponse = response(200, null);
+		when(chain.proceed(any(Request.class))).thenReturn(cachedResponse);
+
+		assertSame(cachedResponse, interceptor.intercept(chain));
+		verify(chain, times(1)).proceed(any(Request.class));
+		verify(httpClient, never()).newCall(any(Request.class));
+	}
+
+	@Test
+	public void nothingCached_FetchedFromNetwork() throws Exception {
+		final Response networkResponse = response(200, null);
+		when(chain.proceed(any(Request.class))).thenReturn(response(504, null), networkResponse);
+
+		assertSame(networkResponse, interceptor.intercept(chain));
+
+		ArgumentCaptor<Request> sentRequests = ArgumentCaptor.forClass(Request.class);
+		verify(chain, times(2)).proceed(sentRequests.capture());
+		final Request networkRequest = sentRequests.getAllValues().get(1);
+		assertNull(networkRequest.header(ApiClient.HEADER_STALE_WHILE_REVALIDATE));
+		assertFalse(networkRequest.cacheControl().onlyIfCached());
+		verify(httpClient, never()).newCall(any(Request.class));
+	}
+
+	@Test
+	public void requestWithoutHeader_ProceedsUnchanged() throws Exception {
+		final Request plainRequest = new Request.Builder().url(URL).get().build();
+		when(chain.request()).thenReturn(plainRequest);
+		final Response networkResponse = response(200, null);
+		when(chain.proceed(plainRequest)).thenReturn(networkResponse);
+
+		assertSame(networkResponse, interceptor.intercept(chain));
+		verify(httpClient, never()).newCall(any(Request.class));
+	}
+
+	private Response response(int code, String warning) {
+		final Response.Builder builder = new Response.Builder()
+			.request(request)
+			.protocol(Protocol.HTTP_1_1)
+			.code(code)
+			.message("")
+			.body(ResponseBody.create(MediaType.parse(ApiClient.APPLICATION_JSON_KEY), "[]"));
+		if (warning != null) {
+			builder.header("Warning", warning);
+		}
+		return builder.build();
+	}
+}
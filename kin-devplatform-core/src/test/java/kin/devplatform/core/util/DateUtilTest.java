@@ -0,0 +1,62 @@
+package kin.devplatform.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class DateUtilTest {
+
+	@Test
+	public void getDateFromUTCString_ValidDate_ParsedAsUTC() {
+		assertEquals(1540210500000L, DateUtil.getDateFromUTCString("2018-10-22T12:15").getTime());
+	}
+
+	@Test
+	public void getDateFromUTCString_InvalidDate_Null() {
+		assertNull(DateUtil.getDateFromUTCString("not a date"));
+	}
+
+	@Test
+	public void getDateFromUTCString_ConcurrentCalls_AllParsedCorrectly() throws Exception {
+		final int threads = 8;
+		final int iterations = 500;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+		final AtomicInteger wrongDates = new AtomicInteger();
+		for (int i = 0; i < threads; i++) {
+			final String date = "2018-10-2" + i + "T1" + i + ":0" + i;
+			final long expectedTime = DateUtil.getDateFromUTCString(date).getTime();
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int j = 0; j < iterations; j++) {
+							if (DateUtil.getDateFromUTCString(date).getTime() != expectedTime) {
+								wrongDates.incrementAndGet();
+							}
+						}
+					} catch (Exception e) {
+						wrongDates.incrementAndGet();
+					} finally {
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+
+		start.countDown();
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(0, wrongDates.get());
+	}
+}
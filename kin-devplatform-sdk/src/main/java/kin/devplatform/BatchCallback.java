@@ -0,0 +1,24 @@
+package kin.devplatform;
+
+import kin.devplatform.data.model.BatchResult;
+import kin.devplatform.data.model.OrderConfirmation;
+import kin.devplatform.exception.KinEcosystemException;
+
+/**
+ * Results of a batch of orders, called on the main thread. Every item gets exactly one item callback, then the batch
+ * gets {@link #onBatchCompleted(BatchResult)}.
+ */
+public interface BatchCallback {
+
+	/**
+	 * @param index the index of the offer jwt in the batch.
+	 */
+	void onItemCompleted(int index, OrderConfirmation orderConfirmation);
+
+	/**
+	 * @param index the index of the offer jwt in the batch.
+	 */
+	void onItemFailed(int index, KinEcosystemException exception);
+
+	void onBatchCompleted(BatchResult result);
+}
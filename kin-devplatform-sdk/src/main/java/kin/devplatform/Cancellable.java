@@ -0,0 +1,19 @@
+package kin.devplatform;
+
+/**
+ * Handle of an order flow started by {@link Kin#purchase}, {@link Kin#payToUser} or {@link Kin#requestPayment}.
+ */
+public interface Cancellable {
+
+	/**
+	 * Stop the flow and release its resources, the callback gets a {@link kin.devplatform.exception.ClientException}
+	 * with {@link kin.devplatform.exception.ClientException#ORDER_CANCELED}. Has no effect once the payment
+	 * transaction was sent, or after the flow completed.
+	 */
+	void cancel();
+
+	/**
+	 * @return true if the flow was cancelled before completing.
+	 */
+	boolean isCancelled();
+}
@@ -24,12 +24,15 @@ import java.util.Locale;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.data.auth.AuthRepository;
 import kin.devplatform.network.model.AuthToken;
+import kin.devplatform.network.model.ModelTypeAdapterFactory;
+import okhttp3.Authenticator;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okhttp3.Route;
 
 public class ConfigurationImpl implements Configuration {
 
@@ -50,9 +53,10 @@ public class ConfigurationImpl implements Configuration {
 	private static final String PREFIX_ANDROID = "android ";
 
 	private static final Object apiClientLock = new Object();
-	private static ApiClient defaultApiClient;
+	private static volatile ApiClient defaultApiClient;
 
 	private KinEnvironment kinEnvironment;
+	private volatile Locale headersLocale;
 	private final Configuration.Local localData;
 	private static volatile ConfigurationImpl instance;
 
@@ -84,43 +88,70 @@ public class ConfigurationImpl implements Configuration {
 	public ApiClient getDefaultApiClient() {
 		if (defaultApiClient == null) {
 			synchronized (apiClientLock) {
-				defaultApiClient = new ApiClient(kinEnvironment.getEcosystemServerUrl());
-				defaultApiClient.addInterceptor(new Interceptor() {
-					@Override
-					public Response intercept(Chain chain) throws IOException {
-						Request originalRequest = chain.request();
-						final String path = originalRequest.url().encodedPath();
-						if (shouldSkipAuthentication(originalRequest, path)) {
-							return chain.proceed(originalRequest);
-						} else {
-							AuthToken authToken = AuthRepository.getInstance().getAuthTokenSync();
-							if (authToken != null) {
-								Request authorisedRequest = originalRequest.newBuilder()
-									.header(AUTHORIZATION, BEARER + authToken.getToken())
-									.build();
-								return chain.proceed(authorisedRequest);
-							} else {
-								// Stop the request from being executed.
-								Logger.log(new Log().withTag("ApiClient").text("No token - response error on client"));
-								return new Response.Builder()
-									.code(NO_TOKEN_ERROR_CODE)
-									.body(ResponseBody.create(MediaType.parse("application/json"),
-										"{error: \"" + AUTH_TOKEN_COULD_NOT_BE_GENERATED + "\"}"))
-									.message(AUTH_TOKEN_COULD_NOT_BE_GENERATED)
-									.protocol(Protocol.HTTP_2)
-									.request(originalRequest)
-									.build();
-							}
-						}
-					}
-				});
+				if (defaultApiClient == null) {
+					defaultApiClient = createDefaultApiClient();
+				}
 			}
 		}
 
-		addHeaders(defaultApiClient);
+		updateLanguageHeader(defaultApiClient);
 		return defaultApiClient;
 	}
 
+	private ApiClient createDefaultApiClient() {
+		ApiClient apiClient = new ApiClient(kinEnvironment.getEcosystemServerUrl());
+		apiClient.getJSON().registerTypeAdapterFactory(new ModelTypeAdapterFactory());
+		addHeaders(apiClient);
+		apiClient.addInterceptor(new Interceptor() {
+			@Override
+			public Response intercept(Chain chain) throws IOException {
+				Request originalRequest = chain.request();
+				final String path = originalRequest.url().encodedPath();
+				if (shouldSkipAuthentication(originalRequest, path)) {
+					return chain.proceed(originalRequest);
+				} else {
+					AuthToken authToken = AuthRepository.getInstance().getAuthTokenSync();
+					if (authToken != null) {
+						Request authorisedRequest = originalRequest.newBuilder()
+							.header(AUTHORIZATION, BEARER + authToken.getToken())
+							.build();
+						return chain.proceed(authorisedRequest);
+					} else {
+						// Stop the request from being executed.
+						Logger.log(new Log().withTag("ApiClient").text("No token - response error on client"));
+						return new Response.Builder()
+							.code(NO_TOKEN_ERROR_CODE)
+							.body(ResponseBody.create(MediaType.parse("application/json"),
+								"{error: \"" + AUTH_TOKEN_COULD_NOT_BE_GENERATED + "\"}"))
+							.message(AUTH_TOKEN_COULD_NOT_BE_GENERATED)
+							.protocol(Protocol.HTTP_2)
+							.request(originalRequest)
+							.build();
+					}
+				}
+			}
+		});
+		apiClient.setAuthenticator(new Authenticator() {
+			@Override
+			public Request authenticate(Route route, Response response) {
+				final String authorization = response.request().header(AUTHORIZATION);
+				// Retry only requests we authorized, and only once.
+				if (authorization == null || response.priorResponse() != null) {
+					return null;
+				}
+				final String staleToken = authorization.substring(BEARER.length());
+				AuthToken authToken = AuthRepository.getInstance().refreshAuthTokenSync(staleToken);
+				if (authToken == null) {
+					return null;
+				}
+				return response.request().newBuilder()
+					.header(AUTHORIZATION, BEARER + authToken.getToken())
+					.build();
+			}
+		});
+		return apiClient;
+	}
+
 	private boolean shouldSkipAuthentication(Request originalRequest, String path) {
 		return (path.equals(USERS_PATH) && originalRequest.method().equals(POST)) || path.contains(KIN_VERSION_PATH);
 	}
@@ -130,7 +161,19 @@ public class ConfigurationImpl implements Configuration {
 		apiClient.addDefaultHeader(HEADER_SDK_VERSION, BuildConfig.VERSION_NAME);
 		apiClient.addDefaultHeader(HEADER_DEVICE_MODEL, Build.MODEL);
 		apiClient.addDefaultHeader(HEADER_DEVICE_MANUFACTURER, Build.MANUFACTURER);
-		apiClient.addDefaultHeader(HEADER_DEVICE_LANGUAGE, getDeviceAcceptedLanguage());
+		updateLanguageHeader(apiClient);
+	}
+
+	/**
+	 * The default headers are set once, only the language one follows the device locale, so it's rebuilt just when the
+	 * locale changes.
+	 */
+	private void updateLanguageHeader(ApiClient apiClient) {
+		final Locale locale = Locale.getDefault();
+		if (locale != headersLocale) {
+			headersLocale = locale;
+			apiClient.addDefaultHeader(HEADER_DEVICE_LANGUAGE, getDeviceAcceptedLanguage());
+		}
 	}
 
 	@Override
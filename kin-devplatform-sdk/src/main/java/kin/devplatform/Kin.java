@@ -8,15 +8,23 @@ import android.content.Context;
 import android.content.Intent;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
 import kin.devplatform.base.Observer;
 import kin.devplatform.bi.EventLoggerImpl;
 import kin.devplatform.bi.events.EntrypointButtonTapped;
+import kin.devplatform.core.network.NetworkMetrics;
 import kin.devplatform.data.auth.AuthRepository;
 import kin.devplatform.data.blockchain.BlockchainSourceImpl;
 import kin.devplatform.data.model.Balance;
+import kin.devplatform.data.model.NetworkStats;
 import kin.devplatform.data.model.OrderConfirmation;
+import kin.devplatform.data.model.SpendPipelineStats;
+import kin.devplatform.data.model.StreamStats;
+import kin.devplatform.data.model.TransactionQueueStats;
 import kin.devplatform.data.offer.OfferRepository;
 import kin.devplatform.data.order.OrderRepository;
+import kin.devplatform.data.order.SpendPipelineMetrics;
 import kin.devplatform.exception.ClientException;
 import kin.devplatform.main.view.EcosystemActivity;
 import kin.devplatform.marketplace.model.NativeOffer;
@@ -32,6 +40,22 @@ public class Kin {
 		Logger.enableLogs(enableLogs);
 	}
 
+	/**
+	 * Connect ahead to the ecosystem, BI and blockchain servers when {@link #start} is called, so the first marketplace
+	 * open finds the connections ready. Disabled by default, should be called before {@link #start}.
+	 */
+	public static void enableConnectionPrewarming(final boolean enable) {
+		KinEcosystemInitiator.getInstance().setConnectionPrewarmingEnabled(enable);
+	}
+
+	/**
+	 * Set the window in which the balance refreshes triggered by incoming payments are coalesced into one fetch, 1
+	 * second by default.
+	 */
+	public static void setBalanceRefreshWindow(final long windowMillis) {
+		BlockchainSourceImpl.setBalanceRefreshWindow(windowMillis);
+	}
+
 	public static void start(Context appContext, @NonNull String jwt, @NonNull KinEnvironment environment,
 		KinCallback<Void> kinCallback) {
 		KinEcosystemInitiator.getInstance().externalInit(appContext, environment, jwt, kinCallback, null);
@@ -121,6 +145,61 @@ public class Kin {
 		BlockchainSourceImpl.getInstance().getBalance(callback);
 	}
 
+	/**
+	 * Get the account balance, from memory if it was fetched or pushed in the last {@code maxStalenessMillis},
+	 * otherwise from the network.
+	 *
+	 * @param maxStalenessMillis how old the cached balance can be.
+	 * @param callback balance amount
+	 * @throws ClientException - sdk not initialized or account not logged in.
+	 */
+	public static void getBalance(long maxStalenessMillis, @NonNull final KinCallback<Balance> callback)
+		throws ClientException {
+		checkInitialized();
+		BlockchainSourceImpl.getInstance().getBalance(maxStalenessMillis, callback);
+	}
+
+	/**
+	 * Get a snapshot of the SDK network metrics: per endpoint latency histogram, status codes and payload sizes, DNS,
+	 * connect and TLS handshake times, and connection reuse.
+	 *
+	 * @return network stats collected since the process started.
+	 * @throws ClientException - sdk not initialized.
+	 */
+	public static NetworkStats getNetworkStats() throws ClientException {
+		checkInitialized();
+		return new NetworkStats(NetworkMetrics.getInstance().snapshot(),
+			KinEcosystemInitiator.getInstance().getTimeToFirstOfferMillis());
+	}
+
+	/**
+	 * @return stage timings of the external spend flows since the process started.
+	 * @throws ClientException - sdk not initialized.
+	 */
+	public static SpendPipelineStats getSpendPipelineStats() throws ClientException {
+		checkInitialized();
+		return SpendPipelineMetrics.getInstance().snapshot();
+	}
+
+	/**
+	 * @return depth of the transaction submission queue and the average time of its stages since the process started.
+	 * @throws ClientException - sdk not initialized.
+	 */
+	public static TransactionQueueStats getTransactionQueueStats() throws ClientException {
+		checkInitialized();
+		return BlockchainSourceImpl.getInstance().getTransactionQueueStats();
+	}
+
+	/**
+	 * @return health of the balance and payment streams, keyed by stream name: connection state, reconnect count and
+	 * time since the last event.
+	 * @throws ClientException - sdk not initialized.
+	 */
+	public static Map<String, StreamStats> getStreamStats() throws ClientException {
+		checkInitialized();
+		return BlockchainSourceImpl.getInstance().getStreamStats();
+	}
+
 	/**
 	 * @return The version of the sdk.
 	 * @throws ClientException - sdk not initialized or account not logged in.
@@ -160,12 +239,13 @@ public class Kin {
 	 *
 	 * @param offerJwt Represents the offer in a JWT manner.
 	 * @param callback {@link OrderConfirmation} The result will be a failure or a success with a jwt confirmation.
+	 * @return handle to cancel the flow before the payment is sent.
 	 * @throws ClientException - sdk not initialized or account not logged in.
 	 */
-	public static void purchase(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
+	public static Cancellable purchase(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
 		throws ClientException {
 		checkInitialized();
-		OrderRepository.getInstance().purchase(offerJwt, callback);
+		return OrderRepository.getInstance().purchase(offerJwt, callback);
 	}
 
 
@@ -175,12 +255,42 @@ public class Kin {
 	 *
 	 * @param offerJwt Represents a 'Pay to user' offer in a JWT manner.
 	 * @param callback {@link OrderConfirmation} The result will be a failure or a success with a jwt confirmation.
+	 * @return handle to cancel the flow before the payment is sent.
+	 * @throws ClientException - sdk not initialized or account not logged in.
+	 */
+	public static Cancellable payToUser(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
+		throws ClientException {
+		checkInitialized();
+		return OrderRepository.getInstance().payToUser(offerJwt, callback);
+	}
+
+	/**
+	 * Purchase several offers together, e.g. a bundle checkout. A few orders are created at a time, their payments are
+	 * sent one after the other and the order statuses are polled together.
+	 *
+	 * @param offerJwts the offers, each represented in a JWT manner.
+	 * @param callback gets the result of every offer by its index, then the result of the whole batch.
+	 * @return handle to cancel the orders that did not send their payment yet.
+	 * @throws ClientException - sdk not initialized or account not logged in.
+	 */
+	public static Cancellable purchaseBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback)
+		throws ClientException {
+		checkInitialized();
+		return OrderRepository.getInstance().purchaseBatch(offerJwts, callback);
+	}
+
+	/**
+	 * Pay to other users for several 'Pay to user' offers together, like {@link #purchaseBatch(List, BatchCallback)}.
+	 *
+	 * @param offerJwts the 'Pay to user' offers, each represented in a JWT manner.
+	 * @param callback gets the result of every offer by its index, then the result of the whole batch.
+	 * @return handle to cancel the orders that did not send their payment yet.
 	 * @throws ClientException - sdk not initialized or account not logged in.
 	 */
-	public static void payToUser(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
+	public static Cancellable payToUserBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback)
 		throws ClientException {
 		checkInitialized();
-		OrderRepository.getInstance().payToUser(offerJwt, callback);
+		return OrderRepository.getInstance().payToUserBatch(offerJwts, callback);
 	}
 
 	/**
@@ -190,11 +300,12 @@ public class Kin {
 	 * @param offerJwt the offer details represented in a JWT manner.
 	 * @param callback after validating the info and sending the payment to the user, you will receive {@link
 	 * OrderConfirmation}, with the jwtConfirmation and you can validate the order when the order status is completed.
+	 * @return handle to stop waiting for the payment, the order might still be completed by the server.
 	 */
-	public static void requestPayment(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
+	public static Cancellable requestPayment(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback)
 		throws ClientException {
 		checkInitialized();
-		OrderRepository.getInstance().requestPayment(offerJwt, callback);
+		return OrderRepository.getInstance().requestPayment(offerJwt, callback);
 	}
 
 	/**
@@ -1,8 +1,12 @@
 package kin.devplatform;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import java.io.File;
+import java.util.Arrays;
 import java.util.UUID;
 import kin.devplatform.accountmanager.AccountManager;
 import kin.devplatform.accountmanager.AccountManager.AccountState;
@@ -13,6 +17,7 @@ import kin.devplatform.bi.EventLogger;
 import kin.devplatform.bi.EventLoggerImpl;
 import kin.devplatform.bi.events.GeneralEcosystemSdkError;
 import kin.devplatform.bi.events.KinSdkInitiated;
+import kin.devplatform.core.network.HttpClientProvider;
 import kin.devplatform.core.util.DeviceUtils;
 import kin.devplatform.core.util.ExecutorsUtil;
 import kin.devplatform.data.auth.AuthLocalData;
@@ -48,11 +53,16 @@ public final class KinEcosystemInitiator {
 
 	private static final String TAG = KinEcosystemInitiator.class.getSimpleName();
 	private static final String KIN_ECOSYSTEM_STORE_PREFIX_KEY = "kinecosystem_store";
+	private static final String HTTP_CACHE_DIRECTORY = "kinecosystem_http_cache";
+	private static final long HTTP_CACHE_MAX_SIZE_BYTES = 2 * 1024 * 1024;
 	private static KinEcosystemInitiator instance;
 
 	private final ExecutorsUtil executorsUtil;
 	private volatile boolean isInitialized = false;
 	private volatile boolean isLoggedIn = false;
+	private volatile boolean isConnectionPrewarmingEnabled = false;
+	private volatile boolean didPrewarmConnections = false;
+	private volatile long startTime = -1;
 
 	public static KinEcosystemInitiator getInstance() {
 		if (instance == null) {
@@ -104,6 +114,9 @@ public final class KinEcosystemInitiator {
 	 */
 	public void externalInit(Context context, KinEnvironment environment, @NonNull String jwt,
 		final KinCallback<Void> loginCallback, @Nullable final KinMigrationListener migrationProcessCallback) {
+		if (startTime < 0) {
+			startTime = SystemClock.elapsedRealtime();
+		}
 		SignInData signInData;
 		try {
 			signInData = getJwtSignInData(jwt);
@@ -115,6 +128,10 @@ public final class KinEcosystemInitiator {
 			return;
 		}
 
+		if (isConnectionPrewarmingEnabled && !didPrewarmConnections) {
+			didPrewarmConnections = true;
+			prewarmConnections(ConfigurationImpl.getInstance().getEnvironment());
+		}
 		init(context, signInData.getAppId(), signInData, loginCallback, migrationProcessCallback);
 	}
 
@@ -124,6 +141,10 @@ public final class KinEcosystemInitiator {
 		AuthRepository
 			.init(AuthLocalData.getInstance(context, executorsUtil), AuthRemoteData.getInstance(executorsUtil));
 		if (signInData != null) {
+			if (!TextUtils.equals(signInData.getUserId(), AuthRepository.getInstance().getUserID())) {
+				// Cached responses such as offers belong to the previous user.
+				HttpClientProvider.evictCache();
+			}
 			String deviceID = AuthRepository.getInstance().getDeviceID();
 			signInData.setDeviceId(deviceID != null ? deviceID : UUID.randomUUID().toString());
 			AuthRepository.getInstance().setSignInData(signInData);
@@ -137,6 +158,40 @@ public final class KinEcosystemInitiator {
 			configurationLocal.setEnvironment(environment);
 		}
 		ConfigurationImpl.init(configurationLocal);
+		HttpClientProvider.enableCache(new File(context.getCacheDir(), HTTP_CACHE_DIRECTORY), HTTP_CACHE_MAX_SIZE_BYTES);
+	}
+
+	/**
+	 * Connect ahead to every host of the environment, so the first marketplace open doesn't pay for the DNS lookups
+	 * and handshakes one host after the other. The Horizon hosts are used by the blockchain sdk's own HTTP stack, a
+	 * connection in the shared pool wouldn't help it, only their DNS lookup is warmed.
+	 */
+	private void prewarmConnections(KinEnvironment environment) {
+		HttpClientProvider.prewarm(
+			Arrays.asList(
+				environment.getEcosystemServerUrl(),
+				environment.getBiUrl(),
+				environment.getMigrationServiceUrl()),
+			Arrays.asList(
+				environment.getOldBlockchainNetworkUrl(),
+				environment.getNewBlockchainNetworkUrl()));
+	}
+
+	void setConnectionPrewarmingEnabled(boolean enabled) {
+		isConnectionPrewarmingEnabled = enabled;
+	}
+
+	/**
+	 * @return milliseconds from the first {@link Kin#start} call until the first offers were loaded, -1 if not
+	 * loaded yet.
+	 */
+	long getTimeToFirstOfferMillis() {
+		final OfferRepository offerRepository = OfferRepository.getInstance();
+		final long offersLoadedTime = offerRepository != null ? offerRepository.getFirstOffersLoadedTime() : -1;
+		if (startTime < 0 || offersLoadedTime < 0) {
+			return -1;
+		}
+		return offersLoadedTime - startTime;
 	}
 
 	private SignInData getJwtSignInData(@NonNull final String jwt) throws JSONException {
@@ -243,6 +298,7 @@ public final class KinEcosystemInitiator {
 		// If not initialized then initialize all necessary components.
 		if (!isInitialized) {
 			BlockchainSourceImpl.init(eventLogger, kinClient, BlockchainSourceLocal.getInstance(context));
+			BlockchainSourceImpl.getInstance().startConnectivityMonitoring(context);
 			if (appId != null) {
 				BlockchainSourceImpl.getInstance().setAppID(appId);
 			}
@@ -256,6 +312,8 @@ public final class KinEcosystemInitiator {
 				eventLogger,
 				OrderRemoteData.getInstance(executorsUtil),
 				OrderLocalData.getInstance(context, executorsUtil));
+			OrderRepository.getInstance().setUserID(
+				signInData != null ? signInData.getUserId() : AuthRepository.getInstance().getUserID());
 
 			OfferRepository
 				.init(OfferRemoteData.getInstance(executorsUtil), OrderRepository.getInstance());
@@ -285,6 +343,7 @@ public final class KinEcosystemInitiator {
 
 	private void login(@NonNull SignInData signInData, final KinCallback<Void> loginCallback) {
 		setAuthRepositoryData(signInData);
+		OrderRepository.getInstance().setUserID(signInData.getUserId());
 		performLogin(loginCallback);
 	}
 
@@ -353,6 +412,8 @@ public final class KinEcosystemInitiator {
 
 	private void fireStartCompleted(final KinCallback<Void> loginCallback) {
 		isLoggedIn = true;
+		// The journal is replayed with the token of the user it belongs to.
+		OrderRepository.getInstance().resumeUnresolvedOrders();
 		executorsUtil.mainThread().execute(new Runnable() {
 			@Override
 			public void run() {
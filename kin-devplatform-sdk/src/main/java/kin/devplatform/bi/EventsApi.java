@@ -1,23 +1,22 @@
 package kin.devplatform.bi;
 
-import static kin.devplatform.core.network.ApiClient.APPLICATION_JSON_KEY;
 import static kin.devplatform.core.network.ApiClient.POST;
 
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
-import kin.devplatform.core.network.Pair;
+import kin.devplatform.core.network.RequestTemplate;
 import okhttp3.Call;
 
 class EventsApi {
 
+	private static final RequestTemplate SEND_EVENT = new RequestTemplate.Builder(POST)
+		.route("/")
+		.json()
+		.returnType(String.class)
+		.build();
+
 	private ApiClient apiClient;
 
 	/*
@@ -34,31 +33,11 @@ class EventsApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call sendEventCall(Event event) throws ApiException {
-		Object localVarPostBody = event;
-
 		// create path and map variables
 		String localVarPath = "";
 
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
 		final String eventId = apiClient.parameterToString(event.getCommon().getEventId());
-		localVarHeaderParams.put("X-REQUEST-ID", eventId);
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		String[] applicationJson = {APPLICATION_JSON_KEY};
-		final String localVarAccept = apiClient.selectHeaderAccept(applicationJson);
-		localVarHeaderParams.put("Accept", localVarAccept);
-
-		final String localVarContentType = apiClient.selectHeaderContentType(applicationJson);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, null);
+		return apiClient.buildCall(SEND_EVENT, localVarPath, null, event, eventId);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -77,9 +56,7 @@ class EventsApi {
 	public Call sendEventAsync(Event event, final ApiCallback<String> callback)
 		throws ApiException {
 		Call call = sendEventValidateBeforeCall(event);
-		Type localVarReturnType = new TypeToken<String>() {
-		}.getType();
-		apiClient.executeAsync(call, localVarReturnType, callback);
+		apiClient.executeAsync(call, SEND_EVENT.getReturnType(), callback);
 		return call;
 	}
 }
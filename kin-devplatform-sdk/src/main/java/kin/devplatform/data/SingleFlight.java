@@ -0,0 +1,68 @@
+package kin.devplatform.data;
+
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces identical concurrent calls, only the first caller of a key performs the call and all the callers that
+ * joined while it was in flight get the same result.
+ *
+ * @param <K> key identifying identical calls
+ * @param <T> result type
+ * @param <E> error type
+ */
+public class SingleFlight<K, T, E> {
+
+	private final Map<K, List<Callback<T, E>>> inFlightCalls = new HashMap<>();
+
+	/**
+	 * Register a callback for the key.
+	 *
+	 * @return true if there is no call in flight for this key and the caller should perform it, reporting its result to
+	 * {@link #completionFor(Object)}, false if the callback joined a call already in flight.
+	 */
+	public boolean join(@NonNull K key, @NonNull Callback<T, E> callback) {
+		synchronized (inFlightCalls) {
+			List<Callback<T, E>> callbacks = inFlightCalls.get(key);
+			if (callbacks != null) {
+				callbacks.add(callback);
+				return false;
+			}
+			callbacks = new ArrayList<>();
+			callbacks.add(callback);
+			inFlightCalls.put(key, callbacks);
+			return true;
+		}
+	}
+
+	/**
+	 * @return a callback that completes the call in flight for the key, notifying every joined callback.
+	 */
+	public Callback<T, E> completionFor(@NonNull final K key) {
+		return new Callback<T, E>() {
+			@Override
+			public void onResponse(T response) {
+				for (Callback<T, E> callback : remove(key)) {
+					callback.onResponse(response);
+				}
+			}
+
+			@Override
+			public void onFailure(E error) {
+				for (Callback<T, E> callback : remove(key)) {
+					callback.onFailure(error);
+				}
+			}
+		};
+	}
+
+	private List<Callback<T, E>> remove(K key) {
+		synchronized (inFlightCalls) {
+			List<Callback<T, E>> callbacks = inFlightCalls.remove(key);
+			return callbacks != null ? callbacks : new ArrayList<Callback<T, E>>();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package kin.devplatform.data;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+
+/**
+ * Bounded pool of named worker threads for the long blocking flows (external orders, trustline creation). At most
+ * {@link #MAX_THREADS} flows run at once and at most {@link #QUEUE_LIMIT} wait for a thread, more submissions are
+ * rejected instead of spawning more threads.
+ */
+public class WorkerPool {
+
+	private static final String TAG = WorkerPool.class.getSimpleName();
+
+	static final int MAX_THREADS = 4;
+	static final int QUEUE_LIMIT = 16;
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private static volatile WorkerPool instance;
+
+	private final ThreadPoolExecutor executor;
+	private volatile Listener listener;
+
+	/**
+	 * Metrics hook, called on the worker threads (and on the submitting thread for {@link #onRejected}), keep it
+	 * short.
+	 */
+	public interface Listener {
+
+		void onQueued(int queueSize);
+
+		void onStarted(long waitMillis);
+
+		void onFinished(long runMillis);
+
+		void onRejected();
+	}
+
+	@VisibleForTesting
+	WorkerPool(@NonNull final String name, int maxThreads, int queueLimit) {
+		executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(queueLimit), new NamedThreadFactory(name),
+			new ThreadPoolExecutor.AbortPolicy());
+		// Idle workers are released, the pool costs nothing between flows.
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	public static WorkerPool getInstance() {
+		if (instance == null) {
+			synchronized (WorkerPool.class) {
+				if (instance == null) {
+					instance = new WorkerPool("kin-worker", MAX_THREADS, QUEUE_LIMIT);
+				}
+			}
+		}
+		return instance;
+	}
+
+	public void setListener(@Nullable Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @return the future of the task, cancel it to drop the task if it did not start yet.
+	 * @throws RejectedExecutionException if all the workers are busy and the queue is full.
+	 */
+	public Future<?> submit(@NonNull final Runnable task) throws RejectedExecutionException {
+		final long submitTime = SystemClock.elapsedRealtime();
+		try {
+			final Future<?> future = executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					final long startTime = SystemClock.elapsedRealtime();
+					final Listener currentListener = listener;
+					if (currentListener != null) {
+						currentListener.onStarted(startTime - submitTime);
+					}
+					try {
+						task.run();
+					} finally {
+						if (currentListener != null) {
+							currentListener.onFinished(SystemClock.elapsedRealtime() - startTime);
+						}
+					}
+				}
+			});
+			final Listener currentListener = listener;
+			if (currentListener != null) {
+				currentListener.onQueued(executor.getQueue().size());
+			}
+			return future;
+		} catch (RejectedExecutionException e) {
+			Logger.log(new Log().withTag(TAG).put("rejected task, active", executor.getActiveCount())
+				.put("queued", executor.getQueue().size()));
+			final Listener currentListener = listener;
+			if (currentListener != null) {
+				currentListener.onRejected();
+			}
+			throw e;
+		}
+	}
+
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+
+		private final String name;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		NamedThreadFactory(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(@NonNull Runnable runnable) {
+			return new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+		}
+	}
+}
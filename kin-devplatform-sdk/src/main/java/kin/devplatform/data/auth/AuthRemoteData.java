@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiException;
+import kin.devplatform.core.network.RequestId;
 import kin.devplatform.core.util.ExecutorsUtil;
 import kin.devplatform.data.Callback;
 import kin.devplatform.network.api.AuthApi;
@@ -51,7 +52,7 @@ public class AuthRemoteData implements AuthDataSource.Remote {
 	@Override
 	public void getAuthToken(@NonNull final Callback<AuthToken, ApiException> callback) {
 		try {
-			authApi.signInAsync(signInData, "", new ApiCallback<AuthToken>() {
+			authApi.signInAsync(signInData, RequestId.create(), new ApiCallback<AuthToken>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
@@ -88,7 +89,7 @@ public class AuthRemoteData implements AuthDataSource.Remote {
 	@Nullable
 	public AuthToken getAuthTokenSync() {
 		try {
-			return authApi.signIn(signInData, "");
+			return authApi.signIn(signInData, RequestId.create());
 		} catch (ApiException e) {
 			return null;
 		}
@@ -97,7 +98,7 @@ public class AuthRemoteData implements AuthDataSource.Remote {
 	@Override
 	public void activateAccount(@NonNull final Callback<AuthToken, ApiException> callback) {
 		try {
-			authApi.activateAccountAsync("", new ApiCallback<AuthToken>() {
+			authApi.activateAccountAsync(RequestId.create(), new ApiCallback<AuthToken>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
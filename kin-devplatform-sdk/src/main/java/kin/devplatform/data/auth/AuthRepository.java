@@ -5,8 +5,11 @@ import static kin.devplatform.exception.ClientException.INCORRECT_APP_ID;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import kin.devplatform.KinCallback;
 import kin.devplatform.Log;
 import kin.devplatform.Logger;
@@ -24,18 +27,30 @@ public class AuthRepository implements AuthDataSource {
 	private final static String TAG = AuthRepository.class.getSimpleName();
 	private static AuthRepository instance = null;
 
+	/**
+	 * The token is refreshed in the background this long before it expires.
+	 */
+	private static final long PROACTIVE_REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
 	private final AuthDataSource.Local localData;
 	private final AuthDataSource.Remote remoteData;
 
 	private SignInData cachedSignInData;
-	private AuthToken cachedAuthToken;
+	private volatile CachedToken cachedToken;
+
+	private final Object refreshLock = new Object();
+	private ScheduledExecutorService refreshScheduler;
+	private ScheduledFuture<?> scheduledRefresh;
 
 	private AuthRepository(@NonNull AuthDataSource.Local local,
 		@NonNull AuthDataSource.Remote remote) {
 		this.localData = local;
 		this.remoteData = remote;
 		this.cachedSignInData = local.getSignInData();
-		this.cachedAuthToken = local.getAuthTokenSync();
+		final AuthToken authToken = local.getAuthTokenSync();
+		if (authToken != null) {
+			this.cachedToken = new CachedToken(authToken);
+		}
 	}
 
 	public static void init(@NonNull Local localData,
@@ -116,67 +131,86 @@ public class AuthRepository implements AuthDataSource {
 	@Override
 	@Nullable
 	public AuthToken getCachedAuthToken() {
-		return cachedAuthToken;
+		final CachedToken token = cachedToken;
+		return token != null ? token.authToken : null;
 	}
 
 	@Override
 	public AuthToken getAuthTokenSync() {
-		if (cachedAuthToken != null) {
-			return cachedAuthToken;
-		} else {
-			if (cachedSignInData != null) {
-				try {
-					AuthToken authToken = localData.getAuthTokenSync();
-					if (authToken != null && !isAuthTokenExpired(authToken)) {
-						setAuthToken(authToken);
-					} else {
-						refreshTokenSync();
-					}
-				} catch (ClientException e) {
-					Logger.log(new Log().priority(ERROR).withTag(TAG).text("incorrect app id"));
-					return null;
-				}
-				return cachedAuthToken;
-			} else {
-				return null;
-			}
+		final CachedToken token = cachedToken;
+		if (token != null && !token.isExpired()) {
+			return token.authToken;
 		}
+		return refreshAuthTokenSync(token != null ? token.authToken.getToken() : null);
 	}
 
-
-	private boolean isAuthTokenExpired(AuthToken authToken) {
-		if (authToken == null) {
-			return true;
-		} else {
-			Date expirationDate = DateUtil.getDateFromUTCString(authToken.getExpirationDate());
-			if (expirationDate != null) {
-				return Calendar.getInstance().getTimeInMillis() > expirationDate.getTime();
-			} else {
-				return true;
+	/**
+	 * Get a new token from the server, only one refresh runs at a time and concurrent callers wait for its result
+	 * instead of each starting their own.
+	 *
+	 * @param staleToken the token the caller found unusable, a different valid token is returned as is.
+	 * @return the refreshed token, or null if it could not be refreshed.
+	 */
+	@Nullable
+	public AuthToken refreshAuthTokenSync(@Nullable String staleToken) {
+		synchronized (refreshLock) {
+			final CachedToken token = cachedToken;
+			if (token != null && !token.isExpired()
+				&& (staleToken == null || !staleToken.equals(token.authToken.getToken()))) {
+				// Refreshed by another caller while this one was waiting.
+				return token.authToken;
+			}
+			if (cachedSignInData == null) {
+				return null;
 			}
-		}
-	}
 
-	private void refreshTokenSync() {
-		AuthToken authToken = remoteData.getAuthTokenSync();
-		if (authToken != null) {
+			AuthToken authToken = remoteData.getAuthTokenSync();
+			if (authToken == null) {
+				return null;
+			}
 			try {
 				setAuthToken(authToken);
 			} catch (ClientException e) {
 				Logger.log(new Log().priority(ERROR).withTag(TAG).text("incorrect app id"));
+				return null;
 			}
+			return authToken;
 		}
 	}
 
 	@Override
 	public void setAuthToken(@NonNull AuthToken authToken) throws ClientException {
-		cachedAuthToken = authToken;
+		final CachedToken token = new CachedToken(authToken);
+		cachedToken = token;
 		localData.setAuthToken(authToken);
+		scheduleProactiveRefresh(token);
 		if (!cachedSignInData.getAppId().equals(authToken.getAppID())) {
 			throw ErrorUtil.getClientException(INCORRECT_APP_ID, null);
 		}
 	}
 
+	private synchronized void scheduleProactiveRefresh(final CachedToken token) {
+		if (scheduledRefresh != null) {
+			scheduledRefresh.cancel(false);
+			scheduledRefresh = null;
+		}
+		final long timeToExpiry = token.expirationMillis - System.currentTimeMillis();
+		if (timeToExpiry <= 0) {
+			return;
+		}
+		if (refreshScheduler == null) {
+			refreshScheduler = Executors.newSingleThreadScheduledExecutor();
+		}
+		// Short lived tokens are refreshed half way, so refreshing can't turn into a loop.
+		final long delay = Math.max(timeToExpiry - PROACTIVE_REFRESH_MILLIS, timeToExpiry / 2);
+		scheduledRefresh = refreshScheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				refreshAuthTokenSync(token.authToken.getToken());
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
 	@Override
 	public void getAuthToken(@Nullable final KinCallback<AuthToken> callback) {
 		remoteData.getAuthToken(new Callback<AuthToken, ApiException>() {
@@ -185,7 +219,7 @@ public class AuthRepository implements AuthDataSource {
 				try {
 					setAuthToken(authToken);
 					if (callback != null) {
-						callback.onResponse(cachedAuthToken);
+						callback.onResponse(getCachedAuthToken());
 					}
 				} catch (ClientException e) {
 					onFailure(new ApiException(INCORRECT_APP_ID, e));
@@ -231,4 +265,25 @@ public class AuthRepository implements AuthDataSource {
 			}
 		});
 	}
+
+	/**
+	 * The token with its expiration date parsed once.
+	 */
+	private static class CachedToken {
+
+		private final AuthToken authToken;
+		private final long expirationMillis;
+
+		CachedToken(@NonNull AuthToken authToken) {
+			this.authToken = authToken;
+			final String expiration = authToken.getExpirationDate();
+			final Date expirationDate = expiration != null ? DateUtil.getDateFromUTCString(expiration) : null;
+			// Without a readable expiration date the token is treated as expired.
+			this.expirationMillis = expirationDate != null ? expirationDate.getTime() : 0;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expirationMillis;
+		}
+	}
 }
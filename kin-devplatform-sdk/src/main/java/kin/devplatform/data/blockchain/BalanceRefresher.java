@@ -0,0 +1,151 @@
+package kin.devplatform.data.blockchain;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.KinCallback;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+import kin.devplatform.data.blockchain.BalanceSnapshot.Source;
+import kin.devplatform.data.model.Balance;
+import kin.devplatform.exception.KinEcosystemException;
+import kin.devplatform.util.ErrorUtil;
+import kin.sdk.migration.common.exception.OperationFailedException;
+
+/**
+ * Coalesces the balance refreshes requested within a window into a single fetch, so a burst of payments doesn't turn
+ * into a burst of balance queries. Fetches run one at a time on a single thread, requests that arrive while one is
+ * running are served by the next. A fetch is skipped when a balance newer than all its requests is already stored,
+ * usually pushed by the balance stream.
+ */
+class BalanceRefresher {
+
+	private static final String TAG = BalanceRefresher.class.getSimpleName();
+
+	interface Fetcher {
+
+		/**
+		 * Fetch the balance from the network and store it.
+		 */
+		void fetch(@NonNull Source source) throws OperationFailedException;
+
+		@NonNull
+		BalanceSnapshot getBalanceSnapshot();
+
+		/**
+		 * @return a number ordering the balance requests, a later request gets a greater number.
+		 */
+		long nextBalanceRequest();
+
+		/**
+		 * @return the number of the request the stored balance was fetched or pushed for.
+		 */
+		long getStoredBalanceRequest();
+	}
+
+	private final Fetcher fetcher;
+	private final ScheduledExecutorService executor;
+	private final Executor callbackExecutor;
+	private volatile long windowMillis;
+
+	private final Object lock = new Object();
+	private List<KinCallback<Balance>> waiters = new ArrayList<>();
+	private boolean isScheduled;
+	private long lastRequest;
+	private Source source;
+
+	private final Runnable refreshTask = new Runnable() {
+		@Override
+		public void run() {
+			refresh();
+		}
+	};
+
+	/**
+	 * @param executor single threaded, so there is at most one fetch in flight.
+	 * @param callbackExecutor the executor callbacks are notified on.
+	 */
+	BalanceRefresher(@NonNull Fetcher fetcher, @NonNull ScheduledExecutorService executor,
+		@NonNull Executor callbackExecutor, long windowMillis) {
+		this.fetcher = fetcher;
+		this.executor = executor;
+		this.callbackExecutor = callbackExecutor;
+		this.windowMillis = windowMillis;
+	}
+
+	void setWindowMillis(long windowMillis) {
+		this.windowMillis = windowMillis;
+	}
+
+	/**
+	 * Request a balance refresh, the fetch starts at most one window later.
+	 *
+	 * @param callback notified with the refreshed balance, can be null.
+	 */
+	void request(@NonNull Source source, @Nullable KinCallback<Balance> callback) {
+		synchronized (lock) {
+			if (callback != null) {
+				waiters.add(callback);
+			}
+			lastRequest = fetcher.nextBalanceRequest();
+			// A payment refresh is reported as such, even if other requests joined it.
+			if (this.source == null || source == Source.PAYMENT) {
+				this.source = source;
+			}
+			if (isScheduled) {
+				return;
+			}
+			isScheduled = true;
+		}
+		executor.schedule(refreshTask, windowMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void refresh() {
+		final List<KinCallback<Balance>> roundWaiters;
+		final long request;
+		final Source roundSource;
+		synchronized (lock) {
+			roundWaiters = waiters;
+			request = lastRequest;
+			roundSource = source;
+			waiters = new ArrayList<>();
+			source = null;
+			isScheduled = false;
+		}
+
+		KinEcosystemException error = null;
+		if (fetcher.getStoredBalanceRequest() > request) {
+			Logger.log(new Log().withTag(TAG).text("refresh skipped, a newer balance is stored"));
+		} else {
+			try {
+				fetcher.fetch(roundSource);
+			} catch (OperationFailedException e) {
+				error = ErrorUtil.getBlockchainException(e);
+				Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("refresh failed", e.getMessage()));
+			}
+		}
+		if (!roundWaiters.isEmpty()) {
+			notifyWaiters(roundWaiters, new Balance(fetcher.getBalanceSnapshot().getAmount()), error);
+		}
+	}
+
+	private void notifyWaiters(final List<KinCallback<Balance>> roundWaiters, final Balance balance,
+		final KinEcosystemException error) {
+		callbackExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (KinCallback<Balance> callback : roundWaiters) {
+					if (error != null) {
+						callback.onFailure(error);
+					} else {
+						callback.onResponse(balance);
+					}
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,74 @@
+package kin.devplatform.data.blockchain;
+
+import android.support.annotation.NonNull;
+import java.math.BigDecimal;
+
+/**
+ * The exact account balance as last seen, when it was fetched and where it came from. Every accepted update gets the
+ * next version, so readers can tell whether the balance changed hands since they looked.
+ */
+public class BalanceSnapshot {
+
+	public enum Source {
+		/**
+		 * Pushed by the balance stream.
+		 */
+		SSE,
+		/**
+		 * Fetched on request.
+		 */
+		POLL,
+		/**
+		 * Fetched after a payment of the account was seen.
+		 */
+		PAYMENT
+	}
+
+	private static final BalanceSnapshot EMPTY = new BalanceSnapshot(BigDecimal.ZERO, 0, Source.POLL, 0);
+
+	private final BigDecimal amount;
+	private final long fetchedAt;
+	private final Source source;
+	private final long version;
+
+	public BalanceSnapshot(@NonNull BigDecimal amount, long fetchedAt, @NonNull Source source, long version) {
+		this.amount = amount;
+		this.fetchedAt = fetchedAt;
+		this.source = source;
+		this.version = version;
+	}
+
+	/**
+	 * @return a zero balance that was never fetched, stale for any staleness.
+	 */
+	public static BalanceSnapshot empty() {
+		return EMPTY;
+	}
+
+	@NonNull
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	/**
+	 * @return the wall clock time the value was stored at, in millis. For staleness only, updates are not ordered by it
+	 * since the wall clock can move backward.
+	 */
+	public long getFetchedAt() {
+		return fetchedAt;
+	}
+
+	@NonNull
+	public Source getSource() {
+		return source;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean isFresh(long maxStalenessMillis) {
+		final long age = System.currentTimeMillis() - fetchedAt;
+		return fetchedAt > 0 && age >= 0 && age <= maxStalenessMillis;
+	}
+}
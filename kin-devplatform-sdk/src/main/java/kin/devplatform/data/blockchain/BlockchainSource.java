@@ -49,20 +49,36 @@ public interface BlockchainSource {
 	 */
 	Balance getBalance();
 
+	/**
+	 * @return the exact cached balance with its fetch time, source and version.
+	 */
+	@NonNull
+	BalanceSnapshot getBalanceSnapshot();
+
 	/**
 	 * Get balance from network
 	 */
 	void getBalance(@Nullable final KinCallback<Balance> callback);
 
+	/**
+	 * Get the cached balance if it was fetched in the last {@code maxStalenessMillis}, otherwise from the network.
+	 */
+	void getBalance(long maxStalenessMillis, @NonNull final KinCallback<Balance> callback);
+
+	/**
+	 * Get balance from network on the calling thread, the cached balance is updated too.
+	 */
+	Balance getBalanceSync() throws OperationFailedException;
+
 	/**
 	 * @return true if the account is on the new kin blockchain, meaning we are using the new kin sdk.
 	 */
 	KinSdkVersion getKinSdkVersion();
 
 	/**
-	 * Reconnect the balance connection, due to connection lose.
+	 * Reconnect the open blockchain streams right away, a stream can die without a network change.
 	 */
-	void reconnectBalanceConnection();
+	void reconnectStreams();
 
 	/**
 	 * Add balance observer in order to start receive balance updates
@@ -115,9 +131,13 @@ public interface BlockchainSource {
 
 	interface Local {
 
-		int getBalance();
+		/**
+		 * @return the last stored balance snapshot, or null if none was stored.
+		 */
+		@Nullable
+		BalanceSnapshot getBalanceSnapshot();
 
-		void setBalance(int balance);
+		void setBalanceSnapshot(@NonNull BalanceSnapshot snapshot);
 
 		int getAccountIndex();
 
@@ -1,11 +1,17 @@
 package kin.devplatform.data.blockchain;
 
+import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 import com.kin.ecosystem.recovery.KeyStoreProvider;
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import kin.devplatform.KinCallback;
 import kin.devplatform.Log;
 import kin.devplatform.Logger;
@@ -22,13 +28,21 @@ import kin.devplatform.bi.events.SpendTransactionBroadcastToBlockchainSucceeded;
 import kin.devplatform.bi.events.StellarKinTrustlineSetupFailed;
 import kin.devplatform.bi.events.StellarKinTrustlineSetupSucceeded;
 import kin.devplatform.core.util.ExecutorsUtil.MainThreadExecutor;
+import kin.devplatform.data.WorkerPool;
+import kin.devplatform.data.blockchain.BalanceSnapshot.Source;
 import kin.devplatform.data.blockchain.CreateTrustLineCall.TrustlineCallback;
+import kin.devplatform.data.blockchain.StreamConnectionManager.Connector;
+import kin.devplatform.data.blockchain.StreamConnectionManager.Stream;
 import kin.devplatform.data.model.Balance;
 import kin.devplatform.data.model.Payment;
+import kin.devplatform.data.model.StreamStats;
+import kin.devplatform.data.model.TransactionQueueStats;
 import kin.devplatform.exception.BlockchainException;
+import kin.devplatform.exception.ClientException;
 import kin.devplatform.network.model.Offer.OfferType;
 import kin.devplatform.network.model.OpenOrder;
 import kin.devplatform.network.model.WhitelistService;
+import kin.devplatform.network.model.WhitelistServiceListener;
 import kin.devplatform.util.ErrorUtil;
 import kin.sdk.migration.common.KinSdkVersion;
 import kin.sdk.migration.common.exception.CreateAccountException;
@@ -40,6 +54,7 @@ import kin.sdk.migration.common.interfaces.IKinAccount;
 import kin.sdk.migration.common.interfaces.IKinClient;
 import kin.sdk.migration.common.interfaces.IListenerRegistration;
 import kin.sdk.migration.common.interfaces.IPaymentInfo;
+import kin.sdk.migration.common.interfaces.IWhitelistService;
 import kin.utils.ResultCallback;
 
 public class BlockchainSourceImpl implements BlockchainSource {
@@ -47,6 +62,10 @@ public class BlockchainSourceImpl implements BlockchainSource {
 	private static final String TAG = BlockchainSourceImpl.class.getSimpleName();
 
 	private static volatile BlockchainSourceImpl instance;
+
+	private static final long DEFAULT_BALANCE_REFRESH_WINDOW_MILLIS = 1000;
+	private static volatile long balanceRefreshWindowMillis = DEFAULT_BALANCE_REFRESH_WINDOW_MILLIS;
+
 	private final BlockchainSource.Local local;
 
 	private final EventLogger eventLogger;
@@ -54,18 +73,37 @@ public class BlockchainSourceImpl implements BlockchainSource {
 	private IKinClient kinClient;
 	private IKinAccount account;
 	private ObservableData<Balance> balance = ObservableData.create(new Balance());
+	private final Object balanceLock = new Object();
+	private volatile BalanceSnapshot balanceSnapshot;
+	/**
+	 * Orders the balance updates by when they were requested or pushed. Not the wall clock, which can move backward,
+	 * and not persisted, the stored snapshot is replaced by any balance of this process.
+	 */
+	private final AtomicLong balanceRequests = new AtomicLong();
+	// Guarded by balanceLock.
+	private long appliedBalanceRequest;
+	private final BalanceRefresher balanceRefresher;
 	/**
 	 * Listen for {@code completedPayment} in order to be notify about completed transaction sent to the blockchain, it
 	 * could failed or succeed.
 	 */
 	private ObservableData<Payment> completedPayment = ObservableData.create();
-	private final Object paymentObserversLock = new Object();
-	private final Object balanceObserversLock = new Object();
-	private int paymentObserversCount;
-	private int balanceObserversCount;
+	private final TransactionSubmissionQueue transactionQueue = new TransactionSubmissionQueue();
+	private final WhitelistServiceListener whitelistListener = new WhitelistServiceListener() {
+		@Override
+		public void onSuccess(String whitelistTransaction) {
+			Logger.log(new Log().withTag(TAG).text("whitelist succeeded"));
+		}
+
+		@Override
+		public void onFailure(Exception e) {
+			Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("whitelist failed", e.getMessage()));
+		}
+	};
 
-	private IListenerRegistration paymentRegistration;
-	private IListenerRegistration balanceRegistration;
+	private final StreamConnectionManager streamConnectionManager = new StreamConnectionManager();
+	private final Stream<IBalance> balanceStream;
+	private final Stream<IPaymentInfo> paymentStream;
 
 	private final MainThreadExecutor mainThread = new MainThreadExecutor();
 
@@ -77,26 +115,72 @@ public class BlockchainSourceImpl implements BlockchainSource {
 	private static final int MEMO_SPLIT_LENGTH = 3;
 
 	private BlockchainSourceImpl(@NonNull EventLogger eventLogger, @NonNull final IKinClient kinClient,
-		@NonNull BlockchainSource.Local local)
+		@NonNull BlockchainSource.Local local, @NonNull ScheduledExecutorService balanceRefreshExecutor)
 		throws BlockchainException {
 		this.eventLogger = eventLogger;
 		this.kinClient = kinClient;
 		this.local = local;
+		final BalanceSnapshot storedSnapshot = local.getBalanceSnapshot();
+		this.balanceSnapshot = storedSnapshot != null ? storedSnapshot : BalanceSnapshot.empty();
+		this.balanceRefresher = new BalanceRefresher(new BalanceRefresher.Fetcher() {
+			@Override
+			public void fetch(@NonNull Source source) throws OperationFailedException {
+				fetchBalanceSync(source);
+			}
+
+			@NonNull
+			@Override
+			public BalanceSnapshot getBalanceSnapshot() {
+				return balanceSnapshot;
+			}
+
+			@Override
+			public long nextBalanceRequest() {
+				return balanceRequests.incrementAndGet();
+			}
+
+			@Override
+			public long getStoredBalanceRequest() {
+				synchronized (balanceLock) {
+					return appliedBalanceRequest;
+				}
+			}
+		}, balanceRefreshExecutor, mainThread, balanceRefreshWindowMillis);
+		this.balanceStream = createBalanceStream();
+		this.paymentStream = createPaymentStream();
 		createKinAccountIfNeeded();
 		initBalance();
 	}
 
 	public static void init(@NonNull EventLogger eventLogger, @NonNull final IKinClient kinClient,
 		@NonNull BlockchainSource.Local local) throws BlockchainException {
+		init(eventLogger, kinClient, local, Executors.newSingleThreadScheduledExecutor());
+	}
+
+	@VisibleForTesting
+	static void init(@NonNull EventLogger eventLogger, @NonNull final IKinClient kinClient,
+		@NonNull BlockchainSource.Local local, @NonNull ScheduledExecutorService balanceRefreshExecutor)
+		throws BlockchainException {
 		if (instance == null) {
 			synchronized (BlockchainSourceImpl.class) {
 				if (instance == null) {
-					instance = new BlockchainSourceImpl(eventLogger, kinClient, local);
+					instance = new BlockchainSourceImpl(eventLogger, kinClient, local, balanceRefreshExecutor);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Set the window balance refreshes triggered by payments and account changes are coalesced in.
+	 */
+	public static void setBalanceRefreshWindow(long windowMillis) {
+		balanceRefreshWindowMillis = windowMillis;
+		final BlockchainSourceImpl blockchainSource = instance;
+		if (blockchainSource != null) {
+			blockchainSource.balanceRefresher.setWindowMillis(windowMillis);
+		}
+	}
+
 	public static BlockchainSourceImpl getInstance() {
 		return instance;
 	}
@@ -142,12 +226,19 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		@NonNull OpenOrder order) throws OperationFailedException {
 		OfferType offerType = order.getOfferType();
 		String offerId = order.getOfferId();
-		String orderId = order.getId();
+		final String orderId = order.getId();
 
 		sendBroadcastToBlockchainSubmittedEvent(offerType, offerId, orderId);
 		try {
-			String transactionId = account
-				.sendTransactionSync(publicAddress, amount, new WhitelistService(orderId), orderId).id();
+			final IKinAccount sendingAccount = account;
+			final String transactionId = transactionQueue.submit(sendingAccount.getPublicAddress(),
+				new WhitelistService(orderId, whitelistListener), new TransactionSubmissionQueue.Submission<String>() {
+					@Override
+					public String submit(@NonNull IWhitelistService whitelistService)
+						throws OperationFailedException {
+						return sendingAccount.sendTransactionSync(publicAddress, amount, whitelistService, orderId).id();
+					}
+				});
 			sendTransactionSucceededEvent(offerType, offerId, orderId, transactionId);
 			Logger.log(new Log().withTag(TAG).put("sendTransaction onResult", transactionId));
 		} catch (OperationFailedException e) {
@@ -191,27 +282,53 @@ public class BlockchainSourceImpl implements BlockchainSource {
 
 	private void initBalance() {
 		balance.postValue(getBalance());
-		getBalance(null);
+		balanceRefresher.request(Source.POLL, null);
 	}
 
 	@Override
 	public Balance getBalance() {
-		Balance balance = new Balance();
-		balance.setAmount(new BigDecimal(local.getBalance()));
-		return balance;
+		return new Balance(balanceSnapshot.getAmount());
+	}
+
+	@Override
+	@NonNull
+	public BalanceSnapshot getBalanceSnapshot() {
+		return balanceSnapshot;
 	}
 
 	@Override
 	public void getBalance(@Nullable final KinCallback<Balance> callback) {
+		fetchBalance(callback);
+	}
+
+	@Override
+	public void getBalance(long maxStalenessMillis, @NonNull final KinCallback<Balance> callback) {
+		if (balanceSnapshot.isFresh(maxStalenessMillis)) {
+			final Balance cachedBalance = getBalance();
+			mainThread.execute(new Runnable() {
+				@Override
+				public void run() {
+					callback.onResponse(cachedBalance);
+				}
+			});
+		} else {
+			fetchBalance(callback);
+		}
+	}
+
+	private void fetchBalance(@Nullable final KinCallback<Balance> callback) {
+		final long request = balanceRequests.incrementAndGet();
 		account.getBalance().run(new ResultCallback<IBalance>() {
 			@Override
 			public void onResult(final IBalance balanceObj) {
-				setBalance(balanceObj);
+				setBalance(balanceObj, Source.POLL, request);
 				if (callback != null) {
+					// The latest balance, a newer one may have been pushed while this fetch was running.
+					final Balance latestBalance = getBalance();
 					mainThread.execute(new Runnable() {
 						@Override
 						public void run() {
-							callback.onResponse(balance.getValue());
+							callback.onResponse(latestBalance);
 						}
 					});
 				}
@@ -233,34 +350,84 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		});
 	}
 
+	@Override
+	public Balance getBalanceSync() throws OperationFailedException {
+		fetchBalanceSync(Source.POLL);
+		return getBalance();
+	}
+
+	private void fetchBalanceSync(Source source) throws OperationFailedException {
+		final long request = balanceRequests.incrementAndGet();
+		setBalance(account.getBalanceSync(), source, request);
+	}
+
 	@Override
 	public KinSdkVersion getKinSdkVersion() {
 		return account.getKinSdkVersion();
 	}
 
 	@Override
-	public void reconnectBalanceConnection() {
-		synchronized (balanceObserversLock) {
-			if (balanceObserversCount > 0) {
-				if (balanceRegistration != null) {
-					balanceRegistration.remove();
-				}
-				startBalanceListener();
+	public void reconnectStreams() {
+		streamConnectionManager.reconnectAllNow();
+	}
+
+	/**
+	 * Reconnect the open blockchain streams when the device moves to another network.
+	 */
+	public void startConnectivityMonitoring(@NonNull Context context) {
+		new ConnectivityMonitor(new ConnectivityMonitor.Listener() {
+			@Override
+			public void onNetworkChanged() {
+				streamConnectionManager.reconnectAll();
 			}
-		}
+		}).start(context);
+	}
+
+	/**
+	 * @return depth of the transaction submission queue and its stage timings.
+	 */
+	public TransactionQueueStats getTransactionQueueStats() {
+		return transactionQueue.snapshot();
+	}
+
+	/**
+	 * @return health of the balance and payment streams, keyed by stream name.
+	 */
+	public Map<String, StreamStats> getStreamStats() {
+		return streamConnectionManager.getStats();
 	}
 
 	@VisibleForTesting
 	void setBalance(final IBalance balanceObj) {
-		Balance balanceTemp = balance.getValue();
-		// if the values are not equals so we need to update,
-		// no need to update for equal values.
-		if (balanceTemp.getAmount().compareTo(balanceObj.value()) != 0) {
-			eventLogger.send(KinBalanceUpdated.create(balanceTemp.getAmount().doubleValue()));
-			Logger.log(new Log().withTag(TAG).text("setBalance: Balance changed, should get update"));
-			balanceTemp.setAmount(balanceObj.value());
-			balance.postValue(balanceTemp);
-			local.setBalance(balanceObj.value().intValue());
+		setBalance(balanceObj, Source.POLL, balanceRequests.incrementAndGet());
+	}
+
+	/**
+	 * @param request taken from {@link #balanceRequests} when the value was requested or pushed, a value requested
+	 * before the current snapshot is dropped.
+	 */
+	private void setBalance(final IBalance balanceObj, final Source source, final long request) {
+		synchronized (balanceLock) {
+			if (request < appliedBalanceRequest) {
+				Logger.log(new Log().withTag(TAG).put("setBalance: dropped stale balance from", source));
+				return;
+			}
+			appliedBalanceRequest = request;
+			final BalanceSnapshot current = balanceSnapshot;
+			final BalanceSnapshot snapshot = new BalanceSnapshot(balanceObj.value(), System.currentTimeMillis(),
+				source, current.getVersion() + 1);
+			balanceSnapshot = snapshot;
+
+			Balance balanceTemp = balance.getValue();
+			// if the values are not equals so we need to update,
+			// no need to update for equal values.
+			if (balanceTemp.getAmount().compareTo(balanceObj.value()) != 0) {
+				eventLogger.send(KinBalanceUpdated.create(balanceTemp.getAmount().doubleValue()));
+				Logger.log(new Log().withTag(TAG).text("setBalance: Balance changed, should get update"));
+				balanceTemp.setAmount(balanceObj.value());
+				balance.postValue(balanceTemp);
+				local.setBalanceSnapshot(snapshot);
+			}
 		}
 	}
 
@@ -270,27 +437,23 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		observer.onChanged(balance.getValue());
 
 		if (startSSE) {
-			incrementBalanceSSECount();
+			balanceStream.acquire();
 		}
 	}
 
-	private void incrementBalanceSSECount() {
-		synchronized (balanceObserversLock) {
-			if (balanceObserversCount == 0) {
-				startBalanceListener();
+	private Stream<IBalance> createBalanceStream() {
+		return streamConnectionManager.createStream("balance", new Connector<IBalance>() {
+			@NonNull
+			@Override
+			public IListenerRegistration connect(@NonNull IEventListener<IBalance> listener) {
+				Logger.log(new Log().withTag(TAG).text("startBalanceListener"));
+				return account.addBalanceListener(listener);
 			}
-			balanceObserversCount++;
-			Logger.log(new Log().withTag(TAG).put("incrementBalanceSSECount count", balanceObserversCount));
-		}
-	}
-
-	private void startBalanceListener() {
-		Logger.log(new Log().withTag(TAG).text("startBalanceListener"));
-		balanceRegistration = account.addBalanceListener(new IEventListener<IBalance>() {
+		}, new IEventListener<IBalance>() {
 			@Override
 			public void onEvent(IBalance data) {
 				final double prevBalance = balance.getValue().getAmount().doubleValue();
-				setBalance(data);
+				setBalance(data, Source.SSE, balanceRequests.incrementAndGet());
 				eventLogger.send(KinBalanceUpdated.create(prevBalance));
 			}
 		});
@@ -301,24 +464,10 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		Logger.log(new Log().withTag(TAG).text("removeBalanceObserver"));
 		balance.removeObserver(observer);
 		if (stopSSE) {
-			decrementBalanceSSECount();
+			balanceStream.release();
 		}
 	}
 
-	private void decrementBalanceSSECount() {
-		synchronized (balanceObserversLock) {
-			if (balanceObserversCount > 0) {
-				balanceObserversCount--;
-			}
-
-			if (balanceObserversCount == 0) {
-				removeRegistration(balanceRegistration);
-				Logger.log(new Log().withTag(TAG).text("decrementBalanceCount: removeRegistration"));
-			}
-		}
-		Logger.log(new Log().withTag(TAG).put("decrementBalanceCount: count", balanceObserversCount));
-	}
-
 
 	@Override
 	public String getPublicAddress() {
@@ -338,20 +487,17 @@ public class BlockchainSourceImpl implements BlockchainSource {
 	@Override
 	public void addPaymentObservable(Observer<Payment> observer) {
 		completedPayment.addObserver(observer);
-		incrementPaymentCount();
+		paymentStream.acquire();
 	}
 
-	private void incrementPaymentCount() {
-		synchronized (paymentObserversLock) {
-			if (paymentObserversCount == 0) {
-				startPaymentListener();
+	private Stream<IPaymentInfo> createPaymentStream() {
+		return streamConnectionManager.createStream("payment", new Connector<IPaymentInfo>() {
+			@NonNull
+			@Override
+			public IListenerRegistration connect(@NonNull IEventListener<IPaymentInfo> listener) {
+				return account.addPaymentListener(listener);
 			}
-			paymentObserversCount++;
-		}
-	}
-
-	private void startPaymentListener() {
-		paymentRegistration = account.addPaymentListener(new IEventListener<IPaymentInfo>() {
+		}, new IEventListener<IPaymentInfo>() {
 			@Override
 			public void onEvent(IPaymentInfo data) {
 				final String orderID = extractOrderId(data.memo());
@@ -363,7 +509,7 @@ public class BlockchainSourceImpl implements BlockchainSource {
 					Logger.log(new Log().withTag(TAG).put("completedPayment order id", orderID));
 				}
 				// UpdateBalance
-				getBalance(null);
+				balanceRefresher.request(Source.PAYMENT, null);
 			}
 		});
 	}
@@ -371,12 +517,12 @@ public class BlockchainSourceImpl implements BlockchainSource {
 	@Override
 	public void removePaymentObserver(Observer<Payment> observer) {
 		completedPayment.removeObserver(observer);
-		decrementPaymentCount();
+		paymentStream.release();
 	}
 
 	@Override
 	public void createTrustLine(@NonNull final KinCallback<Void> callback) {
-		new CreateTrustLineCall(account, new TrustlineCallback() {
+		final CreateTrustLineCall createTrustLineCall = new CreateTrustLineCall(account, new TrustlineCallback() {
 			@Override
 			public void onSuccess() {
 				eventLogger.send(StellarKinTrustlineSetupSucceeded.create());
@@ -399,7 +545,17 @@ public class BlockchainSourceImpl implements BlockchainSource {
 					}
 				});
 			}
-		}).start();
+		});
+		try {
+			WorkerPool.getInstance().submit(createTrustLineCall);
+		} catch (final RejectedExecutionException e) {
+			mainThread.execute(new Runnable() {
+				@Override
+				public void run() {
+					callback.onFailure(ErrorUtil.getClientException(ClientException.TOO_MANY_OPERATIONS, e));
+				}
+			});
+		}
 	}
 
 	@Override
@@ -412,15 +568,9 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		this.kinClient = kinClient;
 		local.setAccountIndex(accountIndex);
 		createKinAccountIfNeeded();
-
-		synchronized (balanceObserversLock) {
-			removeRegistration(balanceRegistration);
-			if (balanceObserversCount > 0) {
-				startBalanceListener();
-			}
-		}
+		streamConnectionManager.reconnectAllNow();
 		//trigger balance update
-		getBalance(null);
+		balanceRefresher.request(Source.POLL, null);
 	}
 
 	@Override
@@ -430,25 +580,6 @@ public class BlockchainSourceImpl implements BlockchainSource {
 		}
 	}
 
-	private void decrementPaymentCount() {
-		synchronized (paymentObserversLock) {
-			if (paymentObserversCount > 0) {
-				paymentObserversCount--;
-			}
-
-			if (paymentObserversCount == 0) {
-				removeRegistration(paymentRegistration);
-			}
-		}
-	}
-
-	private void removeRegistration(IListenerRegistration listenerRegistration) {
-		Logger.log(new Log().withTag(TAG).text("removeRegistration"));
-		if (listenerRegistration != null) {
-			listenerRegistration.remove();
-		}
-	}
-
 
 	@VisibleForTesting
 	String extractOrderId(String memo) {
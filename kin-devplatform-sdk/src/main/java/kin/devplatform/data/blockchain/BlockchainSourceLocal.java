@@ -3,13 +3,21 @@ package kin.devplatform.data.blockchain;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.math.BigDecimal;
+import kin.devplatform.data.blockchain.BalanceSnapshot.Source;
 
 public class BlockchainSourceLocal implements BlockchainSource.Local {
 
 	private static volatile BlockchainSourceLocal instance;
 
 	private static final String BLOCKCHAIN_PREF_NAME_FILE_KEY = "kinecosystem_blockchain_source";
+	// Integer balance of older versions, read only when there is no snapshot yet.
 	private static final String BALANCE_KEY = "balance_key";
+	private static final String BALANCE_AMOUNT_KEY = "balance_amount_key";
+	private static final String BALANCE_FETCHED_AT_KEY = "balance_fetched_at_key";
+	private static final String BALANCE_SOURCE_KEY = "balance_source_key";
+	private static final String BALANCE_VERSION_KEY = "balance_version_key";
 	private static final String ACCOUNT_INDEX_KEY = "account_index_key";
 	private static final String APP_ID_KEY = "app_id_key";
 
@@ -34,13 +42,36 @@ public class BlockchainSourceLocal implements BlockchainSource.Local {
 
 
 	@Override
-	public int getBalance() {
-		return blockchainSharedPreferences.getInt(BALANCE_KEY, 0);
+	@Nullable
+	public BalanceSnapshot getBalanceSnapshot() {
+		final String amount = blockchainSharedPreferences.getString(BALANCE_AMOUNT_KEY, null);
+		if (amount == null) {
+			if (!blockchainSharedPreferences.contains(BALANCE_KEY)) {
+				return null;
+			}
+			// Never fetched as far as staleness goes.
+			return new BalanceSnapshot(new BigDecimal(blockchainSharedPreferences.getInt(BALANCE_KEY, 0)), 0,
+				Source.POLL, 0);
+		}
+		try {
+			return new BalanceSnapshot(new BigDecimal(amount),
+				blockchainSharedPreferences.getLong(BALANCE_FETCHED_AT_KEY, 0),
+				Source.valueOf(blockchainSharedPreferences.getString(BALANCE_SOURCE_KEY, Source.POLL.name())),
+				blockchainSharedPreferences.getLong(BALANCE_VERSION_KEY, 0));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
 	}
 
 	@Override
-	public void setBalance(int balance) {
-		blockchainSharedPreferences.edit().putInt(BALANCE_KEY, balance).apply();
+	public void setBalanceSnapshot(@NonNull BalanceSnapshot snapshot) {
+		blockchainSharedPreferences.edit()
+			.putString(BALANCE_AMOUNT_KEY, snapshot.getAmount().toPlainString())
+			.putLong(BALANCE_FETCHED_AT_KEY, snapshot.getFetchedAt())
+			.putString(BALANCE_SOURCE_KEY, snapshot.getSource().name())
+			.putLong(BALANCE_VERSION_KEY, snapshot.getVersion())
+			.remove(BALANCE_KEY)
+			.apply();
 	}
 
 	@Override
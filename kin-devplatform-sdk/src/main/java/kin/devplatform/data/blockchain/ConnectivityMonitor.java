@@ -0,0 +1,54 @@
+package kin.devplatform.data.blockchain;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.support.annotation.NonNull;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+
+/**
+ * Reports when the device gets connected again or moves to another network, the open streams are dead by then.
+ */
+class ConnectivityMonitor extends BroadcastReceiver {
+
+	private static final String TAG = ConnectivityMonitor.class.getSimpleName();
+	private static final int NO_NETWORK = -1;
+
+	interface Listener {
+
+		void onNetworkChanged();
+	}
+
+	private final Listener listener;
+	private int networkType = NO_NETWORK;
+
+	ConnectivityMonitor(@NonNull Listener listener) {
+		this.listener = listener;
+	}
+
+	void start(@NonNull Context context) {
+		context.getApplicationContext()
+			.registerReceiver(this, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+	}
+
+	@Override
+	public void onReceive(Context context, Intent intent) {
+		final ConnectivityManager connectivityManager = (ConnectivityManager) context
+			.getSystemService(Context.CONNECTIVITY_SERVICE);
+		final NetworkInfo networkInfo = connectivityManager != null ? connectivityManager.getActiveNetworkInfo() : null;
+		final int previousType = networkType;
+		networkType = networkInfo != null && networkInfo.isConnected() ? networkInfo.getType() : NO_NETWORK;
+		// The sticky broadcast delivered on registration only tells the current network.
+		if (isInitialStickyBroadcast()) {
+			return;
+		}
+		if (networkType != NO_NETWORK && networkType != previousType) {
+			Logger.log(new Log().withTag(TAG).put("network changed, type", networkType));
+			listener.onNetworkChanged();
+		}
+	}
+}
@@ -3,7 +3,10 @@ package kin.devplatform.data.blockchain;
 import kin.sdk.migration.common.exception.OperationFailedException;
 import kin.sdk.migration.common.interfaces.IKinAccount;
 
-class CreateTrustLineCall extends Thread {
+/**
+ * Activates the account, retrying up to {@link #MAX_TRIES} times. Run on the {@link kin.devplatform.data.WorkerPool}.
+ */
+class CreateTrustLineCall implements Runnable {
 
 	private final IKinAccount account;
 	private final TrustlineCallback trustlineCallback;
@@ -17,7 +20,6 @@ class CreateTrustLineCall extends Thread {
 
 	@Override
 	public void run() {
-		super.run();
 		createTrustline(0);
 	}
 
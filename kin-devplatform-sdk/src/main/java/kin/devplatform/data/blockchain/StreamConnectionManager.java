@@ -0,0 +1,257 @@
+package kin.devplatform.data.blockchain;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+import kin.devplatform.data.model.StreamStats;
+import kin.sdk.migration.common.interfaces.IEventListener;
+import kin.sdk.migration.common.interfaces.IListenerRegistration;
+
+/**
+ * Owns the blockchain streams of the account. A stream is connected while it has users and lingers for a while after
+ * the last one leaves, so a screen bouncing through onStop/onStart keeps it open. Reconnects are spaced with
+ * exponential backoff and jitter until the stream connects again.
+ */
+class StreamConnectionManager {
+
+	private static final String TAG = StreamConnectionManager.class.getSimpleName();
+
+	@VisibleForTesting
+	static final long LINGER_MILLIS = 30 * 1000;
+	@VisibleForTesting
+	static final long RECONNECT_BASE_DELAY_MILLIS = 1000;
+	@VisibleForTesting
+	static final long RECONNECT_MAX_DELAY_MILLIS = 60 * 1000;
+	private static final int MAX_BACKOFF_SHIFT = 16;
+
+	interface Connector<T> {
+
+		@NonNull
+		IListenerRegistration connect(@NonNull IEventListener<T> listener);
+	}
+
+	private final ScheduledExecutorService scheduler;
+	private final Random random;
+	private final Object lock = new Object();
+	private final List<Stream<?>> streams = new ArrayList<>();
+
+	StreamConnectionManager() {
+		this(Executors.newSingleThreadScheduledExecutor(), new Random());
+	}
+
+	@VisibleForTesting
+	StreamConnectionManager(@NonNull ScheduledExecutorService scheduler, @NonNull Random random) {
+		this.scheduler = scheduler;
+		this.random = random;
+	}
+
+	<T> Stream<T> createStream(@NonNull String name, @NonNull Connector<T> connector,
+		@NonNull IEventListener<T> listener) {
+		final Stream<T> stream = new Stream<>(name, connector, listener);
+		synchronized (lock) {
+			streams.add(stream);
+		}
+		return stream;
+	}
+
+	/**
+	 * Reconnect the open streams, e.g. when connectivity is back.
+	 */
+	void reconnectAll() {
+		synchronized (lock) {
+			for (Stream<?> stream : streams) {
+				stream.scheduleReconnect();
+			}
+		}
+	}
+
+	/**
+	 * Reconnect the open streams right away, e.g. when the account changed or the app is back in the foreground.
+	 */
+	void reconnectAllNow() {
+		synchronized (lock) {
+			for (Stream<?> stream : streams) {
+				stream.reconnectNow();
+			}
+		}
+	}
+
+	Map<String, StreamStats> getStats() {
+		final Map<String, StreamStats> stats = new HashMap<>();
+		synchronized (lock) {
+			for (Stream<?> stream : streams) {
+				stats.put(stream.name, stream.getStats());
+			}
+		}
+		return Collections.unmodifiableMap(stats);
+	}
+
+	@VisibleForTesting
+	long getReconnectDelayMillis(int attempt) {
+		final long delay = Math.min(RECONNECT_MAX_DELAY_MILLIS,
+			RECONNECT_BASE_DELAY_MILLIS << Math.min(attempt, MAX_BACKOFF_SHIFT));
+		// Half fixed, half random, so clients that lost the same network don't come back together.
+		final long half = delay / 2;
+		return half + (long) (random.nextDouble() * half);
+	}
+
+	class Stream<T> {
+
+		private final String name;
+		private final Connector<T> connector;
+		private final IEventListener<T> eventListener;
+
+		// Guarded by the manager lock.
+		private int usersCount;
+		private boolean isOpen;
+		private IListenerRegistration registration;
+		private ScheduledFuture<?> pendingTeardown;
+		private ScheduledFuture<?> pendingReconnect;
+		private int reconnectAttempt;
+		private long reconnectCount;
+		private long eventCount;
+		private long lastEventTime;
+
+		private Stream(String name, Connector<T> connector, final IEventListener<T> listener) {
+			this.name = name;
+			this.connector = connector;
+			this.eventListener = new IEventListener<T>() {
+				@Override
+				public void onEvent(T data) {
+					synchronized (lock) {
+						eventCount++;
+						lastEventTime = SystemClock.elapsedRealtime();
+						reconnectAttempt = 0;
+					}
+					listener.onEvent(data);
+				}
+			};
+		}
+
+		/**
+		 * Start using the stream, connects it unless it is open or lingering.
+		 */
+		void acquire() {
+			synchronized (lock) {
+				usersCount++;
+				if (pendingTeardown != null) {
+					pendingTeardown.cancel(false);
+					pendingTeardown = null;
+				}
+				if (!isOpen) {
+					isOpen = true;
+					connect();
+				}
+				Logger.log(new Log().withTag(TAG).put(name + " users", usersCount));
+			}
+		}
+
+		/**
+		 * Stop using the stream, it is closed after the linger period if nobody uses it by then.
+		 */
+		void release() {
+			synchronized (lock) {
+				if (usersCount == 0) {
+					return;
+				}
+				usersCount--;
+				if (usersCount == 0 && isOpen) {
+					pendingTeardown = scheduler.schedule(new Runnable() {
+						@Override
+						public void run() {
+							close();
+						}
+					}, LINGER_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				Logger.log(new Log().withTag(TAG).put(name + " users", usersCount));
+			}
+		}
+
+		private void close() {
+			synchronized (lock) {
+				pendingTeardown = null;
+				if (usersCount > 0 || !isOpen) {
+					return;
+				}
+				isOpen = false;
+				if (pendingReconnect != null) {
+					pendingReconnect.cancel(false);
+					pendingReconnect = null;
+				}
+				disconnect();
+				Logger.log(new Log().withTag(TAG).text(name + " closed"));
+			}
+		}
+
+		private void scheduleReconnect() {
+			if (!isOpen || pendingReconnect != null) {
+				return;
+			}
+			final long delay = getReconnectDelayMillis(reconnectAttempt++);
+			pendingReconnect = scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (lock) {
+						pendingReconnect = null;
+						reconnect();
+					}
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+
+		private void reconnectNow() {
+			if (pendingReconnect != null) {
+				pendingReconnect.cancel(false);
+				pendingReconnect = null;
+			}
+			reconnectAttempt = 0;
+			reconnect();
+		}
+
+		private void reconnect() {
+			if (!isOpen) {
+				return;
+			}
+			reconnectCount++;
+			disconnect();
+			connect();
+			Logger.log(new Log().withTag(TAG).put(name + " reconnects", reconnectCount));
+		}
+
+		private void connect() {
+			try {
+				registration = connector.connect(eventListener);
+				// A quiet stream may not deliver an event for a long time, connecting is enough to reset the backoff.
+				reconnectAttempt = 0;
+			} catch (RuntimeException e) {
+				Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put(name + " connect failed", e.getMessage()));
+				scheduleReconnect();
+			}
+		}
+
+		private void disconnect() {
+			if (registration != null) {
+				registration.remove();
+				registration = null;
+			}
+		}
+
+		private StreamStats getStats() {
+			final long millisSinceLastEvent =
+				lastEventTime > 0 ? SystemClock.elapsedRealtime() - lastEventTime : -1;
+			return new StreamStats(registration != null, reconnectCount, eventCount, millisSinceLastEvent);
+		}
+	}
+}
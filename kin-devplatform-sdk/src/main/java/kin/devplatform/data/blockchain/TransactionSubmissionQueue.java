@@ -0,0 +1,135 @@
+package kin.devplatform.data.blockchain;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import kin.devplatform.data.model.TransactionQueueStats;
+import kin.sdk.migration.common.WhitelistResult;
+import kin.sdk.migration.common.exception.OperationFailedException;
+import kin.sdk.migration.common.exception.WhitelistTransactionFailedException;
+import kin.sdk.migration.common.interfaces.IWhitelistService;
+import kin.sdk.migration.common.interfaces.IWhitelistableTransaction;
+
+/**
+ * Submits the transactions of each account one at a time, in arrival order. Concurrent transactions of an account are
+ * built on the same sequence number and all but one are rejected. The kin sdk loads the sequence number, builds,
+ * whitelists and sends a transaction in a single call, so the stages of consecutive transactions can't overlap, the
+ * queue measures them instead.
+ */
+class TransactionSubmissionQueue {
+
+	interface Submission<T> {
+
+		T submit(@NonNull IWhitelistService whitelistService) throws OperationFailedException;
+	}
+
+	private final Map<String, ReentrantLock> accountLocks = new HashMap<>();
+
+	// Guarded by this.
+	private long count;
+	private long failedCount;
+	private int pendingCount;
+	private int maxPendingCount;
+	private long queueWaitMillis;
+	private long prepareMillis;
+	private long whitelistMillis;
+	private long submitMillis;
+
+	/**
+	 * Run the submission once the previous submissions of the account are done, on the calling thread.
+	 *
+	 * @param whitelistService the whitelisting of the transaction, timed by the queue.
+	 */
+	<T> T submit(@NonNull String accountAddress, @NonNull IWhitelistService whitelistService,
+		@NonNull Submission<T> submission) throws OperationFailedException {
+		final ReentrantLock accountLock = getAccountLock(accountAddress);
+		final long enqueueTime = SystemClock.elapsedRealtime();
+		onEnqueued();
+		accountLock.lock();
+		try {
+			final long startTime = SystemClock.elapsedRealtime();
+			final TimedWhitelistService timedWhitelistService = new TimedWhitelistService(whitelistService);
+			boolean isSucceeded = false;
+			try {
+				final T result = submission.submit(timedWhitelistService);
+				isSucceeded = true;
+				return result;
+			} finally {
+				record(startTime - enqueueTime, startTime, SystemClock.elapsedRealtime(), timedWhitelistService,
+					isSucceeded);
+			}
+		} finally {
+			accountLock.unlock();
+		}
+	}
+
+	synchronized TransactionQueueStats snapshot() {
+		return new TransactionQueueStats(count, failedCount, pendingCount, maxPendingCount, average(queueWaitMillis),
+			average(prepareMillis), average(whitelistMillis), average(submitMillis));
+	}
+
+	private ReentrantLock getAccountLock(String accountAddress) {
+		synchronized (accountLocks) {
+			ReentrantLock accountLock = accountLocks.get(accountAddress);
+			if (accountLock == null) {
+				// Fair, so transactions are submitted in arrival order.
+				accountLock = new ReentrantLock(true);
+				accountLocks.put(accountAddress, accountLock);
+			}
+			return accountLock;
+		}
+	}
+
+	private synchronized void onEnqueued() {
+		pendingCount++;
+		maxPendingCount = Math.max(maxPendingCount, pendingCount);
+	}
+
+	private synchronized void record(long queueWait, long startTime, long endTime,
+		TimedWhitelistService whitelistService, boolean isSucceeded) {
+		pendingCount--;
+		count++;
+		if (!isSucceeded) {
+			failedCount++;
+		}
+		queueWaitMillis += queueWait;
+		if (whitelistService.isWhitelisted) {
+			prepareMillis += whitelistService.whitelistStartTime - startTime;
+			whitelistMillis += whitelistService.whitelistEndTime - whitelistService.whitelistStartTime;
+			submitMillis += endTime - whitelistService.whitelistEndTime;
+		} else {
+			// Failed before whitelisting.
+			prepareMillis += endTime - startTime;
+		}
+	}
+
+	private long average(long sum) {
+		return count > 0 ? sum / count : 0;
+	}
+
+	private static class TimedWhitelistService implements IWhitelistService {
+
+		private final IWhitelistService whitelistService;
+		private volatile boolean isWhitelisted;
+		private volatile long whitelistStartTime;
+		private volatile long whitelistEndTime;
+
+		TimedWhitelistService(IWhitelistService whitelistService) {
+			this.whitelistService = whitelistService;
+		}
+
+		@Override
+		public WhitelistResult onWhitelistableTransactionReady(IWhitelistableTransaction whitelistableTransaction)
+			throws WhitelistTransactionFailedException {
+			whitelistStartTime = SystemClock.elapsedRealtime();
+			try {
+				return whitelistService.onWhitelistableTransactionReady(whitelistableTransaction);
+			} finally {
+				whitelistEndTime = SystemClock.elapsedRealtime();
+				isWhitelisted = true;
+			}
+		}
+	}
+}
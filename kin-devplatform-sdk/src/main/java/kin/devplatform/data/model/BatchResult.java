@@ -0,0 +1,56 @@
+package kin.devplatform.data.model;
+
+import android.support.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import kin.devplatform.exception.KinEcosystemException;
+
+/**
+ * The results of a batch of orders, by the index of the offer jwt in the batch.
+ */
+public class BatchResult {
+
+	private final List<OrderConfirmation> confirmations;
+	private final List<KinEcosystemException> failures;
+	private final int completedCount;
+
+	public BatchResult(List<OrderConfirmation> confirmations, List<KinEcosystemException> failures) {
+		this.confirmations = Collections.unmodifiableList(confirmations);
+		this.failures = Collections.unmodifiableList(failures);
+		int completedCount = 0;
+		for (OrderConfirmation confirmation : confirmations) {
+			if (confirmation != null) {
+				completedCount++;
+			}
+		}
+		this.completedCount = completedCount;
+	}
+
+	public int size() {
+		return confirmations.size();
+	}
+
+	public int getCompletedCount() {
+		return completedCount;
+	}
+
+	public int getFailedCount() {
+		return confirmations.size() - completedCount;
+	}
+
+	/**
+	 * @return the confirmation of the item, null if it failed.
+	 */
+	@Nullable
+	public OrderConfirmation getConfirmation(int index) {
+		return confirmations.get(index);
+	}
+
+	/**
+	 * @return the failure of the item, null if it completed.
+	 */
+	@Nullable
+	public KinEcosystemException getFailure(int index) {
+		return failures.get(index);
+	}
+}
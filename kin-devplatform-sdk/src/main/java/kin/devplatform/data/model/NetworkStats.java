@@ -0,0 +1,181 @@
+package kin.devplatform.data.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import kin.devplatform.core.network.HttpClientProvider.ConnectionPoolStats;
+import kin.devplatform.core.network.NetworkMetrics;
+import kin.devplatform.core.network.NetworkMetrics.EndpointSnapshot;
+
+/**
+ * A snapshot of the SDK network metrics since the process started.
+ */
+public class NetworkStats {
+
+	private final Map<String, EndpointStats> endpoints;
+	private final long dnsLookupCount;
+	private final long averageDnsLookupMillis;
+	private final long connectCount;
+	private final long averageConnectMillis;
+	private final long tlsHandshakeCount;
+	private final long averageTlsHandshakeMillis;
+	private final long reusedConnections;
+	private final int idleConnections;
+	private final int activeConnections;
+	private final long timeToFirstOfferMillis;
+
+	public NetworkStats(NetworkMetrics.Snapshot snapshot, long timeToFirstOfferMillis) {
+		Map<String, EndpointStats> endpointStats = new HashMap<>();
+		for (Map.Entry<String, EndpointSnapshot> entry : snapshot.getEndpoints().entrySet()) {
+			endpointStats.put(entry.getKey(), new EndpointStats(entry.getValue()));
+		}
+		this.endpoints = Collections.unmodifiableMap(endpointStats);
+		this.dnsLookupCount = snapshot.getDns().getCount();
+		this.averageDnsLookupMillis = snapshot.getDns().getAverageMillis();
+		this.connectCount = snapshot.getConnect().getCount();
+		this.averageConnectMillis = snapshot.getConnect().getAverageMillis();
+		this.tlsHandshakeCount = snapshot.getTls().getCount();
+		this.averageTlsHandshakeMillis = snapshot.getTls().getAverageMillis();
+		final ConnectionPoolStats poolStats = snapshot.getConnectionPoolStats();
+		this.reusedConnections = poolStats.getReusedConnections();
+		this.idleConnections = poolStats.getIdleConnections();
+		this.activeConnections = poolStats.getActiveConnections();
+		this.timeToFirstOfferMillis = timeToFirstOfferMillis;
+	}
+
+	/**
+	 * @return stats keyed by endpoint, e.g. "GET /orders/{order_id}".
+	 */
+	public Map<String, EndpointStats> getEndpoints() {
+		return endpoints;
+	}
+
+	public long getDnsLookupCount() {
+		return dnsLookupCount;
+	}
+
+	public long getAverageDnsLookupMillis() {
+		return averageDnsLookupMillis;
+	}
+
+	public long getConnectCount() {
+		return connectCount;
+	}
+
+	public long getAverageConnectMillis() {
+		return averageConnectMillis;
+	}
+
+	public long getTlsHandshakeCount() {
+		return tlsHandshakeCount;
+	}
+
+	public long getAverageTlsHandshakeMillis() {
+		return averageTlsHandshakeMillis;
+	}
+
+	/**
+	 * @return number of requests served on an already open connection.
+	 */
+	public long getReusedConnections() {
+		return reusedConnections;
+	}
+
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	/**
+	 * @return milliseconds from {@link kin.devplatform.Kin#start} until the first offers were loaded, -1 if not loaded
+	 * yet.
+	 */
+	public long getTimeToFirstOfferMillis() {
+		return timeToFirstOfferMillis;
+	}
+
+	public static class EndpointStats {
+
+		private final long requestCount;
+		private final long failureCount;
+		private final long averageLatencyMillis;
+		private final long p50LatencyMillis;
+		private final long p90LatencyMillis;
+		private final long p99LatencyMillis;
+		private final long[] latencyBucketsMillis;
+		private final long[] latencyHistogram;
+		private final long bytesSent;
+		private final long bytesReceived;
+		private final Map<Integer, Long> statusCodes;
+
+		EndpointStats(EndpointSnapshot snapshot) {
+			this.requestCount = snapshot.getRequestCount();
+			this.failureCount = snapshot.getFailureCount();
+			this.averageLatencyMillis = snapshot.getAverageLatencyMillis();
+			this.p50LatencyMillis = snapshot.getLatencyPercentileMillis(50);
+			this.p90LatencyMillis = snapshot.getLatencyPercentileMillis(90);
+			this.p99LatencyMillis = snapshot.getLatencyPercentileMillis(99);
+			this.latencyBucketsMillis = snapshot.getLatencyBucketsMillis();
+			this.latencyHistogram = snapshot.getLatencyHistogram();
+			this.bytesSent = snapshot.getBytesSent();
+			this.bytesReceived = snapshot.getBytesReceived();
+			this.statusCodes = snapshot.getStatusCodes();
+		}
+
+		public long getRequestCount() {
+			return requestCount;
+		}
+
+		/**
+		 * @return number of requests that failed without getting a response.
+		 */
+		public long getFailureCount() {
+			return failureCount;
+		}
+
+		public long getAverageLatencyMillis() {
+			return averageLatencyMillis;
+		}
+
+		/**
+		 * Percentiles are the upper bound of the histogram bucket they fall in, -1 if above the last bucket.
+		 */
+		public long getP50LatencyMillis() {
+			return p50LatencyMillis;
+		}
+
+		public long getP90LatencyMillis() {
+			return p90LatencyMillis;
+		}
+
+		public long getP99LatencyMillis() {
+			return p99LatencyMillis;
+		}
+
+		public long[] getLatencyBucketsMillis() {
+			return latencyBucketsMillis.clone();
+		}
+
+		/**
+		 * @return request count per latency bucket, the last entry counts requests slower than the last bucket.
+		 */
+		public long[] getLatencyHistogram() {
+			return latencyHistogram.clone();
+		}
+
+		public long getBytesSent() {
+			return bytesSent;
+		}
+
+		public long getBytesReceived() {
+			return bytesReceived;
+		}
+
+		public Map<Integer, Long> getStatusCodes() {
+			return statusCodes;
+		}
+	}
+}
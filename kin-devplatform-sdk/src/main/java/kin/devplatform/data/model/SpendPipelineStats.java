@@ -0,0 +1,70 @@
+package kin.devplatform.data.model;
+
+/**
+ * Average stage timings of the external spend flows that sent a transaction, since the process started.
+ */
+public class SpendPipelineStats {
+
+	private final long count;
+	private final long averageCreateOrderMillis;
+	private final long averageBalanceFetchMillis;
+	private final long averageBalanceWaitMillis;
+	private final long averageOverlappedMillis;
+	private final long averageSendTransactionMillis;
+	private final long averageTotalMillis;
+
+	public SpendPipelineStats(long count, long averageCreateOrderMillis, long averageBalanceFetchMillis,
+		long averageBalanceWaitMillis, long averageOverlappedMillis, long averageSendTransactionMillis,
+		long averageTotalMillis) {
+		this.count = count;
+		this.averageCreateOrderMillis = averageCreateOrderMillis;
+		this.averageBalanceFetchMillis = averageBalanceFetchMillis;
+		this.averageBalanceWaitMillis = averageBalanceWaitMillis;
+		this.averageOverlappedMillis = averageOverlappedMillis;
+		this.averageSendTransactionMillis = averageSendTransactionMillis;
+		this.averageTotalMillis = averageTotalMillis;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getAverageCreateOrderMillis() {
+		return averageCreateOrderMillis;
+	}
+
+	/**
+	 * @return time of the live balance fetch, started together with the order creation.
+	 */
+	public long getAverageBalanceFetchMillis() {
+		return averageBalanceFetchMillis;
+	}
+
+	/**
+	 * @return time the flow waited for the balance after the order was created.
+	 */
+	public long getAverageBalanceWaitMillis() {
+		return averageBalanceWaitMillis;
+	}
+
+	/**
+	 * @return balance fetch time hidden behind the order creation.
+	 */
+	public long getAverageOverlappedMillis() {
+		return averageOverlappedMillis;
+	}
+
+	/**
+	 * @return time to sign, whitelist and send the transaction.
+	 */
+	public long getAverageSendTransactionMillis() {
+		return averageSendTransactionMillis;
+	}
+
+	/**
+	 * @return time from the flow start until the transaction was sent.
+	 */
+	public long getAverageTotalMillis() {
+		return averageTotalMillis;
+	}
+}
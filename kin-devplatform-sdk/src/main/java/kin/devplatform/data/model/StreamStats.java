@@ -0,0 +1,38 @@
+package kin.devplatform.data.model;
+
+/**
+ * Health of a blockchain stream since the process started.
+ */
+public class StreamStats {
+
+	private final boolean isConnected;
+	private final long reconnectCount;
+	private final long eventCount;
+	private final long millisSinceLastEvent;
+
+	public StreamStats(boolean isConnected, long reconnectCount, long eventCount, long millisSinceLastEvent) {
+		this.isConnected = isConnected;
+		this.reconnectCount = reconnectCount;
+		this.eventCount = eventCount;
+		this.millisSinceLastEvent = millisSinceLastEvent;
+	}
+
+	public boolean isConnected() {
+		return isConnected;
+	}
+
+	public long getReconnectCount() {
+		return reconnectCount;
+	}
+
+	public long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * @return millis since the stream delivered its last event, or -1 if it never did.
+	 */
+	public long getMillisSinceLastEvent() {
+		return millisSinceLastEvent;
+	}
+}
@@ -0,0 +1,76 @@
+package kin.devplatform.data.model;
+
+/**
+ * Depth of the transaction submission queue and the average time of each submission stage, since the process started.
+ */
+public class TransactionQueueStats {
+
+	private final long count;
+	private final long failedCount;
+	private final int pendingCount;
+	private final int maxPendingCount;
+	private final long averageQueueWaitMillis;
+	private final long averagePrepareMillis;
+	private final long averageWhitelistMillis;
+	private final long averageSubmitMillis;
+
+	public TransactionQueueStats(long count, long failedCount, int pendingCount, int maxPendingCount,
+		long averageQueueWaitMillis, long averagePrepareMillis, long averageWhitelistMillis,
+		long averageSubmitMillis) {
+		this.count = count;
+		this.failedCount = failedCount;
+		this.pendingCount = pendingCount;
+		this.maxPendingCount = maxPendingCount;
+		this.averageQueueWaitMillis = averageQueueWaitMillis;
+		this.averagePrepareMillis = averagePrepareMillis;
+		this.averageWhitelistMillis = averageWhitelistMillis;
+		this.averageSubmitMillis = averageSubmitMillis;
+	}
+
+	/**
+	 * @return number of transactions submitted, including the failed ones.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * @return transactions waiting or being submitted right now.
+	 */
+	public int getPendingCount() {
+		return pendingCount;
+	}
+
+	public int getMaxPendingCount() {
+		return maxPendingCount;
+	}
+
+	/**
+	 * @return time a transaction waited for the previous transactions of its account.
+	 */
+	public long getAverageQueueWaitMillis() {
+		return averageQueueWaitMillis;
+	}
+
+	/**
+	 * @return time to load the account sequence number and build the transaction, until it was sent to whitelisting.
+	 */
+	public long getAveragePrepareMillis() {
+		return averagePrepareMillis;
+	}
+
+	public long getAverageWhitelistMillis() {
+		return averageWhitelistMillis;
+	}
+
+	/**
+	 * @return time from the whitelisted transaction until the blockchain accepted or rejected it.
+	 */
+	public long getAverageSubmitMillis() {
+		return averageSubmitMillis;
+	}
+}
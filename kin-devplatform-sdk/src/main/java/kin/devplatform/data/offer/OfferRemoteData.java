@@ -5,17 +5,22 @@ import java.util.List;
 import java.util.Map;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiException;
+import kin.devplatform.core.network.RequestId;
 import kin.devplatform.core.util.ExecutorsUtil;
 import kin.devplatform.data.Callback;
+import kin.devplatform.data.SingleFlight;
 import kin.devplatform.network.api.OffersApi;
 import kin.devplatform.network.model.OfferList;
 
 public class OfferRemoteData implements OfferDataSource.Remote {
 
+	private static final String GET_OFFERS_KEY = "offers";
+
 	private static volatile OfferRemoteData instance;
 
 	private final OffersApi offersApi;
 	private final ExecutorsUtil executorsUtil;
+	private final SingleFlight<String, OfferList, ApiException> getOffersCalls = new SingleFlight<>();
 
 	private OfferRemoteData(@NonNull ExecutorsUtil executorsUtil) {
 		this.offersApi = new OffersApi();
@@ -35,14 +40,18 @@ public class OfferRemoteData implements OfferDataSource.Remote {
 
 	@Override
 	public void getOffers(@NonNull final Callback<OfferList, ApiException> callback) {
+		if (!getOffersCalls.join(GET_OFFERS_KEY, callback)) {
+			return;
+		}
+		final Callback<OfferList, ApiException> completion = getOffersCalls.completionFor(GET_OFFERS_KEY);
 		try {
-			offersApi.getOffersAsync("", 25, "", "", new ApiCallback<OfferList>() {
+			offersApi.getOffersAsync(RequestId.create(), 25, "", "", new ApiCallback<OfferList>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
 						@Override
 						public void run() {
-							callback.onFailure(e);
+							completion.onFailure(e);
 						}
 					});
 				}
@@ -53,7 +62,7 @@ public class OfferRemoteData implements OfferDataSource.Remote {
 					executorsUtil.mainThread().execute(new Runnable() {
 						@Override
 						public void run() {
-							callback.onResponse(result);
+							completion.onResponse(result);
 
 						}
 					});
@@ -63,7 +72,7 @@ public class OfferRemoteData implements OfferDataSource.Remote {
 			executorsUtil.mainThread().execute(new Runnable() {
 				@Override
 				public void run() {
-					callback.onFailure(e);
+					completion.onFailure(e);
 				}
 			});
 		}
@@ -1,5 +1,6 @@
 package kin.devplatform.data.offer;
 
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import kin.devplatform.KinCallback;
@@ -25,6 +26,7 @@ public class OfferRepository implements OfferDataSource {
 
 	private OfferList nativeOfferList = new OfferList();
 	private OfferList cachedOfferList = new OfferList();
+	private volatile long firstOffersLoadedTime = -1;
 
 	private ObservableData<NativeSpendOffer> nativeSpendOfferObservable = ObservableData.create();
 
@@ -69,6 +71,9 @@ public class OfferRepository implements OfferDataSource {
 		remoteData.getOffers(new Callback<OfferList, ApiException>() {
 			@Override
 			public void onResponse(OfferList response) {
+				if (firstOffersLoadedTime < 0) {
+					firstOffersLoadedTime = SystemClock.elapsedRealtime();
+				}
 				cachedOfferList = response;
 				if (callback != null) {
 					callback.onResponse(getList());
@@ -85,6 +90,13 @@ public class OfferRepository implements OfferDataSource {
 		});
 	}
 
+	/**
+	 * @return {@link SystemClock#elapsedRealtime()} of the first successful offers response, -1 if none yet.
+	 */
+	public long getFirstOffersLoadedTime() {
+		return firstOffersLoadedTime;
+	}
+
 	private OfferList getList() {
 		OfferList masterList = new OfferList();
 		masterList.addAll(nativeOfferList);
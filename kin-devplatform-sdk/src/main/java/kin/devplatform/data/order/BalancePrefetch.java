@@ -0,0 +1,95 @@
+package kin.devplatform.data.order;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+import kin.devplatform.data.blockchain.BlockchainSource;
+import kin.devplatform.data.model.Balance;
+import kin.sdk.migration.common.exception.OperationFailedException;
+
+/**
+ * Fetches the live balance in the background while a spend flow creates its order. Loading the account also opens the
+ * blockchain connection the transaction is sent on. The flow falls back to the cached balance if the fetch fails or is
+ * late.
+ */
+class BalancePrefetch implements Runnable {
+
+	private static final String TAG = BalancePrefetch.class.getSimpleName();
+
+	private static final int MAX_THREADS = 2;
+	private static final int QUEUE_LIMIT = 4;
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	// Not the worker pool, the flows waiting for these fetches run on it. Bounded, a burst of spends waits for the
+	// fetches already running or falls back to the cached balance.
+	private static final ThreadPoolExecutor executor = createExecutor();
+
+	private final BlockchainSource blockchainSource;
+	private final CountDownLatch done = new CountDownLatch(1);
+	private final long startTime = SystemClock.elapsedRealtime();
+	private volatile Balance balance;
+	private volatile long fetchMillis = -1;
+
+	private BalancePrefetch(@NonNull BlockchainSource blockchainSource) {
+		this.blockchainSource = blockchainSource;
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_LIMIT), new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	static BalancePrefetch start(@NonNull BlockchainSource blockchainSource) {
+		final BalancePrefetch balancePrefetch = new BalancePrefetch(blockchainSource);
+		try {
+			executor.execute(balancePrefetch);
+		} catch (RejectedExecutionException e) {
+			balancePrefetch.done.countDown();
+		}
+		return balancePrefetch;
+	}
+
+	@Override
+	public void run() {
+		try {
+			balance = blockchainSource.getBalanceSync();
+		} catch (OperationFailedException e) {
+			Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("fetch failed", e.getMessage()));
+		} finally {
+			fetchMillis = SystemClock.elapsedRealtime() - startTime;
+			done.countDown();
+		}
+	}
+
+	/**
+	 * Wait for the live balance.
+	 *
+	 * @return the live balance, or the cached one if it did not arrive in time.
+	 */
+	@NonNull
+	Balance await(long timeoutMillis) {
+		try {
+			done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		final Balance liveBalance = balance;
+		return liveBalance != null ? liveBalance : blockchainSource.getBalance();
+	}
+
+	/**
+	 * @return how long the fetch took, or has been running if it is not done.
+	 */
+	long getFetchMillis() {
+		final long millis = fetchMillis;
+		return millis >= 0 ? millis : SystemClock.elapsedRealtime() - startTime;
+	}
+}
@@ -0,0 +1,62 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import kin.devplatform.network.model.Offer.OfferType;
+
+/**
+ * Rolling window of the latest order confirmation latencies per offer type. Latencies are measured from the start of
+ * the polling until a final status was seen, so they are rounded up to the poll that saw it.
+ */
+class ConfirmationLatencyTracker {
+
+	@VisibleForTesting
+	static final int WINDOW_SIZE = 50;
+
+	/**
+	 * Percentiles are not reported before this many samples.
+	 */
+	@VisibleForTesting
+	static final int MIN_SAMPLES = 5;
+
+	private final Map<OfferType, Window> windows = new EnumMap<>(OfferType.class);
+
+	private static class Window {
+
+		private final long[] samples = new long[WINDOW_SIZE];
+		private int count;
+		private int next;
+	}
+
+	synchronized void record(@NonNull OfferType offerType, long latencyMillis) {
+		Window window = windows.get(offerType);
+		if (window == null) {
+			window = new Window();
+			windows.put(offerType, window);
+		}
+		window.samples[window.next] = latencyMillis;
+		window.next = (window.next + 1) % WINDOW_SIZE;
+		window.count = Math.min(window.count + 1, WINDOW_SIZE);
+	}
+
+	/**
+	 * @return the latencies at the given percentiles, in the same order, or null if there are not enough samples.
+	 */
+	synchronized long[] getPercentiles(@NonNull OfferType offerType, int... percentiles) {
+		final Window window = windows.get(offerType);
+		if (window == null || window.count < MIN_SAMPLES) {
+			return null;
+		}
+		final long[] sorted = Arrays.copyOf(window.samples, window.count);
+		Arrays.sort(sorted);
+		final long[] result = new long[percentiles.length];
+		for (int i = 0; i < percentiles.length; i++) {
+			final int index = (int) Math.ceil(percentiles[i] / 100.0 * sorted.length) - 1;
+			result[i] = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+		}
+		return result;
+	}
+}
@@ -1,12 +1,16 @@
 package kin.devplatform.data.order;
 
-import android.os.Handler;
-import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import kin.devplatform.base.Observer;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import kin.devplatform.Cancellable;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
 import kin.devplatform.bi.EventLogger;
 import kin.devplatform.bi.events.EarnOrderCreationFailed;
 import kin.devplatform.bi.events.EarnOrderCreationReceived;
@@ -17,10 +21,13 @@ import kin.devplatform.bi.events.SpendOrderCreationReceived;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.util.ExecutorsUtil.MainThreadExecutor;
 import kin.devplatform.data.Callback;
+import kin.devplatform.data.WorkerPool;
 import kin.devplatform.data.blockchain.BlockchainSource;
 import kin.devplatform.data.model.Balance;
 import kin.devplatform.data.model.Payment;
+import kin.devplatform.data.order.OrderDataSource.Local;
 import kin.devplatform.data.order.OrderDataSource.Remote;
+import kin.devplatform.exception.ClientException;
 import kin.devplatform.exception.KinEcosystemException;
 import kin.devplatform.exception.MigrationNeededException;
 import kin.devplatform.network.model.JWTBodyPaymentConfirmationResult;
@@ -33,39 +40,185 @@ import kin.sdk.migration.common.KinSdkVersion;
 import kin.sdk.migration.common.exception.InsufficientKinException;
 import kin.sdk.migration.common.exception.OperationFailedException;
 
-class CreateExternalOrderCall extends Thread {
+/**
+ * The external order flow, run on the {@link WorkerPool}. The flow can be cancelled until the payment transaction is
+ * sent, a cancelled flow cancels its order and stops listening to payments.
+ */
+class CreateExternalOrderCall implements Runnable, Cancellable {
+
+	private static final String TAG = CreateExternalOrderCall.class.getSimpleName();
+
+	private static final int STATE_RUNNING = 0;
+	// The payment transaction is being sent, the flow can no longer be cancelled.
+	private static final int STATE_COMMITTED = 1;
+	private static final int STATE_CANCELED = 2;
+	private static final int STATE_DONE = 3;
+
+	private static final long BALANCE_WAIT_TIMEOUT_MILLIS = 5000;
+	// Holds a worker thread while waiting, a repeated order still being created after this fails as busy.
+	private static final long RESERVE_WAIT_TIMEOUT_MILLIS = 10000;
 
 	private final OrderDataSource.Remote remote;
+	private final OrderDataSource.Local local;
 	private final BlockchainSource blockchainSource;
+	private final PaymentCorrelator paymentCorrelator;
 	private final String orderJwt;
 	private final ExternalOrderCallbacks externalOrderCallbacks;
 	private final EventLogger eventLogger;
 	private final long paymentListeningTimeout;
 
-	private OpenOrder openOrder;
+	private volatile OpenOrder openOrder;
 	private MainThreadExecutor mainThreadExecutor = new MainThreadExecutor();
 
-	CreateExternalOrderCall(@NonNull Remote remote, @NonNull BlockchainSource blockchainSource,
-		@NonNull String orderJwt, @NonNull EventLogger eventLogger,
+	private final Object stateLock = new Object();
+	private int state = STATE_RUNNING;
+	private volatile Future<?> future;
+
+	private final Object paymentListenerLock = new Object();
+	private PaymentCorrelator.Registration paymentRegistration;
+
+	// Spend stage timings, written by the flow thread.
+	private long startTime;
+	private long createOrderMillis;
+	private long balanceWaitMillis;
+	private BalancePrefetch balancePrefetch;
+
+	CreateExternalOrderCall(@NonNull Remote remote, @NonNull Local local, @NonNull BlockchainSource blockchainSource,
+		@NonNull PaymentCorrelator paymentCorrelator, @NonNull String orderJwt, @NonNull EventLogger eventLogger,
 		@NonNull ExternalOrderCallbacks externalOrderCallbacks, long paymentListeningTimeoutMillis) {
 		this.remote = remote;
+		this.local = local;
 		this.blockchainSource = blockchainSource;
+		this.paymentCorrelator = paymentCorrelator;
 		this.orderJwt = orderJwt;
 		this.eventLogger = eventLogger;
 		this.externalOrderCallbacks = externalOrderCallbacks;
 		this.paymentListeningTimeout = paymentListeningTimeoutMillis;
 	}
 
+	/**
+	 * Queue the flow on the worker pool, the flow fails with {@link ClientException#TOO_MANY_OPERATIONS} if the pool is
+	 * full.
+	 */
+	Cancellable start() {
+		try {
+			future = WorkerPool.getInstance().submit(this);
+		} catch (RejectedExecutionException e) {
+			onOrderFailed(ErrorUtil.getClientException(ClientException.TOO_MANY_OPERATIONS, e));
+		}
+		return this;
+	}
+
+	@Override
+	public void cancel() {
+		synchronized (stateLock) {
+			if (state != STATE_RUNNING) {
+				return;
+			}
+			state = STATE_CANCELED;
+		}
+		final Future<?> queuedFuture = future;
+		if (queuedFuture != null) {
+			// Drops the flow if it did not start yet, a running flow stops at its next step.
+			queuedFuture.cancel(false);
+		}
+		stopListeningToPayments();
+		final OpenOrder finalOpenOrder = openOrder;
+		runOnMainThread(new Runnable() {
+			@Override
+			public void run() {
+				externalOrderCallbacks.onOrderFailed(
+					ErrorUtil.getClientException(ClientException.ORDER_CANCELED, null), finalOpenOrder);
+			}
+		});
+	}
+
+	@Override
+	public boolean isCancelled() {
+		synchronized (stateLock) {
+			return state == STATE_CANCELED;
+		}
+	}
+
+	/**
+	 * @return false if the flow was cancelled, otherwise it can no longer be.
+	 */
+	private boolean commit() {
+		synchronized (stateLock) {
+			if (state != STATE_RUNNING) {
+				return false;
+			}
+			state = STATE_COMMITTED;
+			return true;
+		}
+	}
+
+	/**
+	 * @return true if the caller should report the flow result, false if it was already reported or cancelled.
+	 */
+	private boolean finish() {
+		synchronized (stateLock) {
+			if (state == STATE_CANCELED || state == STATE_DONE) {
+				return false;
+			}
+			state = STATE_DONE;
+			return true;
+		}
+	}
+
 	@Override
 	public void run() {
+		if (isCancelled()) {
+			return;
+		}
+		final String existingOrderID;
+		try {
+			existingOrderID = local.reserveExternalOrder(orderJwt, this, RESERVE_WAIT_TIMEOUT_MILLIS);
+		} catch (TimeoutException e) {
+			// Another flow is still creating the order of the same jwt, creating it here too would duplicate it.
+			onOrderFailed(ErrorUtil.getClientException(ClientException.TOO_MANY_OPERATIONS, e));
+			return;
+		}
+		if (existingOrderID != null) {
+			// The same offer was ordered already, follow that order instead of creating it again.
+			getOrder(existingOrderID);
+			return;
+		}
+		final boolean isPaidByServer = !(externalOrderCallbacks instanceof ExternalSpendOrderCallbacks);
+		if (isPaidByServer) {
+			// A payment that arrives before the order is registered is kept for it.
+			paymentCorrelator.acquire();
+		}
+		try {
+			createOrder();
+		} finally {
+			if (isPaidByServer) {
+				paymentCorrelator.release();
+			}
+		}
+	}
+
+	private void createOrder() {
+		startTime = SystemClock.elapsedRealtime();
+		if (externalOrderCallbacks instanceof ExternalSpendOrderCallbacks) {
+			// Overlapped with the order creation, the balance is only needed before sending the transaction.
+			balancePrefetch = BalancePrefetch.start(blockchainSource);
+		}
 		try {
 			openOrder = remote.createExternalOrderSync(orderJwt);
+			createOrderMillis = SystemClock.elapsedRealtime() - startTime;
+			local.setExternalOrderCreated(orderJwt, openOrder.getId());
+			local.appendOrderState(openOrder.getId(), OrderJournal.State.CREATED);
+			if (isCancelled()) {
+				cancelOpenOrder();
+				return;
+			}
 
 			// Check if the kin account sdk has the same blockchain version as the server.
 			if (blockchainSource.getKinAccount() != null) {
 				KinSdkVersion serverKinSdkVersion = KinSdkVersion.get(openOrder.getBlockchainData().getBlockchainVersion());
 				if (serverKinSdkVersion != blockchainSource.getKinAccount().getKinSdkVersion()) {
-					remote.cancelOrderSync(openOrder.getId());
+					cancelOpenOrder();
 					onOrderFailed(new MigrationNeededException());
 					return;
 				}
@@ -74,17 +227,13 @@ class CreateExternalOrderCall extends Thread {
 			sendOrderCreationReceivedEvent();
 
 			if (doesClientSendsTransaction(openOrder)) {
-				Balance balance = blockchainSource.getBalance();
-				if (balance.getAmount().intValue() < openOrder.getAmount()) {
-					remote.cancelOrderSync(openOrder.getId());
-					runOnMainThread(new Runnable() {
-						@Override
-						public void run() {
-							externalOrderCallbacks
-								.onOrderFailed(ErrorUtil.getBlockchainException(new InsufficientKinException()),
-									openOrder);
-						}
-					});
+				final long waitStartTime = SystemClock.elapsedRealtime();
+				final Balance balance = balancePrefetch != null ? balancePrefetch.await(BALANCE_WAIT_TIMEOUT_MILLIS)
+					: blockchainSource.getBalance();
+				balanceWaitMillis = SystemClock.elapsedRealtime() - waitStartTime;
+				if (balance.getAmount().compareTo(new BigDecimal(openOrder.getAmount())) < 0) {
+					cancelOpenOrder();
+					onOrderFailed(ErrorUtil.getBlockchainException(new InsufficientKinException()));
 					return;
 				}
 			} else {
@@ -96,14 +245,23 @@ class CreateExternalOrderCall extends Thread {
 			runOnMainThread(new Runnable() {
 				@Override
 				public void run() {
-					externalOrderCallbacks.onOrderCreated(openOrder);
+					if (!isCancelled()) {
+						externalOrderCallbacks.onOrderCreated(openOrder);
+					}
 				}
 			});
 		} catch (final ApiException e) {
 			if (isOrderConflictError(e)) {
+				// Created by an earlier install or before the table existed.
 				String orderID = extractOrderID(e.getResponseHeaders());
+				if (orderID != null) {
+					local.setExternalOrderCreated(orderJwt, orderID);
+				} else {
+					local.releaseExternalOrder(orderJwt, this);
+				}
 				getOrder(orderID);
 			} else {
+				local.releaseExternalOrder(orderJwt, this);
 				sendOrderCreationFailedEvent(e);
 				onOrderFailed(ErrorUtil.fromApiException(e));
 			}
@@ -111,36 +269,55 @@ class CreateExternalOrderCall extends Thread {
 		}
 
 		if (doesClientSendsTransaction(openOrder)) {
-			performTransactionSending();
+			if (commit()) {
+				// Journaled before sending, so a resumed order is only polled and never paid twice.
+				local.appendOrderStateSync(openOrder.getId(), OrderJournal.State.PAYMENT_SENDING);
+				performTransactionSending();
+			} else if (isCancelled()) {
+				cancelOpenOrder();
+			}
 		}
 	}
 
+	private void cancelOpenOrder() {
+		remote.cancelOrderSync(openOrder.getId());
+		local.appendOrderState(openOrder.getId(), OrderJournal.State.RESOLVED);
+		local.releaseExternalOrder(orderJwt, this);
+	}
+
 	private void listenToPaymentsOnBlockchain(final String orderId) {
-		final Handler handler = new Handler(Looper.getMainLooper());
-		final Observer<Payment> paymentObserver = new Observer<Payment>() {
-			@Override
-			public void onChanged(final Payment payment) {
-				if (isPaymentOrderEquals(payment, openOrder.getId())) {
-					handlePaymentListenerOnChanged(payment);
-					blockchainSource.removePaymentObserver(this);
-					handler.removeCallbacksAndMessages(null);
-				}
+		synchronized (paymentListenerLock) {
+			if (isCancelled()) {
+				return;
 			}
-		};
-		handler.postDelayed(new Runnable() {
-			@Override
-			public void run() {
-				blockchainSource.removePaymentObserver(paymentObserver);
-				getOrder(orderId);
+			paymentRegistration = paymentCorrelator
+				.register(orderId, paymentListeningTimeout, new PaymentCorrelator.PaymentListener() {
+					@Override
+					public void onPayment(Payment payment) {
+						handlePaymentListenerOnChanged(payment);
+					}
+
+					@Override
+					public void onTimeout() {
+						getOrder(orderId);
+					}
+				});
+		}
+	}
+
+	private void stopListeningToPayments() {
+		synchronized (paymentListenerLock) {
+			if (paymentRegistration != null) {
+				paymentRegistration.cancel();
+				paymentRegistration = null;
 			}
-		}, paymentListeningTimeout);
-		blockchainSource.addPaymentObservable(paymentObserver);
+		}
 	}
 
 	private void handlePaymentListenerOnChanged(final Payment payment) {
 		if (payment.isSucceed()) {
 			getOrder(payment.getOrderID());
-		} else {
+		} else if (finish()) {
 			runOnMainThread(new Runnable() {
 				@Override
 				public void run() {
@@ -154,10 +331,15 @@ class CreateExternalOrderCall extends Thread {
 	private void performTransactionSending() {
 		fireOnTransactionSent();
 		try {
+			final long sendStartTime = SystemClock.elapsedRealtime();
 			blockchainSource.sendTransaction(openOrder.getBlockchainData().getRecipientAddress(),
 				new BigDecimal(openOrder.getAmount()), openOrder);
+			recordSpendTimings(SystemClock.elapsedRealtime() - sendStartTime);
 			getOrder(openOrder.getId());
 		} catch (final OperationFailedException e) {
+			if (!finish()) {
+				return;
+			}
 			runOnMainThread(new Runnable() {
 				@Override
 				public void run() {
@@ -168,6 +350,16 @@ class CreateExternalOrderCall extends Thread {
 		}
 	}
 
+	private void recordSpendTimings(long sendTransactionMillis) {
+		final long balanceFetchMillis = balancePrefetch != null ? balancePrefetch.getFetchMillis() : 0;
+		final long totalMillis = SystemClock.elapsedRealtime() - startTime;
+		SpendPipelineMetrics.getInstance().record(createOrderMillis, balanceFetchMillis, balanceWaitMillis,
+			sendTransactionMillis, totalMillis);
+		Logger.log(new Log().withTag(TAG).put("createOrder", createOrderMillis)
+			.put("balanceFetch", balanceFetchMillis).put("balanceWait", balanceWaitMillis)
+			.put("sendTransaction", sendTransactionMillis).put("total", totalMillis));
+	}
+
 	private void fireOnTransactionSent() {
 		runOnMainThread(new Runnable() {
 			@Override
@@ -243,27 +435,27 @@ class CreateExternalOrderCall extends Thread {
 		return e.getCode() == 409 && e.getResponseBody().getCode() == 4091;
 	}
 
-	private boolean isPaymentOrderEquals(Payment payment, String orderId) {
-		String paymentOrderID = payment.getOrderID();
-		return paymentOrderID != null && paymentOrderID.equals(orderId);
-	}
-
 	private void getOrder(String orderID) {
-		new GetOrderPollingCall(remote, orderID, new Callback<Order, ApiException>() {
+		remote.getOrder(orderID, new Callback<Order, ApiException>() {
 			@Override
 			public void onResponse(final Order order) {
-				runOnMainThread(new Runnable() {
-					@Override
-					public void run() {
-						if (order.getStatus() == Status.FAILED) {
-							onOrderFailed(ErrorUtil.fromFailedOrder(order));
-						} else {
+				if (order.getStatus() == Status.DELAYED) {
+					// Still pending, keep waiting for the final status.
+					return;
+				}
+				local.appendOrderState(order.getOrderId(), OrderJournal.State.RESOLVED);
+				if (order.getStatus() == Status.FAILED) {
+					onOrderFailed(ErrorUtil.fromFailedOrder(order));
+				} else if (finish()) {
+					runOnMainThread(new Runnable() {
+						@Override
+						public void run() {
 							externalOrderCallbacks
 								.onOrderConfirmed(((JWTBodyPaymentConfirmationResult) order.getResult()).getJwt(),
 									order);
 						}
-					}
-				});
+					});
+				}
 
 			}
 
@@ -271,10 +463,13 @@ class CreateExternalOrderCall extends Thread {
 			public void onFailure(final ApiException e) {
 				onOrderFailed(ErrorUtil.fromApiException(e));
 			}
-		}).start();
+		});
 	}
 
 	private void onOrderFailed(final KinEcosystemException exception) {
+		if (!finish()) {
+			return;
+		}
 		final OpenOrder finalOpenOrder = openOrder;
 		runOnMainThread(new Runnable() {
 			@Override
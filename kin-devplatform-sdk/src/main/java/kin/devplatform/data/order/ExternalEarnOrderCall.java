@@ -3,17 +3,21 @@ package kin.devplatform.data.order;
 import android.support.annotation.NonNull;
 import kin.devplatform.bi.EventLogger;
 import kin.devplatform.data.blockchain.BlockchainSource;
+import kin.devplatform.data.order.OrderDataSource.Local;
 import kin.devplatform.data.order.OrderDataSource.Remote;
 
 class ExternalEarnOrderCall extends CreateExternalOrderCall {
 
 	ExternalEarnOrderCall(
 		@NonNull Remote remote,
+		@NonNull Local local,
 		@NonNull BlockchainSource blockchainSource,
+		@NonNull PaymentCorrelator paymentCorrelator,
 		@NonNull String orderJwt,
 		@NonNull EventLogger eventLogger,
 		long paymentListenerTimeout,
 		@NonNull ExternalOrderCallbacks externalEarnOrderCallbacks) {
-		super(remote, blockchainSource, orderJwt, eventLogger, externalEarnOrderCallbacks, paymentListenerTimeout);
+		super(remote, local, blockchainSource, paymentCorrelator, orderJwt, eventLogger, externalEarnOrderCallbacks,
+			paymentListenerTimeout);
 	}
 }
\ No newline at end of file
@@ -2,6 +2,11 @@ package kin.devplatform.data.order;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import kin.devplatform.BatchCallback;
+import kin.devplatform.Cancellable;
 import kin.devplatform.KinCallback;
 import kin.devplatform.base.ObservableData;
 import kin.devplatform.base.Observer;
@@ -18,6 +23,12 @@ public interface OrderDataSource {
 
 	void getAllOrderHistory(@NonNull final KinCallback<OrderList> callback);
 
+	/**
+	 * Fetch the page of orders older than the synced history and append it, the callback gets the older orders only,
+	 * empty when there are no more.
+	 */
+	void getOlderOrderHistory(@NonNull final KinCallback<OrderList> callback);
+
 	void createOrder(@NonNull final String offerID, final KinCallback<OpenOrder> callback);
 
 	void submitOrder(OpenOrder order, @Nullable String content,
@@ -27,11 +38,15 @@ public interface OrderDataSource {
 
 	ObservableData<OpenOrder> getOpenOrder();
 
-	void payToUser(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback);
+	Cancellable payToUser(String offerJwt, @Nullable KinCallback<OrderConfirmation> callback);
+
+	Cancellable purchase(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback);
 
-	void purchase(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback);
+	Cancellable requestPayment(String offerJwt, KinCallback<OrderConfirmation> callback);
 
-	void requestPayment(String offerJwt, KinCallback<OrderConfirmation> callback);
+	Cancellable purchaseBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback);
+
+	Cancellable payToUserBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback);
 
 	void addOrderObserver(@NonNull final Observer<Order> observer);
 
@@ -48,12 +63,73 @@ public interface OrderDataSource {
 		void isFirstSpendOrder(@NonNull final Callback<Boolean, Void> callback);
 
 		void setIsFirstSpendOrder(boolean isFirstSpendOrder);
+
+		/**
+		 * Journal an order state transition, written to disk in the background.
+		 */
+		void appendOrderState(@NonNull String orderID, @NonNull OrderJournal.State state);
+
+		/**
+		 * Journal an order state transition and write it to disk before returning.
+		 */
+		void appendOrderStateSync(@NonNull String orderID, @NonNull OrderJournal.State state);
+
+		/**
+		 * Replay the journal of the user, the callback gets the last state of every order that was not resolved.
+		 */
+		void getUnresolvedOrders(@NonNull Callback<Map<String, OrderJournal.State>, Void> callback);
+
+		/**
+		 * Reserve the offer jwt for creating its external order, waiting up to {@code waitMillis} if another flow is
+		 * creating it.
+		 *
+		 * @param owner the reserving flow, only it can release the reservation.
+		 * @return the id of the order already created for the jwt, or null if the caller should create it.
+		 * @throws TimeoutException if another flow is still creating the order.
+		 */
+		@Nullable
+		String reserveExternalOrder(@NonNull String offerJwt, @NonNull Object owner, long waitMillis)
+			throws TimeoutException;
+
+		/**
+		 * Record the order created for the offer jwt, repeated orders of the jwt attach to it.
+		 */
+		void setExternalOrderCreated(@NonNull String offerJwt, @NonNull String orderID);
+
+		/**
+		 * Forget the order of the offer jwt reserved by the owner, after its creation failed or it was cancelled.
+		 */
+		void releaseExternalOrder(@NonNull String offerJwt, @NonNull Object owner);
+
+		/**
+		 * Switch to the order history and the order journal of the user, the history is loaded in the background.
+		 */
+		void setUserID(@Nullable String userID);
+
+		/**
+		 * The order history of the user saved on disk, null if none was saved or it is not loaded yet.
+		 */
+		@Nullable
+		OrderList getCachedOrderHistory();
+
+		/**
+		 * Save the order history with its paging cursors, written to disk in the background.
+		 */
+		void setCachedOrderHistory(@NonNull OrderList orderList);
 	}
 
 	interface Remote {
 
 		void getAllOrderHistory(@NonNull final Callback<OrderList, ApiException> callback);
 
+		/**
+		 * Fetch a page of the order history, orders newer than the before cursor or older than the after cursor.
+		 */
+		void getOrderHistoryPage(@Nullable String before, @Nullable String after,
+			@NonNull final Callback<OrderList, ApiException> callback);
+
+		int getOrderHistoryPageLimit();
+
 		void createOrder(@NonNull final String offerID, final Callback<OpenOrder, ApiException> callback);
 
 		void submitOrder(@Nullable String content, @NonNull String orderID,
@@ -67,6 +143,9 @@ public interface OrderDataSource {
 
 		Order getOrderSync(String orderID);
 
+		@Nullable
+		OrderList getAllOrderHistorySync();
+
 		OpenOrder createExternalOrderSync(String orderJwt) throws ApiException;
 
 		void getFilteredOrderHistory(@Nullable String origin, @NonNull String offerID,
@@ -0,0 +1,85 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+import kin.devplatform.core.network.JSON;
+import kin.devplatform.network.model.ModelTypeAdapterFactory;
+import kin.devplatform.network.model.OrderList;
+
+/**
+ * The synced order history on disk, together with its paging cursors, so history is shown on a cold start without a
+ * network call and later syncs only fetch what is missing.
+ */
+class OrderHistoryStore {
+
+	private static final String TAG = OrderHistoryStore.class.getSimpleName();
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final File file;
+	private final Gson gson;
+
+	OrderHistoryStore(@NonNull File file) {
+		this.file = file;
+		// Same format as the network responses.
+		this.gson = new JSON().registerTypeAdapterFactory(new ModelTypeAdapterFactory()).getGson();
+	}
+
+	@Nullable
+	OrderList read() {
+		if (!file.exists()) {
+			return null;
+		}
+		Reader reader = null;
+		try {
+			reader = new InputStreamReader(new FileInputStream(file), UTF_8);
+			return gson.fromJson(reader, OrderList.class);
+		} catch (IOException | JsonParseException e) {
+			Logger.log(new Log().withTag(TAG).put("read failed", e.getMessage()));
+			return null;
+		} finally {
+			close(reader);
+		}
+	}
+
+	void write(@NonNull OrderList orderList) {
+		final File tempFile = new File(file.getPath() + ".tmp");
+		Writer writer = null;
+		try {
+			writer = new OutputStreamWriter(new FileOutputStream(tempFile, false), UTF_8);
+			gson.toJson(orderList, OrderList.class, writer);
+			writer.close();
+			writer = null;
+			if (!tempFile.renameTo(file)) {
+				Logger.log(new Log().withTag(TAG).text("write rename failed"));
+			}
+		} catch (IOException | JsonParseException e) {
+			Logger.log(new Log().withTag(TAG).put("write failed", e.getMessage()));
+		} finally {
+			close(writer);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package kin.devplatform.data.order;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import kin.devplatform.core.network.RequestId;
+import kin.devplatform.data.order.OrderJournal.State;
+
+/**
+ * The order created for each offer jwt, keyed by a hash of the jwt. A repeated external order attaches to the existing
+ * order instead of creating it again and getting a conflict from the server. A flow that finds another flow creating
+ * the order of the same jwt waits for it, and never creates it too. Each user has its own table, see {@link
+ * OrderLocalData#setUserID(String)}.
+ */
+class OrderIdempotencyTable {
+
+	private static final String SEPARATOR = ",";
+
+	/**
+	 * Entries older than this are dropped when loaded, the offer jwt has expired by then.
+	 */
+	@VisibleForTesting
+	static final long MAX_ENTRY_AGE_MILLIS = 24 * 60 * 60 * 1000;
+
+	private final SharedPreferences preferences;
+	private final Object lock = new Object();
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Map<String, String> keysByOrderID = new HashMap<>();
+	private boolean loaded;
+
+	private static class Entry {
+
+		// Null while the order is being created.
+		String orderID;
+		// The flow that reserved the entry, null for entries loaded from disk.
+		Object owner;
+		State state;
+		long createdTime;
+		final CountDownLatch created = new CountDownLatch(1);
+	}
+
+	OrderIdempotencyTable(@NonNull SharedPreferences preferences) {
+		this.preferences = preferences;
+	}
+
+	/**
+	 * Reserve the offer jwt for the caller to create its order, unless an order exists or is being created. Waits up
+	 * to {@code waitMillis} for an order being created by another flow.
+	 *
+	 * @param owner identifies the caller, only the owner of a reservation can release it.
+	 * @return the id of the existing order, or null if the caller should create the order and then call {@link
+	 * #setCreated(String, String)} or {@link #release(String, Object)}.
+	 * @throws TimeoutException if another flow is still creating the order, or failed to.
+	 */
+	@Nullable
+	String reserve(@NonNull String offerJwt, @NonNull Object owner, long waitMillis) throws TimeoutException {
+		final String key = RequestId.forKey(offerJwt);
+		final Entry entry;
+		synchronized (lock) {
+			loadIfNeeded();
+			final Entry existing = entries.get(key);
+			if (existing == null) {
+				final Entry reserved = new Entry();
+				reserved.owner = owner;
+				entries.put(key, reserved);
+				return null;
+			}
+			if (existing.orderID != null) {
+				return existing.orderID;
+			}
+			entry = existing;
+		}
+		try {
+			entry.created.await(waitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		final String orderID = entry.orderID;
+		if (orderID == null) {
+			// Creating it here too could open a duplicate order.
+			throw new TimeoutException("The order of the offer jwt is still being created");
+		}
+		return orderID;
+	}
+
+	void setCreated(@NonNull String offerJwt, @NonNull String orderID) {
+		final String key = RequestId.forKey(offerJwt);
+		final Entry entry;
+		synchronized (lock) {
+			loadIfNeeded();
+			entry = getOrCreate(key);
+			entry.orderID = orderID;
+			entry.state = State.CREATED;
+			entry.createdTime = System.currentTimeMillis();
+			keysByOrderID.put(orderID, key);
+			save(key, entry);
+		}
+		entry.created.countDown();
+	}
+
+	/**
+	 * Forget the order of the offer jwt, the next order for it is created again. Does nothing unless the owner reserved
+	 * the entry.
+	 */
+	void release(@NonNull String offerJwt, @NonNull Object owner) {
+		final String key = RequestId.forKey(offerJwt);
+		final Entry entry;
+		synchronized (lock) {
+			loadIfNeeded();
+			entry = entries.get(key);
+			if (entry == null || entry.owner != owner) {
+				return;
+			}
+			entries.remove(key);
+			if (entry.orderID != null) {
+				keysByOrderID.remove(entry.orderID);
+			}
+			preferences.edit().remove(key).apply();
+		}
+		entry.created.countDown();
+	}
+
+	/**
+	 * Track the state of an order in the table, other orders are ignored.
+	 */
+	void updateState(@NonNull String orderID, @NonNull State state) {
+		synchronized (lock) {
+			loadIfNeeded();
+			final String key = keysByOrderID.get(orderID);
+			final Entry entry = key != null ? entries.get(key) : null;
+			if (entry != null && entry.state != state) {
+				entry.state = state;
+				save(key, entry);
+			}
+		}
+	}
+
+	private Entry getOrCreate(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			entry = new Entry();
+			entries.put(key, entry);
+		}
+		return entry;
+	}
+
+	private void save(String key, Entry entry) {
+		preferences.edit()
+			.putString(key, entry.orderID + SEPARATOR + entry.state.name() + SEPARATOR + entry.createdTime)
+			.apply();
+	}
+
+	/**
+	 * Load the table on first use, must hold the lock.
+	 */
+	private void loadIfNeeded() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		final long oldestTime = System.currentTimeMillis() - MAX_ENTRY_AGE_MILLIS;
+		final SharedPreferences.Editor editor = preferences.edit();
+		for (Map.Entry<String, ?> record : preferences.getAll().entrySet()) {
+			final Entry entry = parse(record.getValue());
+			// Orders only created by a previous process are cancelled when resumed, they can't be attached to.
+			if (entry == null || entry.createdTime < oldestTime || entry.state == State.CREATED) {
+				editor.remove(record.getKey());
+				continue;
+			}
+			entry.created.countDown();
+			entries.put(record.getKey(), entry);
+			keysByOrderID.put(entry.orderID, record.getKey());
+		}
+		editor.apply();
+	}
+
+	@Nullable
+	private static Entry parse(Object value) {
+		if (!(value instanceof String)) {
+			return null;
+		}
+		final String[] fields = ((String) value).split(SEPARATOR);
+		if (fields.length != 3) {
+			return null;
+		}
+		try {
+			final Entry entry = new Entry();
+			entry.orderID = fields[0];
+			entry.state = State.valueOf(fields[1]);
+			entry.createdTime = Long.parseLong(fields[2]);
+			return entry;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import kin.devplatform.Log;
+import kin.devplatform.Logger;
+
+/**
+ * Append only log of external order state transitions, kept so orders interrupted by process death can be resumed.
+ * Records are appended on the disk executor, and all the records appended since the last write are written and synced
+ * together. Replaying the journal also compacts it to the unresolved orders only.
+ */
+public class OrderJournal {
+
+	private static final String TAG = OrderJournal.class.getSimpleName();
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String SEPARATOR = ",";
+
+	/**
+	 * Unresolved orders older than this are dropped on replay, the server has expired them by then.
+	 */
+	@VisibleForTesting
+	static final long MAX_ORDER_AGE_MILLIS = 24 * 60 * 60 * 1000;
+
+	public enum State {
+		/**
+		 * The order was opened, nothing was paid or submitted yet.
+		 */
+		CREATED,
+		/**
+		 * The payment transaction is about to be sent, the order must never be paid again.
+		 */
+		PAYMENT_SENDING,
+		SUBMITTED,
+		/**
+		 * Completed, failed or cancelled, final.
+		 */
+		RESOLVED
+	}
+
+	private final File file;
+	private final Executor diskIO;
+	private final Object fileLock = new Object();
+	private final List<String> pendingRecords = new ArrayList<>();
+	private boolean writeScheduled;
+
+	private final Runnable writePendingRecords = new Runnable() {
+		@Override
+		public void run() {
+			writePendingRecords();
+		}
+	};
+
+	OrderJournal(@NonNull File file, @NonNull Executor diskIO) {
+		this.file = file;
+		this.diskIO = diskIO;
+	}
+
+	void append(@NonNull String orderID, @NonNull State state) {
+		synchronized (pendingRecords) {
+			pendingRecords.add(createRecord(orderID, state, System.currentTimeMillis()));
+			if (writeScheduled) {
+				// The scheduled write will include this record.
+				return;
+			}
+			writeScheduled = true;
+		}
+		diskIO.execute(writePendingRecords);
+	}
+
+	/**
+	 * Append and write on the calling thread, for a transition that must be on disk before the action it records.
+	 */
+	void appendSync(@NonNull String orderID, @NonNull State state) {
+		synchronized (pendingRecords) {
+			pendingRecords.add(createRecord(orderID, state, System.currentTimeMillis()));
+		}
+		writePendingRecords();
+	}
+
+	/**
+	 * Read the journal and rewrite it with the unresolved orders only, call on the disk executor.
+	 *
+	 * @return the last state of each unresolved order, in journal order.
+	 */
+	Map<String, State> replay() {
+		synchronized (fileLock) {
+			return replayLocked();
+		}
+	}
+
+	private Map<String, State> replayLocked() {
+		final Map<String, State> states = new LinkedHashMap<>();
+		final Map<String, Long> firstTimes = new HashMap<>();
+		final List<String> resolvedOrders = new ArrayList<>();
+		for (String record : readRecords()) {
+			final String[] fields = record.split(SEPARATOR);
+			if (fields.length != 3) {
+				continue;
+			}
+			final State state;
+			final long time;
+			try {
+				state = State.valueOf(fields[1]);
+				time = Long.parseLong(fields[2]);
+			} catch (IllegalArgumentException e) {
+				// Torn last record, written while the process died.
+				continue;
+			}
+			final String orderID = fields[0];
+			if (state == State.RESOLVED) {
+				resolvedOrders.add(orderID);
+			} else {
+				states.put(orderID, state);
+				if (!firstTimes.containsKey(orderID)) {
+					firstTimes.put(orderID, time);
+				}
+			}
+		}
+		for (String orderID : resolvedOrders) {
+			states.remove(orderID);
+		}
+
+		final long oldestTime = System.currentTimeMillis() - MAX_ORDER_AGE_MILLIS;
+		final List<String> records = new ArrayList<>(states.size());
+		final Iterator<Map.Entry<String, State>> iterator = states.entrySet().iterator();
+		while (iterator.hasNext()) {
+			final Map.Entry<String, State> entry = iterator.next();
+			final long firstTime = firstTimes.get(entry.getKey());
+			if (firstTime < oldestTime) {
+				iterator.remove();
+			} else {
+				records.add(createRecord(entry.getKey(), entry.getValue(), firstTime));
+			}
+		}
+		rewrite(records);
+		return Collections.unmodifiableMap(states);
+	}
+
+	private static String createRecord(String orderID, State state, long time) {
+		return orderID + SEPARATOR + state.name() + SEPARATOR + time;
+	}
+
+	private void writePendingRecords() {
+		synchronized (fileLock) {
+			final List<String> records;
+			synchronized (pendingRecords) {
+				records = new ArrayList<>(pendingRecords);
+				pendingRecords.clear();
+				writeScheduled = false;
+			}
+			if (records.isEmpty()) {
+				return;
+			}
+			FileOutputStream outputStream = null;
+			try {
+				outputStream = new FileOutputStream(file, true);
+				write(outputStream, records);
+			} catch (IOException e) {
+				Logger.log(new Log().withTag(TAG).put("append failed", e.getMessage()));
+			} finally {
+				close(outputStream);
+			}
+		}
+	}
+
+	private void rewrite(List<String> records) {
+		final File tempFile = new File(file.getPath() + ".tmp");
+		FileOutputStream outputStream = null;
+		try {
+			outputStream = new FileOutputStream(tempFile, false);
+			write(outputStream, records);
+			close(outputStream);
+			outputStream = null;
+			if (!tempFile.renameTo(file)) {
+				Logger.log(new Log().withTag(TAG).text("compaction rename failed"));
+			}
+		} catch (IOException e) {
+			Logger.log(new Log().withTag(TAG).put("compaction failed", e.getMessage()));
+		} finally {
+			close(outputStream);
+		}
+	}
+
+	private static void write(FileOutputStream outputStream, List<String> records) throws IOException {
+		final Writer writer = new OutputStreamWriter(outputStream, UTF_8);
+		for (String record : records) {
+			writer.write(record);
+			writer.write('\n');
+		}
+		writer.flush();
+		outputStream.getFD().sync();
+	}
+
+	private List<String> readRecords() {
+		final List<String> records = new ArrayList<>();
+		if (!file.exists()) {
+			return records;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				records.add(line);
+			}
+		} catch (IOException e) {
+			Logger.log(new Log().withTag(TAG).put("replay failed", e.getMessage()));
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+		return records;
+	}
+
+	private static void close(FileOutputStream outputStream) {
+		if (outputStream != null) {
+			try {
+				outputStream.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+}
@@ -4,8 +4,17 @@ package kin.devplatform.data.order;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import kin.devplatform.core.util.ExecutorsUtil;
 import kin.devplatform.data.Callback;
+import kin.devplatform.network.model.OrderList;
 
 public class OrderLocalData implements OrderDataSource.Local {
 
@@ -15,14 +24,53 @@ public class OrderLocalData implements OrderDataSource.Local {
 
 	private static final String IS_FIRST_SPEND_ORDER_KEY = "is_first_spend_order_key";
 
+	private static final String ORDER_JOURNAL_FILE_NAME = "kinecosystem_order_journal";
+
+	private static final String ORDER_HISTORY_FILE_NAME = "kinecosystem_order_history";
+
+	private static final String ORDER_IDEMPOTENCY_PREF_NAME_FILE_KEY = "kinecosystem_order_idempotency_pref";
+
+	private final Context context;
+	private final File filesDir;
 	private final SharedPreferences ordersSharedPreferences;
 	private final ExecutorsUtil executorsUtil;
+	// Guarded by userLock.
+	private OrderHistoryStore orderHistoryStore;
+	private String userID;
+	private volatile OrderJournal orderJournal;
+	private volatile OrderIdempotencyTable orderIdempotencyTable;
+	private volatile OrderList cachedOrderHistory;
+	private final Object userLock = new Object();
 
 	private OrderLocalData(@NonNull final Context context, @NonNull ExecutorsUtil executorsUtil) {
+		this.context = context.getApplicationContext();
+		this.filesDir = context.getFilesDir();
 		this.ordersSharedPreferences = context.getSharedPreferences(ORDERS_PREF_NAME_FILE_KEY, Context.MODE_PRIVATE);
 		this.executorsUtil = executorsUtil;
 	}
 
+	/**
+	 * The name of a file that belongs to the user, so a user never sees the orders of the user signed in before.
+	 */
+	private static String getUserFileName(@NonNull String fileName, @NonNull String userID) {
+		return fileName + "_" + UUID.nameUUIDFromBytes(userID.getBytes(Charset.forName("UTF-8")));
+	}
+
+	private void loadOrderHistory(final OrderHistoryStore store) {
+		executorsUtil.diskIO().execute(new Runnable() {
+			@Override
+			public void run() {
+				final OrderList orderList = store.read();
+				synchronized (userLock) {
+					// Don't override history saved while loading, or set it after the user changed.
+					if (orderHistoryStore == store && cachedOrderHistory == null) {
+						cachedOrderHistory = orderList;
+					}
+				}
+			}
+		});
+	}
+
 	public static OrderLocalData getInstance(@NonNull final Context context, @NonNull ExecutorsUtil executorsUtil) {
 		if (instance == null) {
 			synchronized (OrderLocalData.class) {
@@ -55,4 +103,128 @@ public class OrderLocalData implements OrderDataSource.Local {
 	public void setIsFirstSpendOrder(boolean isFirstSpendOrder) {
 		ordersSharedPreferences.edit().putBoolean(IS_FIRST_SPEND_ORDER_KEY, isFirstSpendOrder).apply();
 	}
+
+	@Override
+	public void appendOrderState(@NonNull String orderID, @NonNull OrderJournal.State state) {
+		final OrderJournal journal = orderJournal;
+		if (journal != null) {
+			journal.append(orderID, state);
+		}
+		final OrderIdempotencyTable table = orderIdempotencyTable;
+		if (table != null) {
+			table.updateState(orderID, state);
+		}
+	}
+
+	@Override
+	public void appendOrderStateSync(@NonNull String orderID, @NonNull OrderJournal.State state) {
+		final OrderJournal journal = orderJournal;
+		if (journal != null) {
+			journal.appendSync(orderID, state);
+		}
+		final OrderIdempotencyTable table = orderIdempotencyTable;
+		if (table != null) {
+			table.updateState(orderID, state);
+		}
+	}
+
+	@Nullable
+	@Override
+	public String reserveExternalOrder(@NonNull String offerJwt, @NonNull Object owner, long waitMillis)
+		throws TimeoutException {
+		final OrderIdempotencyTable table = orderIdempotencyTable;
+		// No user signed in, nothing to attach to.
+		return table != null ? table.reserve(offerJwt, owner, waitMillis) : null;
+	}
+
+	@Override
+	public void setExternalOrderCreated(@NonNull String offerJwt, @NonNull String orderID) {
+		final OrderIdempotencyTable table = orderIdempotencyTable;
+		if (table != null) {
+			table.setCreated(offerJwt, orderID);
+		}
+	}
+
+	@Override
+	public void releaseExternalOrder(@NonNull String offerJwt, @NonNull Object owner) {
+		final OrderIdempotencyTable table = orderIdempotencyTable;
+		if (table != null) {
+			table.release(offerJwt, owner);
+		}
+	}
+
+	@Override
+	public void getUnresolvedOrders(@NonNull final Callback<Map<String, OrderJournal.State>, Void> callback) {
+		// The journal of the user signed in now, even if the user changes before the replay.
+		final OrderJournal journal = orderJournal;
+		executorsUtil.diskIO().execute(new Runnable() {
+			@Override
+			public void run() {
+				final Map<String, OrderJournal.State> unresolvedOrders =
+					journal != null ? journal.replay() : Collections.<String, OrderJournal.State>emptyMap();
+				executorsUtil.mainThread().execute(new Runnable() {
+					@Override
+					public void run() {
+						callback.onResponse(unresolvedOrders);
+					}
+				});
+			}
+		});
+	}
+
+	@Override
+	public void setUserID(@Nullable String userID) {
+		final OrderHistoryStore store;
+		synchronized (userLock) {
+			if (orderHistoryStore != null && TextUtils.equals(this.userID, userID)) {
+				return;
+			}
+			this.userID = userID;
+			cachedOrderHistory = null;
+			if (userID != null) {
+				orderHistoryStore = new OrderHistoryStore(
+					new File(filesDir, getUserFileName(ORDER_HISTORY_FILE_NAME, userID)));
+				orderJournal = new OrderJournal(new File(filesDir, getUserFileName(ORDER_JOURNAL_FILE_NAME, userID)),
+					executorsUtil.diskIO());
+				orderIdempotencyTable = new OrderIdempotencyTable(context.getSharedPreferences(
+					getUserFileName(ORDER_IDEMPOTENCY_PREF_NAME_FILE_KEY, userID), Context.MODE_PRIVATE));
+			} else {
+				orderHistoryStore = null;
+				orderJournal = null;
+				orderIdempotencyTable = null;
+			}
+			store = orderHistoryStore;
+		}
+		if (store != null) {
+			loadOrderHistory(store);
+		}
+	}
+
+	@Nullable
+	@Override
+	public OrderList getCachedOrderHistory() {
+		return cachedOrderHistory;
+	}
+
+	@Override
+	public void setCachedOrderHistory(@NonNull final OrderList orderList) {
+		final OrderHistoryStore store;
+		synchronized (userLock) {
+			if (orderHistoryStore == null) {
+				// No user signed in, nothing to keep the history for.
+				return;
+			}
+			cachedOrderHistory = orderList;
+			store = orderHistoryStore;
+		}
+		executorsUtil.diskIO().execute(new Runnable() {
+			@Override
+			public void run() {
+				// The store may be updated again before this runs, write the latest only.
+				if (cachedOrderHistory == orderList) {
+					store.write(orderList);
+				}
+			}
+		});
+	}
 }
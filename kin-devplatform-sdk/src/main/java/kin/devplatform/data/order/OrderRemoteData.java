@@ -8,8 +8,10 @@ import kin.devplatform.Log;
 import kin.devplatform.Logger;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiException;
+import kin.devplatform.core.network.RequestId;
 import kin.devplatform.core.util.ExecutorsUtil;
 import kin.devplatform.data.Callback;
+import kin.devplatform.data.SingleFlight;
 import kin.devplatform.network.api.OrdersApi;
 import kin.devplatform.network.model.EarnSubmission;
 import kin.devplatform.network.model.ExternalOrderRequest;
@@ -28,10 +30,13 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 
 	private final OrdersApi ordersApi;
 	private final ExecutorsUtil executorsUtil;
+	private final OrderStatusScheduler orderStatusScheduler;
+	private final SingleFlight<String, OrderList, ApiException> getHistoryCalls = new SingleFlight<>();
 
 	private OrderRemoteData(@NonNull ExecutorsUtil executorsUtil) {
 		this.ordersApi = new OrdersApi();
 		this.executorsUtil = executorsUtil;
+		this.orderStatusScheduler = new OrderStatusScheduler(this);
 	}
 
 	public static OrderRemoteData getInstance(@NonNull ExecutorsUtil executorsUtil) {
@@ -47,13 +52,24 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 
 	@Override
 	public void getAllOrderHistory(@NonNull final Callback<OrderList, ApiException> callback) {
-		getHistory(null, null, ORDERS_ITEMS_LIMIT, callback);
+		getHistory(null, null, ORDERS_ITEMS_LIMIT, null, null, callback);
+	}
+
+	@Override
+	public void getOrderHistoryPage(@Nullable String before, @Nullable String after,
+		@NonNull final Callback<OrderList, ApiException> callback) {
+		getHistory(null, null, ORDERS_ITEMS_LIMIT, before, after, callback);
+	}
+
+	@Override
+	public int getOrderHistoryPageLimit() {
+		return ORDERS_ITEMS_LIMIT;
 	}
 
 	@Override
 	public void createOrder(@NonNull final String offerID, @NonNull final Callback<OpenOrder, ApiException> callback) {
 		try {
-			ordersApi.createOrderAsync(offerID, "", new ApiCallback<OpenOrder>() {
+			ordersApi.createOrderAsync(offerID, RequestId.create(), new ApiCallback<OpenOrder>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
@@ -89,8 +105,9 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 	@Override
 	public void submitOrder(@NonNull String content, @NonNull String orderID,
 		@NonNull final Callback<Order, ApiException> callback) {
+		final EarnSubmission earnSubmission = new EarnSubmission().content(content);
 		try {
-			ordersApi.submitOrderAsync(new EarnSubmission().content(content), orderID, "", new ApiCallback<Order>() {
+			ordersApi.submitOrderAsync(earnSubmission, orderID, RequestId.create(), new ApiCallback<Order>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
@@ -125,7 +142,7 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 	@Override
 	public void cancelOrder(@NonNull final String orderID, @Nullable final Callback<Void, ApiException> callback) {
 		try {
-			ordersApi.cancelOrderAsync(orderID, "", new ApiCallback<Void>() {
+			ordersApi.cancelOrderAsync(orderID, RequestId.create(), new ApiCallback<Void>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
@@ -164,7 +181,7 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 	@Override
 	public void cancelOrderSync(@NonNull String orderID) {
 		try {
-			ordersApi.cancelOrder(orderID, "");
+			ordersApi.cancelOrder(orderID, RequestId.create());
 		} catch (ApiException e) {
 			Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("Cancel order", orderID)
 				.put("sync failed, code", e.getCode()));
@@ -173,7 +190,8 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 
 	@Override
 	public void getOrder(String orderID, final Callback<Order, ApiException> callback) {
-		new GetOrderPollingCall(this, orderID, new Callback<Order, ApiException>() {
+		// Polling for an order already in progress is joined by the callback.
+		orderStatusScheduler.track(orderID, new Callback<Order, ApiException>() {
 			@Override
 			public void onResponse(final Order result) {
 				executorsUtil.mainThread().execute(new Runnable() {
@@ -193,14 +211,14 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 					}
 				});
 			}
-		}).start();
+		});
 	}
 
 	@Override
 	public Order getOrderSync(String orderID) {
 		Order order = null;
 		try {
-			order = ordersApi.getOrder(orderID, "");
+			order = ordersApi.getOrder(orderID, RequestId.create());
 		} catch (ApiException e) {
 			Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("Get order", orderID)
 				.put("sync failed, code", e.getCode()));
@@ -208,26 +226,45 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 		return order;
 	}
 
+	@Override
+	@Nullable
+	public OrderList getAllOrderHistorySync() {
+		try {
+			return ordersApi.getHistory(RequestId.create(), null, null, ORDERS_ITEMS_LIMIT, null, null);
+		} catch (ApiException e) {
+			Logger.log(new Log().withTag(TAG).priority(Log.ERROR).put("Get order history", "sync failed")
+				.put("code", e.getCode()));
+			return null;
+		}
+	}
+
 	public OpenOrder createExternalOrderSync(String orderJwt) throws ApiException {
-		return ordersApi.createExternalOrder(new ExternalOrderRequest().jwt(orderJwt), "");
+		// The id is derived from the jwt, so creating the same external order again is recognized by the server.
+		return ordersApi.createExternalOrder(new ExternalOrderRequest().jwt(orderJwt), RequestId.forKey(orderJwt));
 	}
 
 	@Override
 	public void getFilteredOrderHistory(@Nullable String origin, @NonNull String offerID,
 		@NonNull Callback<OrderList, ApiException> callback) {
-		getHistory(origin, offerID, ONE_ORDER_LIMIT, callback);
+		getHistory(origin, offerID, ONE_ORDER_LIMIT, null, null, callback);
 	}
 
-	private void getHistory(@Nullable String origin, @Nullable String offerID, int limit,
-		@NonNull final Callback<OrderList, ApiException> callback) {
+	private void getHistory(@Nullable String origin, @Nullable String offerID, int limit, @Nullable String before,
+		@Nullable String after, @NonNull final Callback<OrderList, ApiException> callback) {
+		final String key = origin + ":" + offerID + ":" + limit + ":" + before + ":" + after;
+		if (!getHistoryCalls.join(key, callback)) {
+			return;
+		}
+		final Callback<OrderList, ApiException> completion = getHistoryCalls.completionFor(key);
+		final String requestId = RequestId.create();
 		try {
-			ordersApi.getHistoryAsync("", origin, offerID, limit, null, null, new ApiCallback<OrderList>() {
+			ordersApi.getHistoryAsync(requestId, origin, offerID, limit, before, after, new ApiCallback<OrderList>() {
 				@Override
 				public void onFailure(final ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
 					executorsUtil.mainThread().execute(new Runnable() {
 						@Override
 						public void run() {
-							callback.onFailure(e);
+							completion.onFailure(e);
 						}
 					});
 				}
@@ -238,7 +275,7 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 					executorsUtil.mainThread().execute(new Runnable() {
 						@Override
 						public void run() {
-							callback.onResponse(result);
+							completion.onResponse(result);
 						}
 					});
 				}
@@ -248,7 +285,7 @@ public class OrderRemoteData implements OrderDataSource.Remote {
 			executorsUtil.mainThread().execute(new Runnable() {
 				@Override
 				public void run() {
-					callback.onFailure(e);
+					completion.onFailure(e);
 				}
 			});
 		}
@@ -5,14 +5,20 @@ import static kin.devplatform.exception.ClientException.INTERNAL_INCONSISTENCY;
 import static kin.devplatform.exception.ClientException.ORDER_NOT_FOUND;
 import static kin.devplatform.util.ErrorUtil.getClientException;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
 import android.text.format.DateUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import kin.devplatform.BatchCallback;
+import kin.devplatform.Cancellable;
 import kin.devplatform.KinCallback;
 import kin.devplatform.base.ObservableData;
 import kin.devplatform.base.Observer;
@@ -32,6 +38,7 @@ import kin.devplatform.bi.events.SpendOrderCreationRequested;
 import kin.devplatform.bi.events.SpendOrderFailed;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.model.Error;
+import kin.devplatform.core.util.ExecutorsUtil.MainThreadExecutor;
 import kin.devplatform.data.Callback;
 import kin.devplatform.data.KinCallbackAdapter;
 import kin.devplatform.data.blockchain.BlockchainSource;
@@ -50,12 +57,16 @@ import kin.devplatform.network.model.Order;
 import kin.devplatform.network.model.Order.Origin;
 import kin.devplatform.network.model.Order.Status;
 import kin.devplatform.network.model.OrderList;
+import kin.devplatform.network.model.Paging;
+import kin.devplatform.network.model.PagingCursors;
 import kin.devplatform.util.ErrorUtil;
 import kin.sdk.migration.common.KinSdkVersion;
 
 public class OrderRepository implements OrderDataSource {
 
 	private static final long LISTEN_TO_PAYMENT_TIMEOUT_MILLIS = 15 * DateUtils.SECOND_IN_MILLIS;
+	// Below the worker pool size, so a batch leaves room for other flows.
+	private static final int BATCH_MAX_CONCURRENT_ORDERS = 3;
 	private static OrderRepository instance = null;
 	private final OrderDataSource.Local localData;
 	private final OrderDataSource.Remote remoteData;
@@ -66,12 +77,13 @@ public class OrderRepository implements OrderDataSource {
 	private OrderList cachedOrderList;
 	private ObservableData<OpenOrder> cachedOpenOrder = ObservableData.create();
 	private ObservableData<Order> orderWatcher = ObservableData.create();
-	private Observer<Payment> paymentObserver;
+	private final PaymentCorrelator paymentCorrelator;
 
 	private volatile AtomicInteger pendingOrdersCount = new AtomicInteger(0);
 
-	private final Object paymentObserversLock = new Object();
-	private int paymentObserverCount;
+	// Guarded by this.
+	private String userID;
+	private boolean didResumeUnresolvedOrders;
 
 	private OrderRepository(@NonNull final BlockchainSource blockchainSource,
 		@NonNull final EventLogger eventLogger,
@@ -81,6 +93,7 @@ public class OrderRepository implements OrderDataSource {
 		this.localData = localData;
 		this.blockchainSource = blockchainSource;
 		this.eventLogger = eventLogger;
+		this.paymentCorrelator = new PaymentCorrelator(blockchainSource);
 	}
 
 	public static void init(@NonNull final BlockchainSource blockchainSource,
@@ -101,17 +114,118 @@ public class OrderRepository implements OrderDataSource {
 		return instance;
 	}
 
+	/**
+	 * Resume the orders that were in flight when the process died, according to the order journal. Orders that were
+	 * paid or submitted are polled until resolved, they are never paid again. Orders that were only opened are
+	 * cancelled. Call once the user is logged in, the orders are resumed once per user.
+	 */
+	public void resumeUnresolvedOrders() {
+		synchronized (this) {
+			if (userID == null || didResumeUnresolvedOrders) {
+				return;
+			}
+			didResumeUnresolvedOrders = true;
+		}
+		localData.getUnresolvedOrders(new Callback<Map<String, OrderJournal.State>, Void>() {
+			@Override
+			public void onResponse(Map<String, OrderJournal.State> unresolvedOrders) {
+				for (Map.Entry<String, OrderJournal.State> entry : unresolvedOrders.entrySet()) {
+					final String orderID = entry.getKey();
+					if (entry.getValue() == OrderJournal.State.CREATED) {
+						localData.appendOrderState(orderID, OrderJournal.State.RESOLVED);
+						remoteData.cancelOrder(orderID, new Callback<Void, ApiException>() {
+							@Override
+							public void onResponse(Void response) {
+							}
+
+							@Override
+							public void onFailure(ApiException e) {
+							}
+						});
+					} else {
+						pendingOrdersCount.incrementAndGet();
+						getOrder(orderID);
+					}
+				}
+			}
+
+			@Override
+			public void onFailure(Void t) {
+			}
+		});
+	}
+
+	/**
+	 * Switch the synced order history and the order journal to the user, the orders of the previous user are never
+	 * shown, merged into or resumed.
+	 */
+	public void setUserID(@Nullable String userID) {
+		synchronized (this) {
+			if (TextUtils.equals(this.userID, userID)) {
+				return;
+			}
+			this.userID = userID;
+			didResumeUnresolvedOrders = false;
+		}
+		cachedOrderList = null;
+		localData.setUserID(userID);
+	}
+
+	/**
+	 * The synced order history, served from disk on a cold start.
+	 */
 	public OrderList getAllCachedOrderHistory() {
+		if (cachedOrderList == null) {
+			cachedOrderList = localData.getCachedOrderHistory();
+		}
 		return cachedOrderList;
 	}
 
+	/**
+	 * Sync the order history, only the orders newer than the synced history are fetched once it has a before cursor.
+	 * The whole history is fetched again while it holds unresolved orders, they may have been resolved since.
+	 * The callback gets the whole synced history.
+	 */
 	@Override
 	public void getAllOrderHistory(@NonNull final KinCallback<OrderList> callback) {
-		remoteData.getAllOrderHistory(new Callback<OrderList, ApiException>() {
+		final OrderList cached = getAllCachedOrderHistory();
+		final String before = hasUnresolvedOrders(cached) ? null : getBeforeCursor(cached);
+		if (before == null) {
+			remoteData.getAllOrderHistory(new Callback<OrderList, ApiException>() {
+				@Override
+				public void onResponse(OrderList response) {
+					final OrderList orderList = createOrderHistory(getOrders(response), getBeforeCursor(response),
+						getAfterCursorIfFull(response));
+					saveOrderHistory(orderList);
+					callback.onResponse(orderList);
+				}
+
+				@Override
+				public void onFailure(ApiException e) {
+					callback.onFailure(ErrorUtil.fromApiException(e));
+				}
+			});
+			return;
+		}
+		remoteData.getOrderHistoryPage(before, null, new Callback<OrderList, ApiException>() {
 			@Override
 			public void onResponse(OrderList response) {
-				cachedOrderList = response;
-				callback.onResponse(response);
+				final List<Order> newerOrders = getOrders(response);
+				final OrderList orderList;
+				if (newerOrders.size() >= remoteData.getOrderHistoryPageLimit()) {
+					// There may be a gap between the page and the synced history, start over from this page.
+					orderList = createOrderHistory(newerOrders, getBeforeCursor(response),
+						getAfterCursorIfFull(response));
+				} else {
+					final OrderList current = getAllCachedOrderHistory();
+					final List<Order> orders = new ArrayList<>(newerOrders);
+					orders.addAll(withoutOrders(getOrders(current), newerOrders));
+					orderList = createOrderHistory(orders,
+						newerOrders.isEmpty() ? getBeforeCursor(current) : getBeforeCursor(response),
+						getAfterCursor(current));
+				}
+				saveOrderHistory(orderList);
+				callback.onResponse(orderList);
 			}
 
 			@Override
@@ -121,6 +235,122 @@ public class OrderRepository implements OrderDataSource {
 		});
 	}
 
+	@Override
+	public void getOlderOrderHistory(@NonNull final KinCallback<OrderList> callback) {
+		final String after = getAfterCursor(getAllCachedOrderHistory());
+		if (after == null) {
+			callback.onResponse(new OrderList().orders(new ArrayList<Order>()));
+			return;
+		}
+		remoteData.getOrderHistoryPage(null, after, new Callback<OrderList, ApiException>() {
+			@Override
+			public void onResponse(OrderList response) {
+				final OrderList current = getAllCachedOrderHistory();
+				final List<Order> olderOrders = withoutOrders(getOrders(response), getOrders(current));
+				final List<Order> orders = new ArrayList<>(getOrders(current));
+				orders.addAll(olderOrders);
+				saveOrderHistory(createOrderHistory(orders, getBeforeCursor(current), getAfterCursorIfFull(response)));
+				callback.onResponse(new OrderList().orders(olderOrders));
+			}
+
+			@Override
+			public void onFailure(ApiException e) {
+				callback.onFailure(ErrorUtil.fromApiException(e));
+			}
+		});
+	}
+
+	/**
+	 * Replace an order of the synced history with its final state, orders older than the before cursor are not
+	 * fetched again by the sync.
+	 */
+	private void updateCachedOrder(@NonNull Order order) {
+		final OrderList current = getAllCachedOrderHistory();
+		if (current == null || order.getOrderId() == null) {
+			return;
+		}
+		final List<Order> orders = new ArrayList<>(getOrders(current));
+		for (int i = 0; i < orders.size(); i++) {
+			if (order.getOrderId().equals(orders.get(i).getOrderId())) {
+				orders.set(i, order);
+				saveOrderHistory(createOrderHistory(orders, getBeforeCursor(current), getAfterCursor(current)));
+				return;
+			}
+		}
+	}
+
+	private void saveOrderHistory(@NonNull OrderList orderList) {
+		cachedOrderList = orderList;
+		localData.setCachedOrderHistory(orderList);
+	}
+
+	private OrderList createOrderHistory(List<Order> orders, @Nullable String before, @Nullable String after) {
+		return new OrderList().orders(orders)
+			.paging(new Paging().cursors(new PagingCursors().before(before).after(after)));
+	}
+
+	private static List<Order> getOrders(@Nullable OrderList orderList) {
+		if (orderList == null || orderList.getOrders() == null) {
+			return Collections.emptyList();
+		}
+		return orderList.getOrders();
+	}
+
+	/**
+	 * Orders resolved outside of this process (killed app, other device, late confirmation) are only seen by a full
+	 * sync, the incremental one fetches newer orders only.
+	 */
+	private static boolean hasUnresolvedOrders(@Nullable OrderList orderList) {
+		for (Order order : getOrders(orderList)) {
+			if (order.getStatus() == Status.PENDING || order.getStatus() == Status.DELAYED) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Order> withoutOrders(List<Order> orders, List<Order> removedOrders) {
+		final Set<String> removedIds = new HashSet<>(removedOrders.size());
+		for (Order order : removedOrders) {
+			removedIds.add(order.getOrderId());
+		}
+		final List<Order> result = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			if (!removedIds.contains(order.getOrderId())) {
+				result.add(order);
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private static String getBeforeCursor(@Nullable OrderList orderList) {
+		final PagingCursors cursors = getCursors(orderList);
+		return cursors != null ? cursors.getBefore() : null;
+	}
+
+	@Nullable
+	private static String getAfterCursor(@Nullable OrderList orderList) {
+		final PagingCursors cursors = getCursors(orderList);
+		return cursors != null ? cursors.getAfter() : null;
+	}
+
+	/**
+	 * The after cursor of a page, null when the page is not full, there are no older orders then.
+	 */
+	@Nullable
+	private String getAfterCursorIfFull(@Nullable OrderList page) {
+		return getOrders(page).size() < remoteData.getOrderHistoryPageLimit() ? null : getAfterCursor(page);
+	}
+
+	@Nullable
+	private static PagingCursors getCursors(@Nullable OrderList orderList) {
+		if (orderList == null || orderList.getPaging() == null) {
+			return null;
+		}
+		return orderList.getPaging().getCursors();
+	}
+
 	public ObservableData<OpenOrder> getOpenOrder() {
 		return cachedOpenOrder;
 	}
@@ -161,6 +391,7 @@ public class OrderRepository implements OrderDataSource {
 		if (order.getOfferType() == OfferType.EARN) {
 			listenForCompletedPayment(order.getId(), origin);
 		}
+		localData.appendOrderState(order.getId(), OrderJournal.State.SUBMITTED);
 		remoteData.submitOrder(content, order.getId(), new Callback<Order, ApiException>() {
 			@Override
 			public void onResponse(Order response) {
@@ -212,29 +443,18 @@ public class OrderRepository implements OrderDataSource {
 
 
 	private void listenForCompletedPayment(final String orderId, final kin.devplatform.network.model.Origin origin) {
-		final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
-		synchronized (paymentObserversLock) {
-			if (paymentObserverCount == 0) {
-				paymentObserver = new Observer<Payment>() {
-					@Override
-					public void onChanged(Payment payment) {
-						sendEarnPaymentConfirmed(payment, origin);
-						decrementPaymentObserverCount();
-						getOrder(payment.getOrderID());
-						mainThreadHandler.removeCallbacksAndMessages(null);
-					}
-				};
-				mainThreadHandler.postDelayed(new Runnable() {
-					@Override
-					public void run() {
-						getOrder(orderId);
-						decrementPaymentObserverCount();
-					}
-				}, LISTEN_TO_PAYMENT_TIMEOUT_MILLIS);
-				blockchainSource.addPaymentObservable(paymentObserver);
+		paymentCorrelator.register(orderId, LISTEN_TO_PAYMENT_TIMEOUT_MILLIS, new PaymentCorrelator.PaymentListener() {
+			@Override
+			public void onPayment(Payment payment) {
+				sendEarnPaymentConfirmed(payment, origin);
+				getOrder(payment.getOrderID());
 			}
-			paymentObserverCount++;
-		}
+
+			@Override
+			public void onTimeout() {
+				getOrder(orderId);
+			}
+		});
 	}
 
 	private void sendEarnPaymentConfirmed(Payment payment, kin.devplatform.network.model.Origin origin) {
@@ -247,24 +467,15 @@ public class OrderRepository implements OrderDataSource {
 		}
 	}
 
-	private void decrementPaymentObserverCount() {
-		synchronized (paymentObserversLock) {
-			if (paymentObserverCount > 0) {
-				paymentObserverCount--;
-			}
-
-			if (paymentObserverCount == 0 && paymentObserver != null) {
-				blockchainSource.removePaymentObserver(paymentObserver);
-				paymentObserver = null;
-			}
-		}
-	}
-
 	private void getOrder(final String orderID) {
 		remoteData.getOrder(orderID, new Callback<Order, ApiException>() {
 			@Override
 			public void onResponse(Order order) {
 				decrementPendingOrdersCount();
+				if (order.getStatus() != Status.DELAYED) {
+					localData.appendOrderState(order.getOrderId(), OrderJournal.State.RESOLVED);
+					updateCachedOrder(order);
+				}
 				getOrderWatcher().postValue(order);
 				//in case of marketplace orders, this is the point where we verify order completion,
 				//in case of native/external orders, we will verify on onOrderConfirmed callback at CreateExternalOrder class
@@ -346,6 +557,8 @@ public class OrderRepository implements OrderDataSource {
 	public void cancelOrder(@NonNull final String offerID, @NonNull final String orderID,
 		@Nullable final KinCallback<Void> callback) {
 		removeCachedOpenOrderByID(orderID);
+		// A failed cancel leaves nothing to resume, the order is already final or expires on the server.
+		localData.appendOrderState(orderID, OrderJournal.State.RESOLVED);
 		remoteData.cancelOrder(orderID, new Callback<Void, ApiException>() {
 			@Override
 			public void onResponse(Void response) {
@@ -364,17 +577,37 @@ public class OrderRepository implements OrderDataSource {
 	}
 
 	@Override
-	public void payToUser(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback) {
+	public Cancellable payToUser(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback) {
 		//pay to user has a similar flow like purchase (spend), the only different is the expected input JWT and the corresponding events
-		spendFlow(offerJwt, true, callback);
+		return spendFlow(offerJwt, true, callback);
 	}
 
 	@Override
-	public void purchase(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback) {
-		spendFlow(offerJwt, false, callback);
+	public Cancellable purchase(String offerJwt, @Nullable final KinCallback<OrderConfirmation> callback) {
+		return spendFlow(offerJwt, false, callback);
+	}
+
+	@Override
+	public Cancellable purchaseBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback) {
+		return spendBatch(offerJwts, false, callback);
+	}
+
+	@Override
+	public Cancellable payToUserBatch(@NonNull List<String> offerJwts, @NonNull BatchCallback callback) {
+		return spendBatch(offerJwts, true, callback);
+	}
+
+	private Cancellable spendBatch(@NonNull List<String> offerJwts, final boolean isPayToUser,
+		@NonNull BatchCallback callback) {
+		return new SpendBatch(offerJwts, BATCH_MAX_CONCURRENT_ORDERS, new SpendBatch.FlowStarter() {
+			@Override
+			public Cancellable start(String offerJwt, KinCallback<OrderConfirmation> flowCallback) {
+				return spendFlow(offerJwt, isPayToUser, flowCallback);
+			}
+		}, callback, new MainThreadExecutor()).start();
 	}
 
-	private void spendFlow(String offerJwt, final boolean isPayToUser,
+	private Cancellable spendFlow(String offerJwt, final boolean isPayToUser,
 		@Nullable final KinCallback<OrderConfirmation> callback) {
 		if (isPayToUser) {
 			eventLogger.send(
@@ -382,8 +615,8 @@ public class OrderRepository implements OrderDataSource {
 		} else {
 			eventLogger.send(SpendOrderCreationRequested.create("", SpendOrderCreationRequested.Origin.EXTERNAL));
 		}
-		new ExternalSpendOrderCall(remoteData, blockchainSource, offerJwt, eventLogger,
-			LISTEN_TO_PAYMENT_TIMEOUT_MILLIS, new ExternalSpendOrderCallbacks() {
+		return new ExternalSpendOrderCall(remoteData, localData, blockchainSource, paymentCorrelator, offerJwt,
+			eventLogger, LISTEN_TO_PAYMENT_TIMEOUT_MILLIS, new ExternalSpendOrderCallbacks() {
 			@Override
 			public void onOrderCreated(OpenOrder openOrder) {
 				cachedOpenOrder.postValue(openOrder);
@@ -453,7 +686,7 @@ public class OrderRepository implements OrderDataSource {
 			@Override
 			public void onOrderFailed(KinEcosystemException exception, OpenOrder openOrder) {
 				if (openOrder != null) { // did not fail before submit
-					decrementCount();
+					decrementCount(openOrder.getId());
 				}
 				handleOnFailure(exception, openOrder != null ? openOrder.getOfferId() : "null",
 					openOrder != null ? openOrder.getId() : "null");
@@ -481,10 +714,11 @@ public class OrderRepository implements OrderDataSource {
 	}
 
 	@Override
-	public void requestPayment(String offerJwt, final KinCallback<OrderConfirmation> callback) {
+	public Cancellable requestPayment(String offerJwt, final KinCallback<OrderConfirmation> callback) {
 		eventLogger
 			.send(EarnOrderCreationRequested.create(null, 0.0, "", EarnOrderCreationRequested.Origin.EXTERNAL));
-		new ExternalEarnOrderCall(remoteData, blockchainSource, offerJwt, eventLogger, LISTEN_TO_PAYMENT_TIMEOUT_MILLIS,
+		return new ExternalEarnOrderCall(remoteData, localData, blockchainSource, paymentCorrelator, offerJwt,
+			eventLogger, LISTEN_TO_PAYMENT_TIMEOUT_MILLIS,
 			new ExternalOrderCallbacks() {
 				@Override
 				public void onOrderCreated(final OpenOrder openOrder) {
@@ -522,7 +756,7 @@ public class OrderRepository implements OrderDataSource {
 				@Override
 				public void onOrderFailed(KinEcosystemException exception, OpenOrder openOrder) {
 					if (openOrder != null) { // did not fail before submit
-						decrementCount();
+						decrementCount(openOrder.getId());
 					}
 					handleOnFailure(exception, openOrder != null ? openOrder.getOfferId() : "null",
 						openOrder != null ? openOrder.getId() : "null");
@@ -621,8 +855,8 @@ public class OrderRepository implements OrderDataSource {
 			});
 	}
 
-	private void decrementCount() {
+	private void decrementCount(String orderId) {
 		decrementPendingOrdersCount();
-		decrementPaymentObserverCount();
+		paymentCorrelator.unregister(orderId);
 	}
 }
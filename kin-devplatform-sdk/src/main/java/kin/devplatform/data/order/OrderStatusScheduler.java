@@ -0,0 +1,283 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.core.network.ApiException;
+import kin.devplatform.data.Callback;
+import kin.devplatform.network.model.Offer.OfferType;
+import kin.devplatform.network.model.Order;
+import kin.devplatform.network.model.Order.Status;
+import kin.devplatform.network.model.OrderList;
+import kin.devplatform.util.ErrorUtil;
+
+/**
+ * Polls the status of all the pending orders on a single thread, until each order is no longer pending or its polling
+ * times out. Orders that are due for a check at about the same time are checked together with one order history call
+ * instead of one call per order.
+ * <p>
+ * Once enough orders of an offer type were confirmed, its orders are polled around the observed confirmation latency
+ * percentiles, and reported {@link Status#DELAYED} when they take well over the usual latency. Until then the fixed
+ * backoff is used.
+ */
+class OrderStatusScheduler {
+
+	private static final int[] DELAY_SECONDS = {2, 4, 8, 16, 32, 32, 32, 32, 32};
+	private static final int SEC_IN_MILLI = 1000;
+	private static final int DELAYED_ATTEMPTED_NUMBER = 5;
+
+	/**
+	 * Polling times out after the whole fixed backoff, however the polls are spread.
+	 */
+	private static final long TIMEOUT_MILLIS = totalDelayMillis(DELAY_SECONDS.length);
+	private static final long DEFAULT_DELAYED_MILLIS = totalDelayMillis(DELAYED_ATTEMPTED_NUMBER);
+
+	private static final long MIN_DELAY_MILLIS = 1000;
+	private static final long MAX_DELAY_MILLIS = 32 * SEC_IN_MILLI;
+	private static final long MIN_DELAYED_MILLIS = 10 * SEC_IN_MILLI;
+
+	/**
+	 * Polls are aimed at these latency percentiles, then back off.
+	 */
+	private static final int[] POLL_PERCENTILES = {50, 75, 90, 95};
+	private static final int DELAYED_PERCENTILE = 95;
+	private static final int DELAYED_FACTOR = 2;
+
+	/**
+	 * Orders due within this window from a check are checked along with it.
+	 */
+	private static final long BATCH_WINDOW_MILLIS = 1000;
+
+	private final OrderDataSource.Remote remote;
+	private final ScheduledExecutorService executor;
+	private final ConfirmationLatencyTracker latencyTracker;
+	private final Map<String, PendingOrder> pendingOrders = new HashMap<>();
+
+	private final Runnable checkDueOrders = new Runnable() {
+		@Override
+		public void run() {
+			checkDueOrders();
+		}
+	};
+
+	OrderStatusScheduler(@NonNull OrderDataSource.Remote remote) {
+		this(remote, Executors.newSingleThreadScheduledExecutor(), new ConfirmationLatencyTracker());
+	}
+
+	@VisibleForTesting
+	OrderStatusScheduler(@NonNull OrderDataSource.Remote remote, @NonNull ScheduledExecutorService executor,
+		@NonNull ConfirmationLatencyTracker latencyTracker) {
+		this.remote = remote;
+		this.executor = executor;
+		this.latencyTracker = latencyTracker;
+	}
+
+	/**
+	 * Poll the order status, the callback gets the order once it is no longer pending, a {@link Status#DELAYED} order
+	 * if it takes long, or a timeout error. Callbacks are called on the scheduler thread.
+	 */
+	void track(@NonNull String orderID, @NonNull Callback<Order, ApiException> callback) {
+		synchronized (pendingOrders) {
+			PendingOrder pendingOrder = pendingOrders.get(orderID);
+			if (pendingOrder != null) {
+				// Already polled, the callback joins the next result.
+				pendingOrder.callbacks.add(callback);
+				return;
+			}
+			pendingOrder = new PendingOrder(orderID, now());
+			pendingOrder.callbacks.add(callback);
+			pendingOrders.put(orderID, pendingOrder);
+		}
+		executor.execute(checkDueOrders);
+	}
+
+	@VisibleForTesting
+	int getPendingOrdersCount() {
+		synchronized (pendingOrders) {
+			return pendingOrders.size();
+		}
+	}
+
+	private void checkDueOrders() {
+		final long dueTime = now() + BATCH_WINDOW_MILLIS;
+		final List<PendingOrder> dueOrders = new ArrayList<>();
+		synchronized (pendingOrders) {
+			for (PendingOrder pendingOrder : pendingOrders.values()) {
+				if (pendingOrder.nextCheckTime <= dueTime) {
+					dueOrders.add(pendingOrder);
+				}
+			}
+		}
+		if (dueOrders.isEmpty()) {
+			return;
+		}
+
+		final List<PendingOrder> ordersToCheck = new ArrayList<>(dueOrders.size());
+		final long now = now();
+		for (PendingOrder pendingOrder : dueOrders) {
+			if (now - pendingOrder.startTime < TIMEOUT_MILLIS) {
+				ordersToCheck.add(pendingOrder);
+			} else {
+				onTimeout(pendingOrder);
+			}
+		}
+
+		final Map<String, Order> orders = getOrders(ordersToCheck);
+		for (PendingOrder pendingOrder : ordersToCheck) {
+			onChecked(pendingOrder, orders.get(pendingOrder.orderID));
+		}
+	}
+
+	/**
+	 * A single order is fetched on its own, several with one history call. Orders missing from the history are
+	 * fetched on their own, orders that could not be fetched are missing from the result.
+	 */
+	private Map<String, Order> getOrders(List<PendingOrder> ordersToCheck) {
+		final Map<String, Order> orders = new HashMap<>();
+		if (ordersToCheck.size() > 1) {
+			final OrderList orderList = remote.getAllOrderHistorySync();
+			if (orderList == null) {
+				return orders;
+			}
+			if (orderList.getOrders() != null) {
+				for (Order order : orderList.getOrders()) {
+					orders.put(order.getOrderId(), order);
+				}
+			}
+		}
+		for (PendingOrder pendingOrder : ordersToCheck) {
+			if (!orders.containsKey(pendingOrder.orderID)) {
+				final Order order = remote.getOrderSync(pendingOrder.orderID);
+				if (order != null) {
+					orders.put(pendingOrder.orderID, order);
+				}
+			}
+		}
+		return orders;
+	}
+
+	private void onChecked(PendingOrder pendingOrder, @Nullable Order order) {
+		final long elapsedMillis = now() - pendingOrder.startTime;
+		if (order != null && order.getOfferType() != null) {
+			pendingOrder.offerType = order.getOfferType();
+		}
+		if (order != null && order.getStatus() != Status.PENDING) {
+			if (pendingOrder.offerType != null) {
+				latencyTracker.record(pendingOrder.offerType, elapsedMillis);
+			}
+			for (Callback<Order, ApiException> callback : complete(pendingOrder)) {
+				callback.onResponse(order);
+			}
+			return;
+		}
+
+		final long[] percentiles = pendingOrder.offerType != null ? latencyTracker
+			.getPercentiles(pendingOrder.offerType, POLL_PERCENTILES) : null;
+		if (order != null && !pendingOrder.delayedReported && elapsedMillis >= getDelayedMillis(percentiles)) {
+			pendingOrder.delayedReported = true;
+			final Order delayedOrder = order.status(Status.DELAYED);
+			for (Callback<Order, ApiException> callback : getCallbacks(pendingOrder)) {
+				callback.onResponse(delayedOrder);
+			}
+		}
+		final long delayMillis = getNextDelayMillis(pendingOrder, elapsedMillis, percentiles);
+		pendingOrder.attempt++;
+		pendingOrder.lastDelayMillis = delayMillis;
+		pendingOrder.nextCheckTime = now() + delayMillis;
+		executor.schedule(checkDueOrders, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The next poll is at the first learned percentile that is still ahead, past the last one the delay doubles.
+	 * Without enough samples the fixed backoff is used.
+	 */
+	private static long getNextDelayMillis(PendingOrder pendingOrder, long elapsedMillis, @Nullable long[] percentiles) {
+		if (percentiles == null) {
+			return DELAY_SECONDS[Math.min(pendingOrder.attempt, DELAY_SECONDS.length - 1)] * SEC_IN_MILLI;
+		}
+		for (long percentile : percentiles) {
+			if (percentile - elapsedMillis >= MIN_DELAY_MILLIS) {
+				return Math.min(percentile - elapsedMillis, MAX_DELAY_MILLIS);
+			}
+		}
+		return Math.max(MIN_DELAY_MILLIS, Math.min(pendingOrder.lastDelayMillis * 2, MAX_DELAY_MILLIS));
+	}
+
+	/**
+	 * Twice the usual worst latency, within bounds, or after the fixed number of attempts without enough samples.
+	 */
+	@VisibleForTesting
+	static long getDelayedMillis(@Nullable long[] percentiles) {
+		if (percentiles == null) {
+			return DEFAULT_DELAYED_MILLIS;
+		}
+		final long usualLatency = percentiles[indexOf(POLL_PERCENTILES, DELAYED_PERCENTILE)];
+		return Math.max(MIN_DELAYED_MILLIS, Math.min(usualLatency * DELAYED_FACTOR, DEFAULT_DELAYED_MILLIS));
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException(value + " not found");
+	}
+
+	private static long totalDelayMillis(int attempts) {
+		long total = 0;
+		for (int i = 0; i < attempts; i++) {
+			total += DELAY_SECONDS[i] * SEC_IN_MILLI;
+		}
+		return total;
+	}
+
+	private void onTimeout(PendingOrder pendingOrder) {
+		final ApiException timeoutException = ErrorUtil.createOrderTimeoutException();
+		for (Callback<Order, ApiException> callback : complete(pendingOrder)) {
+			callback.onFailure(timeoutException);
+		}
+	}
+
+	private List<Callback<Order, ApiException>> complete(PendingOrder pendingOrder) {
+		synchronized (pendingOrders) {
+			pendingOrders.remove(pendingOrder.orderID);
+			return pendingOrder.callbacks;
+		}
+	}
+
+	private List<Callback<Order, ApiException>> getCallbacks(PendingOrder pendingOrder) {
+		synchronized (pendingOrders) {
+			return new ArrayList<>(pendingOrder.callbacks);
+		}
+	}
+
+	private static long now() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+	}
+
+	private static class PendingOrder {
+
+		private final String orderID;
+		private final long startTime;
+		private final List<Callback<Order, ApiException>> callbacks = new ArrayList<>();
+		private OfferType offerType;
+		private int attempt;
+		private long lastDelayMillis;
+		private long nextCheckTime;
+		private boolean delayedReported;
+
+		PendingOrder(String orderID, long startTime) {
+			this.orderID = orderID;
+			this.startTime = startTime;
+			this.nextCheckTime = startTime;
+		}
+	}
+}
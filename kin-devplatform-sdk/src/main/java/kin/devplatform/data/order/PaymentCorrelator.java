@@ -0,0 +1,262 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.base.Observer;
+import kin.devplatform.core.util.ExecutorsUtil.MainThreadExecutor;
+import kin.devplatform.data.blockchain.BlockchainSource;
+import kin.devplatform.data.model.Payment;
+
+/**
+ * Matches blockchain payments to the orders waiting for them. A single payment observer is registered while any order
+ * is waiting or about to be created, each payment is dispatched only to the listeners of its order, and each listener
+ * gets its own deadline on a shared timer. Payments are kept for {@link #RECENT_PAYMENT_MILLIS} so an order registered
+ * right after its payment arrived still gets it.
+ */
+class PaymentCorrelator {
+
+	@VisibleForTesting
+	static final long RECENT_PAYMENT_MILLIS = 5000;
+
+	private final BlockchainSource blockchainSource;
+	private final ScheduledExecutorService timer;
+	private final MainThreadExecutor mainThreadExecutor = new MainThreadExecutor();
+
+	private final Object lock = new Object();
+	private final ConcurrentHashMap<String, List<Registration>> registrations = new ConcurrentHashMap<>();
+	// Written under the lock, so a registration sees either the payment or gets it dispatched.
+	private final ConcurrentHashMap<String, Payment> recentPayments = new ConcurrentHashMap<>();
+	private int registrationCount;
+	private int holdCount;
+	private boolean isObserving;
+
+	private final Observer<Payment> paymentObserver = new Observer<Payment>() {
+		@Override
+		public void onChanged(Payment payment) {
+			dispatch(payment);
+		}
+	};
+
+	interface PaymentListener {
+
+		void onPayment(Payment payment);
+
+		/**
+		 * No payment arrived for the order before the deadline.
+		 */
+		void onTimeout();
+	}
+
+	PaymentCorrelator(@NonNull BlockchainSource blockchainSource) {
+		this(blockchainSource, Executors.newSingleThreadScheduledExecutor());
+	}
+
+	@VisibleForTesting
+	PaymentCorrelator(@NonNull BlockchainSource blockchainSource, @NonNull ScheduledExecutorService timer) {
+		this.blockchainSource = blockchainSource;
+		this.timer = timer;
+	}
+
+	/**
+	 * Keep observing payments until {@link #release()}, so a payment that arrives before its order is registered is
+	 * kept for it. Call before the order is created.
+	 */
+	void acquire() {
+		synchronized (lock) {
+			holdCount++;
+			onObserverUsersChanged();
+		}
+	}
+
+	/**
+	 * Release a hold taken with {@link #acquire()}, once the order is registered or failed.
+	 */
+	void release() {
+		synchronized (lock) {
+			if (holdCount == 0) {
+				return;
+			}
+			holdCount--;
+			onObserverUsersChanged();
+		}
+	}
+
+	/**
+	 * Wait for the payment of the order, the listener is called once on the main thread, with the payment or a timeout.
+	 *
+	 * @return registration to cancel the listener.
+	 */
+	Registration register(@NonNull final String orderID, long timeoutMillis, @NonNull PaymentListener listener) {
+		final Registration registration = new Registration(orderID, listener);
+		synchronized (lock) {
+			final Payment recentPayment = recentPayments.get(orderID);
+			if (recentPayment != null) {
+				registration.completed = true;
+				mainThreadExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						registration.listener.onPayment(recentPayment);
+					}
+				});
+				return registration;
+			}
+			List<Registration> orderRegistrations = registrations.get(orderID);
+			if (orderRegistrations == null) {
+				orderRegistrations = new ArrayList<>(1);
+				registrations.put(orderID, orderRegistrations);
+			}
+			orderRegistrations.add(registration);
+			registrationCount++;
+			onObserverUsersChanged();
+			registration.deadline = timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					onDeadline(registration);
+				}
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		return registration;
+	}
+
+	/**
+	 * Cancel all the listeners of the order.
+	 */
+	void unregister(@NonNull String orderID) {
+		synchronized (lock) {
+			final List<Registration> orderRegistrations = registrations.get(orderID);
+			if (orderRegistrations != null) {
+				for (Registration registration : new ArrayList<>(orderRegistrations)) {
+					complete(registration);
+				}
+			}
+		}
+	}
+
+	@VisibleForTesting
+	int getRegistrationCount() {
+		synchronized (lock) {
+			return registrationCount;
+		}
+	}
+
+	private void dispatch(final Payment payment) {
+		final String orderID = payment.getOrderID();
+		if (orderID == null) {
+			return;
+		}
+		final List<Registration> completed = new ArrayList<>();
+		synchronized (lock) {
+			rememberPayment(orderID, payment);
+			final List<Registration> orderRegistrations = registrations.get(orderID);
+			if (orderRegistrations == null) {
+				return;
+			}
+			for (Registration registration : new ArrayList<>(orderRegistrations)) {
+				if (complete(registration)) {
+					completed.add(registration);
+				}
+			}
+		}
+		for (final Registration registration : completed) {
+			// The observer is called on a blockchain thread, listeners may touch the UI.
+			mainThreadExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					registration.listener.onPayment(payment);
+				}
+			});
+		}
+	}
+
+	private void rememberPayment(final String orderID, final Payment payment) {
+		recentPayments.put(orderID, payment);
+		timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				recentPayments.remove(orderID, payment);
+			}
+		}, RECENT_PAYMENT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private void onDeadline(final Registration registration) {
+		synchronized (lock) {
+			if (!complete(registration)) {
+				return;
+			}
+		}
+		mainThreadExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				registration.listener.onTimeout();
+			}
+		});
+	}
+
+	/**
+	 * Remove the registration, must hold the lock.
+	 *
+	 * @return false if the registration was already completed or cancelled.
+	 */
+	private boolean complete(Registration registration) {
+		if (registration.completed) {
+			return false;
+		}
+		registration.completed = true;
+		if (registration.deadline != null) {
+			registration.deadline.cancel(false);
+		}
+		final List<Registration> orderRegistrations = registrations.get(registration.orderID);
+		if (orderRegistrations != null) {
+			orderRegistrations.remove(registration);
+			if (orderRegistrations.isEmpty()) {
+				registrations.remove(registration.orderID);
+			}
+		}
+		registrationCount--;
+		onObserverUsersChanged();
+		return true;
+	}
+
+	/**
+	 * Register the payment observer for the first registration or hold, remove it after the last, must hold the lock.
+	 */
+	private void onObserverUsersChanged() {
+		final int observerUsers = registrationCount + holdCount;
+		if (observerUsers > 0 && !isObserving) {
+			isObserving = true;
+			blockchainSource.addPaymentObservable(paymentObserver);
+		} else if (observerUsers == 0 && isObserving) {
+			isObserving = false;
+			blockchainSource.removePaymentObserver(paymentObserver);
+		}
+	}
+
+	class Registration {
+
+		private final String orderID;
+		private final PaymentListener listener;
+		private ScheduledFuture<?> deadline;
+		private boolean completed;
+
+		Registration(String orderID, PaymentListener listener) {
+			this.orderID = orderID;
+			this.listener = listener;
+		}
+
+		/**
+		 * Stop waiting, the listener will not be called.
+		 */
+		void cancel() {
+			synchronized (lock) {
+				complete(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package kin.devplatform.data.order;
+
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import kin.devplatform.BatchCallback;
+import kin.devplatform.Cancellable;
+import kin.devplatform.KinCallback;
+import kin.devplatform.data.model.BatchResult;
+import kin.devplatform.data.model.OrderConfirmation;
+import kin.devplatform.exception.ClientException;
+import kin.devplatform.exception.KinEcosystemException;
+import kin.devplatform.util.ErrorUtil;
+
+/**
+ * Runs the spend flows of a batch with at most {@code maxConcurrentOrders} in flight, the next flow starts when one
+ * ends. Transactions of the account are serialized by the blockchain source, and the flows share the order status
+ * polling.
+ */
+class SpendBatch implements Cancellable {
+
+	interface FlowStarter {
+
+		Cancellable start(String offerJwt, KinCallback<OrderConfirmation> callback);
+	}
+
+	private final List<String> offerJwts;
+	private final int maxConcurrentOrders;
+	private final FlowStarter flowStarter;
+	private final BatchCallback batchCallback;
+	private final Executor mainThread;
+
+	private final Object lock = new Object();
+	private final List<OrderConfirmation> confirmations;
+	private final List<KinEcosystemException> failures;
+	private final Cancellable[] flows;
+	private int nextIndex;
+	private int doneCount;
+	private boolean cancelled;
+
+	SpendBatch(@NonNull List<String> offerJwts, int maxConcurrentOrders, @NonNull FlowStarter flowStarter,
+		@NonNull BatchCallback batchCallback, @NonNull Executor mainThread) {
+		this.offerJwts = new ArrayList<>(offerJwts);
+		this.maxConcurrentOrders = maxConcurrentOrders;
+		this.flowStarter = flowStarter;
+		this.batchCallback = batchCallback;
+		this.mainThread = mainThread;
+		this.confirmations = new ArrayList<>(Collections.<OrderConfirmation>nCopies(offerJwts.size(), null));
+		this.failures = new ArrayList<>(Collections.<KinEcosystemException>nCopies(offerJwts.size(), null));
+		this.flows = new Cancellable[offerJwts.size()];
+	}
+
+	Cancellable start() {
+		if (offerJwts.isEmpty()) {
+			mainThread.execute(new Runnable() {
+				@Override
+				public void run() {
+					batchCallback.onBatchCompleted(new BatchResult(confirmations, failures));
+				}
+			});
+			return this;
+		}
+		for (int i = 0; i < maxConcurrentOrders; i++) {
+			startNext();
+		}
+		return this;
+	}
+
+	private void startNext() {
+		final int index;
+		synchronized (lock) {
+			if (cancelled || nextIndex >= offerJwts.size()) {
+				return;
+			}
+			index = nextIndex++;
+		}
+		final Cancellable flow = flowStarter.start(offerJwts.get(index), new KinCallback<OrderConfirmation>() {
+			@Override
+			public void onResponse(OrderConfirmation orderConfirmation) {
+				onItemDone(index, orderConfirmation, null);
+			}
+
+			@Override
+			public void onFailure(KinEcosystemException exception) {
+				onItemDone(index, null, exception);
+			}
+		});
+		synchronized (lock) {
+			flows[index] = flow;
+		}
+	}
+
+	/**
+	 * Called on the main thread.
+	 */
+	private void onItemDone(int index, OrderConfirmation confirmation, KinEcosystemException exception) {
+		final boolean batchDone;
+		synchronized (lock) {
+			if (confirmations.get(index) != null || failures.get(index) != null) {
+				return;
+			}
+			confirmations.set(index, confirmation);
+			failures.set(index, exception);
+			flows[index] = null;
+			batchDone = ++doneCount == offerJwts.size();
+		}
+		if (exception != null) {
+			batchCallback.onItemFailed(index, exception);
+		} else {
+			batchCallback.onItemCompleted(index, confirmation);
+		}
+		if (batchDone) {
+			batchCallback.onBatchCompleted(new BatchResult(confirmations, failures));
+		} else {
+			startNext();
+		}
+	}
+
+	/**
+	 * Cancel the flows that did not send their payment yet, and the items that did not start.
+	 */
+	@Override
+	public void cancel() {
+		final List<Cancellable> runningFlows = new ArrayList<>();
+		final int firstNotStarted;
+		synchronized (lock) {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			for (Cancellable flow : flows) {
+				if (flow != null) {
+					runningFlows.add(flow);
+				}
+			}
+			firstNotStarted = nextIndex;
+			nextIndex = offerJwts.size();
+		}
+		for (Cancellable flow : runningFlows) {
+			flow.cancel();
+		}
+		mainThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = firstNotStarted; i < offerJwts.size(); i++) {
+					onItemDone(i, null, ErrorUtil.getClientException(ClientException.ORDER_CANCELED, null));
+				}
+			}
+		});
+	}
+
+	@Override
+	public boolean isCancelled() {
+		synchronized (lock) {
+			return cancelled;
+		}
+	}
+}
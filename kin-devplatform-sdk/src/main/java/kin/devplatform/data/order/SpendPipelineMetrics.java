@@ -0,0 +1,43 @@
+package kin.devplatform.data.order;
+
+import kin.devplatform.data.model.SpendPipelineStats;
+
+/**
+ * Stage timings of the external spend flows since the process started. The live balance is fetched while the order is
+ * created, the overlapped time is the part of the balance fetch the flow did not wait for.
+ */
+public class SpendPipelineMetrics {
+
+	private static final SpendPipelineMetrics instance = new SpendPipelineMetrics();
+
+	private long count;
+	private long createOrderMillis;
+	private long balanceFetchMillis;
+	private long balanceWaitMillis;
+	private long sendTransactionMillis;
+	private long totalMillis;
+
+	public static SpendPipelineMetrics getInstance() {
+		return instance;
+	}
+
+	synchronized void record(long createOrderMillis, long balanceFetchMillis, long balanceWaitMillis,
+		long sendTransactionMillis, long totalMillis) {
+		count++;
+		this.createOrderMillis += createOrderMillis;
+		this.balanceFetchMillis += balanceFetchMillis;
+		this.balanceWaitMillis += balanceWaitMillis;
+		this.sendTransactionMillis += sendTransactionMillis;
+		this.totalMillis += totalMillis;
+	}
+
+	public synchronized SpendPipelineStats snapshot() {
+		return new SpendPipelineStats(count, average(createOrderMillis), average(balanceFetchMillis),
+			average(balanceWaitMillis), average(balanceFetchMillis - balanceWaitMillis),
+			average(sendTransactionMillis), average(totalMillis));
+	}
+
+	private long average(long sum) {
+		return count > 0 ? sum / count : 0;
+	}
+}
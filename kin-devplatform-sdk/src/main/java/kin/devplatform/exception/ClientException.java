@@ -7,7 +7,7 @@ import java.lang.annotation.RetentionPolicy;
 public class ClientException extends KinEcosystemException {
 
 	@IntDef({SDK_NOT_STARTED, BAD_CONFIGURATION, INTERNAL_INCONSISTENCY,
-		ORDER_NOT_FOUND, INCORRECT_APP_ID, BAD_JWT})
+		ORDER_NOT_FOUND, INCORRECT_APP_ID, BAD_JWT, ORDER_CANCELED, TOO_MANY_OPERATIONS})
 	@Retention(RetentionPolicy.SOURCE)
 	public @interface ClientErrorCodes {
 
@@ -19,6 +19,8 @@ public class ClientException extends KinEcosystemException {
 	public static final int ORDER_NOT_FOUND = 4004;
 	public static final int INCORRECT_APP_ID = 4006; // user appId is not equals to the appId we got from server.
 	public static final int BAD_JWT = 4007;
+	public static final int ORDER_CANCELED = 4008;
+	public static final int TOO_MANY_OPERATIONS = 4009; // the worker pool queue is full, or the same order is still being created.
 
 	public ClientException(@ClientErrorCodes int code, String message, Throwable cause) {
 		super(code, message, cause);
@@ -6,4 +6,6 @@ import kin.devplatform.history.view.IOrderHistoryView;
 public interface IOrderHistoryPresenter extends IBasePresenter<IOrderHistoryView> {
 
 	void onItemCLicked(int position);
+
+	void onEndOfListReached();
 }
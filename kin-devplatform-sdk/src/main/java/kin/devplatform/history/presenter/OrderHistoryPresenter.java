@@ -4,6 +4,7 @@ package kin.devplatform.history.presenter;
 import android.support.annotation.NonNull;
 import com.google.gson.Gson;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import kin.devplatform.KinCallback;
 import kin.devplatform.base.BasePresenter;
@@ -26,15 +27,16 @@ import kin.devplatform.util.ErrorUtil;
 
 public class OrderHistoryPresenter extends BasePresenter<IOrderHistoryView> implements IOrderHistoryPresenter {
 
-	private static final int NOT_FOUND = -1;
 	private final OrderDataSource orderRepository;
 	private final EventLogger eventLogger;
 
-	private List<Order> orderHistoryList = new ArrayList<>();
+	private final OrderIndex orderIndex = new OrderIndex();
 	private Observer<Order> completedOrderObserver;
 	private final Gson gson;
 
 	private boolean isFirstSpendOrder;
+	private boolean isLoadingOlderOrders;
+	private boolean hasOlderOrders = true;
 
 	public OrderHistoryPresenter(@NonNull IOrderHistoryView view,
 		@NonNull final OrderDataSource orderRepository,
@@ -78,32 +80,17 @@ public class OrderHistoryPresenter extends BasePresenter<IOrderHistoryView> impl
 
 	private void syncNewOrders(OrderList newOrdersListObj) {
 		List<Order> newList = removePendingOrders(newOrdersListObj);
-		if (orderHistoryList.size() > 0) {
-			//the oldest order is the last one, so we'll go from the last and add the top
-			//we will end with newest order at the top.
-			for (int i = newList.size() - 1; i >= 0; i--) {
-				Order order = newList.get(i);
-				int index = orderHistoryList.indexOf(order);
-				if (index == NOT_FOUND) {
-					//add at top (ui orientation)
-					orderHistoryList.add(0, order);
-					notifyItemInserted();
-				} else {
-					//Update
-					orderHistoryList.set(index, order);
-					notifyItemUpdated(index);
-				}
-			}
-
+		if (orderIndex.size() > 0) {
+			notifyItemsChanged(orderIndex.mergeNewer(newList));
 		} else {
 			setOrderHistoryList(newList);
 		}
 	}
 
 	private void setOrderHistoryList(List<Order> orders) {
-		orderHistoryList = orders;
+		orderIndex.setOrders(orders);
 		if (view != null) {
-			view.updateOrderHistoryList(orderHistoryList);
+			view.updateOrderHistoryList(orderIndex.getOrders());
 		}
 	}
 
@@ -136,31 +123,42 @@ public class OrderHistoryPresenter extends BasePresenter<IOrderHistoryView> impl
 	}
 
 	private void addOrderOrUpdate(Order order) {
-		int index = orderHistoryList.indexOf(order);
-		if (index == NOT_FOUND) {
-			orderHistoryList.add(0, order);
-			notifyItemInserted();
-		} else {
-			orderHistoryList.set(index, order);
-			notifyItemUpdated(index);
-		}
+		notifyItemsChanged(orderIndex.mergeNewer(Collections.singletonList(order)));
 	}
 
-	private void notifyItemInserted() {
-		if (view != null) {
-			view.onItemInserted();
+	private void notifyItemsChanged(OrderIndex.ChangeSet changeSet) {
+		if (view != null && !changeSet.isEmpty()) {
+			view.onItemsChanged(changeSet);
 		}
 	}
 
-	private void notifyItemUpdated(int index) {
-		if (view != null) {
-			view.onItemUpdated(index);
+	@Override
+	public void onEndOfListReached() {
+		if (isLoadingOlderOrders || !hasOlderOrders) {
+			return;
 		}
+		isLoadingOlderOrders = true;
+		orderRepository.getOlderOrderHistory(new KinCallback<OrderList>() {
+			@Override
+			public void onResponse(OrderList olderOrders) {
+				isLoadingOlderOrders = false;
+				hasOlderOrders = olderOrders.getOrders() != null && !olderOrders.getOrders().isEmpty();
+				notifyItemsChanged(orderIndex.appendOlder(removePendingOrders(olderOrders)));
+			}
+
+			@Override
+			public void onFailure(KinEcosystemException exception) {
+				isLoadingOlderOrders = false;
+				eventLogger.send(GeneralEcosystemSdkError
+					.create(ErrorUtil.getPrintableStackTrace(exception), String.valueOf(exception.getCode()),
+						"OrderHistoryPresenter.onEndOfListReached onFailure."));
+			}
+		});
 	}
 
 	@Override
 	public void onItemCLicked(int position) {
-		Order order = orderHistoryList.get(position);
+		Order order = orderIndex.get(position);
 		if (order != null) {
 			eventLogger.send(OrderHistoryItemTapped.create(order.getOfferId(), order.getOrderId()));
 			showCouponDialog(RedeemTrigger.USER_INIT, order);
@@ -0,0 +1,144 @@
+package kin.devplatform.history.presenter;
+
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import kin.devplatform.network.model.Order;
+
+/**
+ * Orders of the history list, newest first, indexed by order id. A whole page is merged in a single pass and the
+ * result is reported as one {@link ChangeSet}. The list is changed in place so it can be shared with the adapter.
+ */
+public class OrderIndex {
+
+	private final List<Order> orders = new ArrayList<>();
+	private final Map<String, Integer> positions = new HashMap<>();
+
+	@NonNull
+	List<Order> getOrders() {
+		return orders;
+	}
+
+	int size() {
+		return orders.size();
+	}
+
+	Order get(int position) {
+		return orders.get(position);
+	}
+
+	/**
+	 * Replace the whole list.
+	 */
+	void setOrders(@NonNull List<Order> newOrders) {
+		orders.clear();
+		positions.clear();
+		for (Order order : newOrders) {
+			if (!positions.containsKey(order.getOrderId())) {
+				positions.put(order.getOrderId(), orders.size());
+				orders.add(order);
+			}
+		}
+	}
+
+	/**
+	 * Merge newer orders, newest first. Known orders are updated in place, new ones are inserted at the top in the
+	 * page order.
+	 */
+	@NonNull
+	ChangeSet mergeNewer(@NonNull List<Order> page) {
+		final Map<String, Order> inserted = new LinkedHashMap<>();
+		final List<String> updatedIds = new ArrayList<>();
+		for (Order order : page) {
+			final String orderId = order.getOrderId();
+			final Integer position = positions.get(orderId);
+			if (position != null) {
+				// Unchanged orders of a synced history are the same instances.
+				if (orders.get(position) != order) {
+					orders.set(position, order);
+					updatedIds.add(orderId);
+				}
+			} else if (!inserted.containsKey(orderId)) {
+				inserted.put(orderId, order);
+			}
+		}
+		if (!inserted.isEmpty()) {
+			orders.addAll(0, inserted.values());
+			reindex();
+		}
+		final int[] updatedPositions = new int[updatedIds.size()];
+		for (int i = 0; i < updatedPositions.length; i++) {
+			updatedPositions[i] = positions.get(updatedIds.get(i));
+		}
+		Arrays.sort(updatedPositions);
+		return new ChangeSet(inserted.size(), updatedPositions, 0, 0);
+	}
+
+	/**
+	 * Append older orders at the bottom, orders already in the list are skipped.
+	 */
+	@NonNull
+	ChangeSet appendOlder(@NonNull List<Order> page) {
+		final int positionStart = orders.size();
+		for (Order order : page) {
+			if (!positions.containsKey(order.getOrderId())) {
+				positions.put(order.getOrderId(), orders.size());
+				orders.add(order);
+			}
+		}
+		return new ChangeSet(0, new int[0], positionStart, orders.size() - positionStart);
+	}
+
+	private void reindex() {
+		positions.clear();
+		for (int i = 0; i < orders.size(); i++) {
+			positions.put(orders.get(i).getOrderId(), i);
+		}
+	}
+
+	/**
+	 * The changes of a single merge, in the order they should be notified: insertions at the top, then updates
+	 * (positions after the insertions), then insertions at the bottom.
+	 */
+	public static class ChangeSet {
+
+		private final int insertedAtTop;
+		private final int[] updatedPositions;
+		private final int appendedStart;
+		private final int appendedCount;
+
+		ChangeSet(int insertedAtTop, int[] updatedPositions, int appendedStart, int appendedCount) {
+			this.insertedAtTop = insertedAtTop;
+			this.updatedPositions = updatedPositions;
+			this.appendedStart = appendedStart;
+			this.appendedCount = appendedCount;
+		}
+
+		public int getInsertedAtTop() {
+			return insertedAtTop;
+		}
+
+		/**
+		 * Sorted ascending.
+		 */
+		public int[] getUpdatedPositions() {
+			return updatedPositions;
+		}
+
+		public int getAppendedStart() {
+			return appendedStart;
+		}
+
+		public int getAppendedCount() {
+			return appendedCount;
+		}
+
+		public boolean isEmpty() {
+			return insertedAtTop == 0 && updatedPositions.length == 0 && appendedCount == 0;
+		}
+	}
+}
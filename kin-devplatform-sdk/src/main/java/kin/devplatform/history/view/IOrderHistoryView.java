@@ -5,15 +5,14 @@ import java.util.List;
 import kin.devplatform.base.IBaseView;
 import kin.devplatform.history.presenter.ICouponDialogPresenter;
 import kin.devplatform.history.presenter.OrderHistoryPresenter;
+import kin.devplatform.history.presenter.OrderIndex;
 import kin.devplatform.network.model.Order;
 
 public interface IOrderHistoryView extends IBaseView<OrderHistoryPresenter> {
 
 	void updateOrderHistoryList(List<Order> orders);
 
-	void onItemInserted();
-
-	void onItemUpdated(int index);
+	void onItemsChanged(@NonNull OrderIndex.ChangeSet changeSet);
 
 	void showCouponDialog(@NonNull final ICouponDialogPresenter presenter);
 }
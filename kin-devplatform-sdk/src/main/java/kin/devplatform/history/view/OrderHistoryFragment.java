@@ -17,6 +17,7 @@ import kin.devplatform.base.BaseRecyclerAdapter.OnItemClickListener;
 import kin.devplatform.history.presenter.ICouponDialogPresenter;
 import kin.devplatform.history.presenter.IOrderHistoryPresenter;
 import kin.devplatform.history.presenter.OrderHistoryPresenter;
+import kin.devplatform.history.presenter.OrderIndex;
 import kin.devplatform.network.model.Order;
 
 public class OrderHistoryFragment extends Fragment implements IOrderHistoryView {
@@ -54,6 +55,14 @@ public class OrderHistoryFragment extends Fragment implements IOrderHistoryView
 				orderHistoryPresenter.onItemCLicked(position);
 			}
 		});
+		orderRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+			@Override
+			public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+				if (dy > 0 && !recyclerView.canScrollVertically(1)) {
+					orderHistoryPresenter.onEndOfListReached();
+				}
+			}
+		});
 	}
 
 	@Override
@@ -68,13 +77,24 @@ public class OrderHistoryFragment extends Fragment implements IOrderHistoryView
 	}
 
 	@Override
-	public void onItemInserted() {
-		orderHistoryRecyclerAdapter.notifyItemInserted(0);
-	}
-
-	@Override
-	public void onItemUpdated(int index) {
-		orderHistoryRecyclerAdapter.notifyItemChanged(index);
+	public void onItemsChanged(@NonNull OrderIndex.ChangeSet changeSet) {
+		if (changeSet.getInsertedAtTop() > 0) {
+			orderHistoryRecyclerAdapter.notifyItemRangeInserted(0, changeSet.getInsertedAtTop());
+		}
+		// Consecutive updated positions are notified as one range.
+		final int[] updatedPositions = changeSet.getUpdatedPositions();
+		int rangeStart = 0;
+		for (int i = 1; i <= updatedPositions.length; i++) {
+			if (i == updatedPositions.length || updatedPositions[i] != updatedPositions[i - 1] + 1) {
+				orderHistoryRecyclerAdapter
+					.notifyItemRangeChanged(updatedPositions[rangeStart], i - rangeStart);
+				rangeStart = i;
+			}
+		}
+		if (changeSet.getAppendedCount() > 0) {
+			orderHistoryRecyclerAdapter
+				.notifyItemRangeInserted(changeSet.getAppendedStart(), changeSet.getAppendedCount());
+		}
 	}
 
 	@Override
@@ -14,21 +14,17 @@
 package kin.devplatform.network.api;
 
 import static kin.devplatform.core.network.ApiClient.GET;
+import static kin.devplatform.core.network.ApiClient.HEADER_IDEMPOTENT;
 import static kin.devplatform.core.network.ApiClient.PATCH;
 import static kin.devplatform.core.network.ApiClient.POST;
 
-import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.ApiResponse;
-import kin.devplatform.core.network.Pair;
+import kin.devplatform.core.network.RequestTemplate;
 import kin.devplatform.network.model.AuthToken;
 import kin.devplatform.network.model.RestorableWalletRequest;
 import kin.devplatform.network.model.SignInData;
@@ -38,6 +34,28 @@ import okhttp3.Call;
 
 public class AuthApi {
 
+	// The idempotent POSTs are safe to retry, the server dedupes retransmissions by X-REQUEST-ID.
+	private static final RequestTemplate ACTIVATE_ACCOUNT = new RequestTemplate.Builder(POST)
+		.route("/users/me/activate")
+		.json()
+		.header(HEADER_IDEMPOTENT, Boolean.TRUE.toString())
+		.returnType(AuthToken.class)
+		.build();
+	private static final RequestTemplate SIGN_IN = new RequestTemplate.Builder(POST)
+		.route("/users")
+		.json()
+		.header(HEADER_IDEMPOTENT, Boolean.TRUE.toString())
+		.returnType(AuthToken.class)
+		.build();
+	private static final RequestTemplate UPDATE_USER = new RequestTemplate.Builder(PATCH)
+		.route("/users")
+		.json()
+		.build();
+	private static final RequestTemplate IS_RESTORABLE_WALLET = new RequestTemplate.Builder(GET)
+		.route("/users/me/restorable/{public_address}")
+		.returnType(RestorableWalletRequest.class)
+		.build();
+
 	private ApiClient apiClient;
 
 	public AuthApi() {
@@ -65,39 +83,10 @@ public class AuthApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call activateAccountCall(String X_REQUEST_ID) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
 		String localVarPath = "/users/me/activate";
 
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(ACTIVATE_ACCOUNT, localVarPath, null, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -135,8 +124,7 @@ public class AuthApi {
 	 */
 	public ApiResponse<AuthToken> activateAccountWithHttpInfo(String X_REQUEST_ID) throws ApiException {
 		Call call = activateAccountValidateBeforeCall(X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<AuthToken>() {
-		}.getType();
+		Type localVarReturnType = ACTIVATE_ACCOUNT.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -150,8 +138,7 @@ public class AuthApi {
 	 */
 	public Call activateAccountAsync(String X_REQUEST_ID, final ApiCallback<AuthToken> callback) throws ApiException {
 		Call call = activateAccountValidateBeforeCall(X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<AuthToken>() {
-		}.getType();
+		Type localVarReturnType = ACTIVATE_ACCOUNT.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -165,39 +152,10 @@ public class AuthApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call signInCall(SignInData signindata, String X_REQUEST_ID) throws ApiException {
-		Object localVarPostBody = signindata;
-
 		// create path and map variables
 		String localVarPath = "/users";
 
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-			"application/json"
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(SIGN_IN, localVarPath, null, signindata, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -242,8 +200,7 @@ public class AuthApi {
 	 */
 	public ApiResponse<AuthToken> signInWithHttpInfo(SignInData signindata, String X_REQUEST_ID) throws ApiException {
 		Call call = signInValidateBeforeCall(signindata, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<AuthToken>() {
-		}.getType();
+		Type localVarReturnType = SIGN_IN.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -260,8 +217,7 @@ public class AuthApi {
 		throws ApiException {
 
 		Call call = signInValidateBeforeCall(signindata, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<AuthToken>() {
-		}.getType();
+		Type localVarReturnType = SIGN_IN.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -300,44 +256,17 @@ public class AuthApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call updateUserCall(UserProperties userproperties) throws ApiException {
-		Object localVarPostBody = userproperties;
-
 		// create path and map variables
 		String localVarPath = "/users";
 
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-			"application/json"
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, PATCH, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(UPDATE_USER, localVarPath, null, userproperties, null);
 	}
 
 	public void isRestorableWallet(String publicAddress, final ApiCallback<RestorableWalletRequest> apiCallback)
 		throws ApiException {
 		validateRestorableWalletParams(publicAddress);
 		Call call = getRestorableApiCall(publicAddress);
-		Type localVarReturnType = new TypeToken<RestorableWalletRequest>() {
-		}.getType();
+		Type localVarReturnType = IS_RESTORABLE_WALLET.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, apiCallback);
 	}
 
@@ -351,11 +280,7 @@ public class AuthApi {
 
 	private Call getRestorableApiCall(String publicAddress) throws ApiException {
 		String localVarPath = "/users/me/restorable/" + publicAddress;
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-		return apiClient.buildCall(localVarPath, GET, null, null, null,
-			localVarHeaderParams, localVarFormParams, null);
-
+		return apiClient.buildCall(IS_RESTORABLE_WALLET, localVarPath, null, null, null);
 	}
 
 }
@@ -1,21 +1,28 @@
 package kin.devplatform.network.api;
 
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.ApiResponse;
-import kin.devplatform.network.model.Order;
+import kin.devplatform.core.network.RequestTemplate;
 import okhttp3.Call;
 
 import static kin.devplatform.core.network.ApiClient.GET;
+import static kin.devplatform.core.network.ApiClient.HEADER_STALE_WHILE_REVALIDATE;
 
 public class KinVersionApi {
 
+    /**
+     * The blockchain version may be served from the http cache up to this age while being refreshed in the background.
+     */
+    private static final int BLOCKCHAIN_VERSION_MAX_STALE_SECONDS = 10 * 60;
+
+    private static final RequestTemplate GET_BLOCKCHAIN_VERSION = new RequestTemplate.Builder(GET)
+            .route("/config/blockchain/{app_id}")
+            .header(HEADER_STALE_WHILE_REVALIDATE, String.valueOf(BLOCKCHAIN_VERSION_MAX_STALE_SECONDS))
+            .returnType(String.class)
+            .build();
+
     private ApiClient apiClient;
 
     public KinVersionApi() {
@@ -29,9 +36,7 @@ public class KinVersionApi {
     public String getBlockchainVersion(String appId) throws ApiException {
         validateKinVersionApiParams(appId);
         Call call = getKinVersionApiCall(appId);
-        Type localVarReturnType = new TypeToken<String>() {
-        }.getType();
-        ApiResponse<String> response = apiClient.execute(call, localVarReturnType);
+        ApiResponse<String> response = apiClient.execute(call, GET_BLOCKCHAIN_VERSION.getReturnType());
         return response.getData();
     }
 
@@ -44,10 +49,7 @@ public class KinVersionApi {
 
     private Call getKinVersionApiCall(String appId) throws ApiException {
         String localVarPath = "/config/blockchain/" + appId;
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-        return apiClient.buildCall(localVarPath, GET, null, null, null,
-                localVarHeaderParams, localVarFormParams, null);
+        return apiClient.buildCall(GET_BLOCKCHAIN_VERSION, localVarPath, null, null, null);
 
     }
 
@@ -1,25 +1,36 @@
 package kin.devplatform.network.api;
 
 import static kin.devplatform.core.network.ApiClient.GET;
+import static kin.devplatform.core.network.ApiClient.HEADER_STALE_WHILE_REVALIDATE;
 
-import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.ApiResponse;
 import kin.devplatform.core.network.Pair;
+import kin.devplatform.core.network.RequestTemplate;
 import kin.devplatform.network.model.OfferList;
 import okhttp3.Call;
 
 
 public class OffersApi {
 
+	/**
+	 * Offers may be served from the http cache up to this age while being refreshed in the background.
+	 */
+	private static final int OFFERS_MAX_STALE_SECONDS = 60;
+
+	private static final RequestTemplate GET_OFFERS = new RequestTemplate.Builder(GET)
+		.route("/offers")
+		.json()
+		.header(HEADER_STALE_WHILE_REVALIDATE, String.valueOf(OFFERS_MAX_STALE_SECONDS))
+		.returnType(OfferList.class)
+		.build();
+
 	private ApiClient apiClient;
 
 	public OffersApi() {
@@ -50,13 +61,10 @@ public class OffersApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call getOffersCall(String X_REQUEST_ID, Integer limit, String after, String before) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
 		String localVarPath = "/offers";
 
 		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
 		if (limit != null) {
 			localVarQueryParams.addAll(apiClient.parameterToPair("limit", limit));
 		}
@@ -67,31 +75,7 @@ public class OffersApi {
 			localVarQueryParams.addAll(apiClient.parameterToPair("before", before));
 		}
 
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, GET, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(GET_OFFERS, localVarPath, localVarQueryParams, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -139,8 +123,7 @@ public class OffersApi {
 	public ApiResponse<OfferList> getOffersWithHttpInfo(String X_REQUEST_ID, Integer limit, String after, String before)
 		throws ApiException {
 		Call call = getOffersValidateBeforeCall(X_REQUEST_ID, limit, after, before);
-		Type localVarReturnType = new TypeToken<OfferList>() {
-		}.getType();
+		Type localVarReturnType = GET_OFFERS.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -161,8 +144,7 @@ public class OffersApi {
 
 		Call call = getOffersValidateBeforeCall(X_REQUEST_ID, limit, after, before
 		);
-		Type localVarReturnType = new TypeToken<OfferList>() {
-		}.getType();
+		Type localVarReturnType = GET_OFFERS.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
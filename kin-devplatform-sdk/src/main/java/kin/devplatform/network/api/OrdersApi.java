@@ -13,20 +13,19 @@ package kin.devplatform.network.api;/*
 
 import static kin.devplatform.core.network.ApiClient.DELETE;
 import static kin.devplatform.core.network.ApiClient.GET;
+import static kin.devplatform.core.network.ApiClient.HEADER_IDEMPOTENT;
 import static kin.devplatform.core.network.ApiClient.POST;
 
-import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiCallback;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.ApiResponse;
 import kin.devplatform.core.network.Pair;
+import kin.devplatform.core.network.RequestTemplate;
 import kin.devplatform.network.model.EarnSubmission;
 import kin.devplatform.network.model.ExternalOrderRequest;
 import kin.devplatform.network.model.OpenOrder;
@@ -37,6 +36,40 @@ import okhttp3.Call;
 
 public class OrdersApi {
 
+	private static final RequestTemplate CANCEL_ORDER = new RequestTemplate.Builder(DELETE)
+		.route("/orders/{order_id}")
+		.json()
+		.build();
+	// The idempotent POSTs are safe to retry, the server dedupes retransmissions by X-REQUEST-ID.
+	private static final RequestTemplate CREATE_EXTERNAL_ORDER = new RequestTemplate.Builder(POST)
+		.route("/offers/external/orders")
+		.json()
+		.header(HEADER_IDEMPOTENT, Boolean.TRUE.toString())
+		.returnType(OpenOrder.class)
+		.build();
+	private static final RequestTemplate CREATE_ORDER = new RequestTemplate.Builder(POST)
+		.route("/offers/{offer_id}/orders")
+		.json()
+		.header(HEADER_IDEMPOTENT, Boolean.TRUE.toString())
+		.returnType(OpenOrder.class)
+		.build();
+	private static final RequestTemplate GET_HISTORY = new RequestTemplate.Builder(GET)
+		.route("/orders")
+		.json()
+		.returnType(OrderList.class)
+		.build();
+	private static final RequestTemplate GET_ORDER = new RequestTemplate.Builder(GET)
+		.route("/orders/{order_id}")
+		.json()
+		.returnType(Order.class)
+		.build();
+	private static final RequestTemplate SUBMIT_ORDER = new RequestTemplate.Builder(POST)
+		.route("/orders/{order_id}")
+		.json()
+		.header(HEADER_IDEMPOTENT, Boolean.TRUE.toString())
+		.returnType(Order.class)
+		.build();
+
 	private ApiClient apiClient;
 
 	public OrdersApi() {
@@ -65,40 +98,10 @@ public class OrdersApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call cancelOrderCall(String orderId, String X_REQUEST_ID) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
-		String localVarPath = "/orders/{order_id}"
-			.replaceAll("\\{" + "order_id" + "\\}", apiClient.escapeString(orderId.toString()));
-
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
+		String localVarPath = "/orders/" + apiClient.escapeString(orderId);
 
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, DELETE, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(CANCEL_ORDER, localVarPath, null, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -172,39 +175,10 @@ public class OrdersApi {
 	 */
 	public Call createExternalOrderCall(ExternalOrderRequest externalorderrequest, String X_REQUEST_ID)
 		throws ApiException {
-		Object localVarPostBody = externalorderrequest;
-
 		// create path and map variables
 		String localVarPath = "/offers/external/orders";
 
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-			"application/json"
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(CREATE_EXTERNAL_ORDER, localVarPath, null, externalorderrequest, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -252,8 +226,7 @@ public class OrdersApi {
 	public ApiResponse<OpenOrder> createExternalOrderWithHttpInfo(ExternalOrderRequest externalorderrequest,
 		String X_REQUEST_ID) throws ApiException {
 		Call call = createExternalOrderValidateBeforeCall(externalorderrequest, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<OpenOrder>() {
-		}.getType();
+		Type localVarReturnType = CREATE_EXTERNAL_ORDER.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -269,8 +242,7 @@ public class OrdersApi {
 	public Call createExternalOrderAsync(ExternalOrderRequest externalorderrequest, String X_REQUEST_ID,
 		final ApiCallback<OpenOrder> callback) throws ApiException {
 		Call call = createExternalOrderValidateBeforeCall(externalorderrequest, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<OpenOrder>() {
-		}.getType();
+		Type localVarReturnType = CREATE_EXTERNAL_ORDER.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -284,40 +256,10 @@ public class OrdersApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call createOrderCall(String offerId, String X_REQUEST_ID) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
-		String localVarPath = "/offers/{offer_id}/orders"
-			.replaceAll("\\{" + "offer_id" + "\\}", apiClient.escapeString(offerId.toString()));
-
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
+		String localVarPath = "/offers/" + apiClient.escapeString(offerId) + "/orders";
 
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(CREATE_ORDER, localVarPath, null, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -360,8 +302,7 @@ public class OrdersApi {
 	 */
 	public ApiResponse<OpenOrder> createOrderWithHttpInfo(String offerId, String X_REQUEST_ID) throws ApiException {
 		Call call = createOrderValidateBeforeCall(offerId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<OpenOrder>() {
-		}.getType();
+		Type localVarReturnType = CREATE_ORDER.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -378,8 +319,7 @@ public class OrdersApi {
 		throws ApiException {
 
 		Call call = createOrderValidateBeforeCall(offerId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<OpenOrder>() {
-		}.getType();
+		Type localVarReturnType = CREATE_ORDER.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -398,13 +338,10 @@ public class OrdersApi {
 	 */
 	public Call getHistoryCall(String X_REQUEST_ID, String origin, String offerId, Integer limit, String before,
 		String after) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
 		String localVarPath = "/orders";
 
 		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
 		if (origin != null) {
 			localVarQueryParams.addAll(apiClient.parameterToPair("origin", origin));
 		}
@@ -421,31 +358,7 @@ public class OrdersApi {
 			localVarQueryParams.addAll(apiClient.parameterToPair("after", after));
 		}
 
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, GET, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(GET_HISTORY, localVarPath, localVarQueryParams, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -497,8 +410,7 @@ public class OrdersApi {
 		Integer limit, String before,
 		String after) throws ApiException {
 		Call call = getHistoryValidateBeforeCall(X_REQUEST_ID, origin, offerId, limit, before, after);
-		Type localVarReturnType = new TypeToken<OrderList>() {
-		}.getType();
+		Type localVarReturnType = GET_HISTORY.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -520,8 +432,7 @@ public class OrdersApi {
 		final ApiCallback<OrderList> callback) throws ApiException {
 
 		Call call = getHistoryValidateBeforeCall(X_REQUEST_ID, origin, offerId, limit, before, after);
-		Type localVarReturnType = new TypeToken<OrderList>() {
-		}.getType();
+		Type localVarReturnType = GET_HISTORY.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -535,40 +446,10 @@ public class OrdersApi {
 	 * @throws ApiException If fail to serialize the request body object
 	 */
 	public Call getOrderCall(String orderId, String X_REQUEST_ID) throws ApiException {
-		Object localVarPostBody = null;
-
 		// create path and map variables
-		String localVarPath = "/orders/{order_id}"
-			.replaceAll("\\{" + "order_id" + "\\}", apiClient.escapeString(orderId.toString()));
-
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
+		String localVarPath = "/orders/" + apiClient.escapeString(orderId);
 
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
-
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, GET, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(GET_ORDER, localVarPath, null, null, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -611,8 +492,7 @@ public class OrdersApi {
 	 */
 	public ApiResponse<Order> getOrderWithHttpInfo(String orderId, String X_REQUEST_ID) throws ApiException {
 		Call call = getOrderValidateBeforeCall(orderId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<Order>() {
-		}.getType();
+		Type localVarReturnType = GET_ORDER.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -629,8 +509,7 @@ public class OrdersApi {
 		throws ApiException {
 
 		Call call = getOrderValidateBeforeCall(orderId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<Order>() {
-		}.getType();
+		Type localVarReturnType = GET_ORDER.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
@@ -646,40 +525,10 @@ public class OrdersApi {
 	 */
 	public Call submitOrderCall(EarnSubmission earnsubmission, String orderId, String X_REQUEST_ID)
 		throws ApiException {
-		Object localVarPostBody = earnsubmission;
-
 		// create path and map variables
-		String localVarPath = "/orders/{order_id}"
-			.replaceAll("\\{" + "order_id" + "\\}", apiClient.escapeString(orderId.toString()));
-
-		List<Pair> localVarQueryParams = new ArrayList<Pair>();
-		List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-		Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-		if (X_REQUEST_ID != null) {
-			localVarHeaderParams.put("X-REQUEST-ID", apiClient.parameterToString(X_REQUEST_ID));
-		}
-
-		Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-		final String[] localVarAccepts = {
-			"application/json", "application/json", "application/json"
-		};
-		final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-		if (localVarAccept != null) {
-			localVarHeaderParams.put("Accept", localVarAccept);
-		}
-
-		final String[] localVarContentTypes = {
-			"application/json"
-		};
-		final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-		localVarHeaderParams.put("Content-Type", localVarContentType);
+		String localVarPath = "/orders/" + apiClient.escapeString(orderId);
 
-		String[] localVarAuthNames = new String[]{};
-		return apiClient
-			.buildCall(localVarPath, POST, localVarQueryParams, localVarCollectionQueryParams, localVarPostBody,
-				localVarHeaderParams, localVarFormParams, localVarAuthNames);
+		return apiClient.buildCall(SUBMIT_ORDER, localVarPath, null, earnsubmission, X_REQUEST_ID);
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -733,8 +582,7 @@ public class OrdersApi {
 	public ApiResponse<Order> submitOrderWithHttpInfo(EarnSubmission earnsubmission, String orderId,
 		String X_REQUEST_ID) throws ApiException {
 		Call call = submitOrderValidateBeforeCall(earnsubmission, orderId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<Order>() {
-		}.getType();
+		Type localVarReturnType = SUBMIT_ORDER.getReturnType();
 		return apiClient.execute(call, localVarReturnType);
 	}
 
@@ -751,8 +599,7 @@ public class OrdersApi {
 	public Call submitOrderAsync(EarnSubmission earnsubmission, String orderId, String X_REQUEST_ID,
 		final ApiCallback<Order> callback) throws ApiException {
 		Call call = submitOrderValidateBeforeCall(earnsubmission, orderId, X_REQUEST_ID);
-		Type localVarReturnType = new TypeToken<Order>() {
-		}.getType();
+		Type localVarReturnType = SUBMIT_ORDER.getReturnType();
 		apiClient.executeAsync(call, localVarReturnType, callback);
 		return call;
 	}
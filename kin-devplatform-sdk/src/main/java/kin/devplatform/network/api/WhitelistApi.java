@@ -2,20 +2,23 @@ package kin.devplatform.network.api;
 
 import static kin.devplatform.core.network.ApiClient.POST;
 
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
 import kin.devplatform.ConfigurationImpl;
 import kin.devplatform.core.network.ApiClient;
 import kin.devplatform.core.network.ApiException;
 import kin.devplatform.core.network.ApiResponse;
+import kin.devplatform.core.network.RequestTemplate;
 import kin.devplatform.network.model.WhitelistTransactionRequest;
 import kin.sdk.migration.common.interfaces.IWhitelistableTransaction;
 import okhttp3.Call;
 
 public class WhitelistApi {
 
+    private static final RequestTemplate WHITELIST_TRANSACTION = new RequestTemplate.Builder(POST)
+            .route("/orders/{order_id}/whitelist")
+            .json()
+            .returnType(String.class)
+            .build();
+
     private ApiClient apiClient;
 
     public WhitelistApi() {
@@ -29,8 +32,7 @@ public class WhitelistApi {
     public String whitelistTransaction(String orderId, IWhitelistableTransaction whitelistableTransaction) throws ApiException {
         validateWhitelistTransactionParams(orderId, whitelistableTransaction);
         Call call = getWhitelistTransactionCall(orderId, whitelistableTransaction);
-        Type localVarReturnType = new TypeToken<String>() { }.getType();
-        ApiResponse<String> response = apiClient.execute(call, localVarReturnType);
+        ApiResponse<String> response = apiClient.execute(call, WHITELIST_TRANSACTION.getReturnType());
         return response.getData();
     }
 
@@ -47,12 +49,9 @@ public class WhitelistApi {
     }
 
     private Call getWhitelistTransactionCall(String orderId, IWhitelistableTransaction whitelistableTransaction) throws ApiException {
-        String localVarPath = "/orders/" + orderId + "/whitelist";
-        WhitelistTransactionRequest body;
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-        body = new WhitelistTransactionRequest(whitelistableTransaction.getTransactionPayload(), whitelistableTransaction.getNetworkPassphrase());
-        return apiClient.buildCall(localVarPath, POST, null, null, body,
-                localVarHeaderParams, localVarFormParams, null);
+        String localVarPath = "/orders/" + apiClient.escapeString(orderId) + "/whitelist";
+        WhitelistTransactionRequest body = new WhitelistTransactionRequest(whitelistableTransaction.getTransactionPayload(),
+                whitelistableTransaction.getNetworkPassphrase());
+        return apiClient.buildCall(WHITELIST_TRANSACTION, localVarPath, null, body, null);
     }
-}
\ No newline at end of file
+}
@@ -11,7 +11,11 @@ package kin.devplatform.network.model;/*
  */
 
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 
 /**
  * token issued by marketplace server
@@ -166,8 +170,51 @@ public class AuthToken {
 		return o.toString().replace("\n", "\n    ");
 	}
 
+	public static class Adapter extends TypeAdapter<AuthToken> {
 
-}
-
-
+		@Override
+		public void write(JsonWriter out, AuthToken value) throws IOException {
+			out.beginObject();
+			out.name("token").value(value.token);
+			out.name("activated").value(value.activated);
+			out.name("expiration_date").value(value.expirationDate);
+			out.name("app_id").value(value.appID);
+			out.name("user_id").value(value.userID);
+			out.name("ecosystem_user_id").value(value.ecosystemUserID);
+			out.endObject();
+		}
 
+		@Override
+		public AuthToken read(JsonReader in) throws IOException {
+			AuthToken value = new AuthToken();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "token":
+						value.token = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "activated":
+						value.activated = ModelTypeAdapterFactory.nextBoolean(in);
+						break;
+					case "expiration_date":
+						value.expirationDate = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "app_id":
+						value.appID = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "user_id":
+						value.userID = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "ecosystem_user_id":
+						value.ecosystemUserID = ModelTypeAdapterFactory.nextString(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
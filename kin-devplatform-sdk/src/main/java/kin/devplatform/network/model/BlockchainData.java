@@ -1,6 +1,10 @@
 package kin.devplatform.network.model;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -97,7 +101,44 @@ public class BlockchainData {
 	public int hashCode() {
 		return Objects.hash(transactionId, senderAddress, recipientAddress);
 	}
-}
 
+	public static class Adapter extends TypeAdapter<BlockchainData> {
 
+		@Override
+		public void write(JsonWriter out, BlockchainData value) throws IOException {
+			out.beginObject();
+			out.name("transaction_id").value(value.transactionId);
+			out.name("sender_address").value(value.senderAddress);
+			out.name("recipient_address").value(value.recipientAddress);
+			out.name("blockchain_version").value(value.blockchainVersion);
+			out.endObject();
+		}
 
+		@Override
+		public BlockchainData read(JsonReader in) throws IOException {
+			BlockchainData value = new BlockchainData();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "transaction_id":
+						value.transactionId = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "sender_address":
+						value.senderAddress = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "recipient_address":
+						value.recipientAddress = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "blockchain_version":
+						value.blockchainVersion = ModelTypeAdapterFactory.nextString(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
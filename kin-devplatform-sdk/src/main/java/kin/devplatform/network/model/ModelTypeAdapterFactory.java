@@ -0,0 +1,69 @@
+package kin.devplatform.network.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import kin.devplatform.core.network.model.Error;
+
+/**
+ * Registers the hand written {@link TypeAdapter}s of the network model, so parsing the server responses doesn't go
+ * through Gson's reflective adapter.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		final Class<? super T> rawType = type.getRawType();
+		if (rawType == Order.class) {
+			return (TypeAdapter<T>) new Order.Adapter(gson.getAdapter(Error.class)).nullSafe();
+		} else if (rawType == OrderList.class) {
+			return (TypeAdapter<T>) new OrderList.Adapter(gson.getAdapter(Order.class), gson.getAdapter(Paging.class))
+				.nullSafe();
+		} else if (rawType == OpenOrder.class) {
+			return (TypeAdapter<T>) new OpenOrder.Adapter(gson.getAdapter(BlockchainData.class)).nullSafe();
+		} else if (rawType == Offer.class) {
+			return (TypeAdapter<T>) new Offer.Adapter(gson.getAdapter(BlockchainData.class)).nullSafe();
+		} else if (rawType == OfferList.class) {
+			return (TypeAdapter<T>) new OfferList.Adapter(gson.getAdapter(Offer.class), gson.getAdapter(Paging.class))
+				.nullSafe();
+		} else if (rawType == AuthToken.class) {
+			return (TypeAdapter<T>) new AuthToken.Adapter().nullSafe();
+		} else if (rawType == BlockchainData.class) {
+			return (TypeAdapter<T>) new BlockchainData.Adapter().nullSafe();
+		} else if (rawType == Paging.class) {
+			return (TypeAdapter<T>) new Paging.Adapter(gson.getAdapter(PagingCursors.class)).nullSafe();
+		} else if (rawType == PagingCursors.class) {
+			return (TypeAdapter<T>) new PagingCursors.Adapter().nullSafe();
+		}
+		return null;
+	}
+
+	static String nextString(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextString();
+	}
+
+	static Integer nextInteger(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextInt();
+	}
+
+	static Boolean nextBoolean(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextBoolean();
+	}
+}
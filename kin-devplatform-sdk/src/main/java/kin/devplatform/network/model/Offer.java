@@ -362,5 +362,74 @@ public class Offer {
 		return o.toString().replace("\n", "\n    ");
 	}
 
+	public static class Adapter extends TypeAdapter<Offer> {
 
+		private final TypeAdapter<BlockchainData> blockchainDataAdapter;
+		private final TypeAdapter<OfferType> offerTypeAdapter = new OfferType.Adapter().nullSafe();
+		private final TypeAdapter<ContentTypeEnum> contentTypeAdapter = new ContentTypeEnum.Adapter().nullSafe();
+
+		Adapter(TypeAdapter<BlockchainData> blockchainDataAdapter) {
+			this.blockchainDataAdapter = blockchainDataAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, Offer value) throws IOException {
+			out.beginObject();
+			out.name("id").value(value.id);
+			out.name("title").value(value.title);
+			out.name("description").value(value.description);
+			out.name("image").value(value.image);
+			out.name("amount").value(value.amount);
+			out.name("offer_type");
+			offerTypeAdapter.write(out, value.offerType);
+			out.name("content_type");
+			contentTypeAdapter.write(out, value.contentType);
+			out.name("content").value(value.content);
+			out.name("blockchain_data");
+			blockchainDataAdapter.write(out, value.blockchainData);
+			out.endObject();
+		}
+
+		@Override
+		public Offer read(JsonReader in) throws IOException {
+			Offer value = new Offer();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "id":
+						value.id = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "title":
+						value.title = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "description":
+						value.description = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "image":
+						value.image = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "amount":
+						value.amount = ModelTypeAdapterFactory.nextInteger(in);
+						break;
+					case "offer_type":
+						value.offerType = offerTypeAdapter.read(in);
+						break;
+					case "content_type":
+						value.contentType = contentTypeAdapter.read(in);
+						break;
+					case "content":
+						value.content = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "blockchain_data":
+						value.blockchainData = blockchainDataAdapter.read(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
 }
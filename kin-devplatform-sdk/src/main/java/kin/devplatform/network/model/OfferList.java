@@ -1,7 +1,12 @@
 package kin.devplatform.network.model;
 
 import android.support.annotation.NonNull;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -102,7 +107,68 @@ public class OfferList {
 	public int hashCode() {
 		return offers.hashCode() + paging.hashCode();
 	}
-}
 
+	public static class Adapter extends TypeAdapter<OfferList> {
+
+		private final TypeAdapter<Offer> offerAdapter;
+		private final TypeAdapter<Paging> pagingAdapter;
+
+		Adapter(TypeAdapter<Offer> offerAdapter, TypeAdapter<Paging> pagingAdapter) {
+			this.offerAdapter = offerAdapter;
+			this.pagingAdapter = pagingAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, OfferList value) throws IOException {
+			out.beginObject();
+			out.name("offers");
+			if (value.offers == null) {
+				out.nullValue();
+			} else {
+				out.beginArray();
+				for (Offer item : value.offers) {
+					offerAdapter.write(out, item);
+				}
+				out.endArray();
+			}
+			out.name("paging");
+			pagingAdapter.write(out, value.paging);
+			out.endObject();
+		}
 
+		@Override
+		public OfferList read(JsonReader in) throws IOException {
+			OfferList value = new OfferList();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "offers":
+						value.offers = readList(in);
+						break;
+					case "paging":
+						value.paging = pagingAdapter.read(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
 
+		private List<Offer> readList(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			List<Offer> list = new ArrayList<>();
+			in.beginArray();
+			while (in.hasNext()) {
+				list.add(offerAdapter.read(in));
+			}
+			in.endArray();
+			return list;
+		}
+	}
+}
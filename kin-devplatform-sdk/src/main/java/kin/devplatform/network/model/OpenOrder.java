@@ -11,7 +11,11 @@ package kin.devplatform.network.model;/*
  */
 
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import kin.devplatform.network.model.Offer.OfferType;
 
 /**
@@ -242,8 +246,68 @@ public class OpenOrder {
 		return o.toString().replace("\n", "\n    ");
 	}
 
+	public static class Adapter extends TypeAdapter<OpenOrder> {
 
-}
+		private final TypeAdapter<BlockchainData> blockchainDataAdapter;
+		private final TypeAdapter<OfferType> offerTypeAdapter = new OfferType.Adapter().nullSafe();
 
+		Adapter(TypeAdapter<BlockchainData> blockchainDataAdapter) {
+			this.blockchainDataAdapter = blockchainDataAdapter;
+		}
 
+		@Override
+		public void write(JsonWriter out, OpenOrder value) throws IOException {
+			out.beginObject();
+			out.name("id").value(value.id);
+			out.name("offer_id").value(value.offerId);
+			out.name("offer_type");
+			offerTypeAdapter.write(out, value.offerType);
+			out.name("title").value(value.title);
+			out.name("description").value(value.description);
+			out.name("amount").value(value.amount);
+			out.name("blockchain_data");
+			blockchainDataAdapter.write(out, value.blockchainData);
+			out.name("expiration_date").value(value.expirationDate);
+			out.endObject();
+		}
 
+		@Override
+		public OpenOrder read(JsonReader in) throws IOException {
+			OpenOrder value = new OpenOrder();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "id":
+						value.id = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "offer_id":
+						value.offerId = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "offer_type":
+						value.offerType = offerTypeAdapter.read(in);
+						break;
+					case "title":
+						value.title = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "description":
+						value.description = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "amount":
+						value.amount = ModelTypeAdapterFactory.nextInteger(in);
+						break;
+					case "blockchain_data":
+						value.blockchainData = blockchainDataAdapter.read(in);
+						break;
+					case "expiration_date":
+						value.expirationDate = ModelTypeAdapterFactory.nextString(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
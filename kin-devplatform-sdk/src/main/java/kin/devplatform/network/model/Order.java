@@ -425,7 +425,101 @@ public class Order {
 		sb.append("}");
 		return sb.toString();
 	}
-}
 
+	public static class Adapter extends TypeAdapter<Order> {
+
+		private final TypeAdapter<Error> errorAdapter;
+		private final TypeAdapter<OrderSpendResult> resultAdapter = new OrderSpendResult.Adapter().nullSafe();
+		private final TypeAdapter<BlockchainData> blockchainDataAdapter = new BlockchainData.Adapter().nullSafe();
+		private final TypeAdapter<Origin> originAdapter = new Origin.Adapter().nullSafe();
+		private final TypeAdapter<Status> statusAdapter = new Status.Adapter().nullSafe();
+		private final TypeAdapter<OfferType> offerTypeAdapter = new OfferType.Adapter().nullSafe();
 
+		Adapter(TypeAdapter<Error> errorAdapter) {
+			this.errorAdapter = errorAdapter;
+		}
 
+		@Override
+		public void write(JsonWriter out, Order value) throws IOException {
+			out.beginObject();
+			out.name("id").value(value.orderId);
+			out.name("offer_id").value(value.offerId);
+			out.name("result");
+			resultAdapter.write(out, value.result);
+			out.name("content").value(value.content);
+			out.name("origin");
+			originAdapter.write(out, value.origin);
+			out.name("status");
+			statusAdapter.write(out, value.status);
+			out.name("completion_date").value(value.completionDate);
+			out.name("blockchain_data");
+			blockchainDataAdapter.write(out, value.blockchainData);
+			out.name("offer_type");
+			offerTypeAdapter.write(out, value.offerType);
+			out.name("title").value(value.title);
+			out.name("description").value(value.description);
+			out.name("call_to_action").value(value.callToAction);
+			out.name("amount").value(value.amount);
+			out.name("error");
+			errorAdapter.write(out, value.error);
+			out.endObject();
+		}
+
+		@Override
+		public Order read(JsonReader in) throws IOException {
+			Order value = new Order();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "id":
+						value.orderId = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "offer_id":
+						value.offerId = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "result":
+						value.result = resultAdapter.read(in);
+						break;
+					case "content":
+						value.content = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "origin":
+						value.origin = originAdapter.read(in);
+						break;
+					case "status":
+						value.status = statusAdapter.read(in);
+						break;
+					case "completion_date":
+						value.completionDate = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "blockchain_data":
+						value.blockchainData = blockchainDataAdapter.read(in);
+						break;
+					case "offer_type":
+						value.offerType = offerTypeAdapter.read(in);
+						break;
+					case "title":
+						value.title = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "description":
+						value.description = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "call_to_action":
+						value.callToAction = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "amount":
+						value.amount = ModelTypeAdapterFactory.nextInteger(in);
+						break;
+					case "error":
+						value.error = errorAdapter.read(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
@@ -1,7 +1,12 @@
 package kin.devplatform.network.model;
 
 import android.support.annotation.NonNull;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -114,7 +119,68 @@ public class OrderList {
 	public int hashCode() {
 		return Objects.hash(orders, paging);
 	}
-}
 
+	public static class Adapter extends TypeAdapter<OrderList> {
+
+		private final TypeAdapter<Order> orderAdapter;
+		private final TypeAdapter<Paging> pagingAdapter;
+
+		Adapter(TypeAdapter<Order> orderAdapter, TypeAdapter<Paging> pagingAdapter) {
+			this.orderAdapter = orderAdapter;
+			this.pagingAdapter = pagingAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, OrderList value) throws IOException {
+			out.beginObject();
+			out.name("orders");
+			if (value.orders == null) {
+				out.nullValue();
+			} else {
+				out.beginArray();
+				for (Order item : value.orders) {
+					orderAdapter.write(out, item);
+				}
+				out.endArray();
+			}
+			out.name("paging");
+			pagingAdapter.write(out, value.paging);
+			out.endObject();
+		}
 
+		@Override
+		public OrderList read(JsonReader in) throws IOException {
+			OrderList value = new OrderList();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "orders":
+						value.orders = readList(in);
+						break;
+					case "paging":
+						value.paging = pagingAdapter.read(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
 
+		private List<Order> readList(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			List<Order> list = new ArrayList<>();
+			in.beginArray();
+			while (in.hasNext()) {
+				list.add(orderAdapter.read(in));
+			}
+			in.endArray();
+			return list;
+		}
+	}
+}
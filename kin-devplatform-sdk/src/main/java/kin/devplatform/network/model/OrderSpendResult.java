@@ -134,8 +134,6 @@ public class OrderSpendResult {
 
 	public static class Adapter extends TypeAdapter<OrderSpendResult> {
 
-		private OrderSpendResult result;
-
 		@Override
 		public void write(JsonWriter out, OrderSpendResult spendResult) throws IOException {
 			out.beginObject();
@@ -151,7 +149,7 @@ public class OrderSpendResult {
 
 		@Override
 		public OrderSpendResult read(JsonReader in) throws IOException {
-
+			OrderSpendResult result = null;
 			in.beginObject();
 			while (in.hasNext()) {
 				switch (in.nextName()) {
@@ -1,6 +1,10 @@
 package kin.devplatform.network.model;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 
 /**
  * object accompanying lists - used to fetch next/previous section
@@ -89,7 +93,47 @@ public class Paging {
 	public int hashCode() {
 		return cursors.hashCode() + previous.hashCode() + next.hashCode();
 	}
-}
 
+	public static class Adapter extends TypeAdapter<Paging> {
+
+		private final TypeAdapter<PagingCursors> cursorsAdapter;
+
+		Adapter(TypeAdapter<PagingCursors> cursorsAdapter) {
+			this.cursorsAdapter = cursorsAdapter;
+		}
 
+		@Override
+		public void write(JsonWriter out, Paging value) throws IOException {
+			out.beginObject();
+			out.name("cursors");
+			cursorsAdapter.write(out, value.cursors);
+			out.name("previous").value(value.previous);
+			out.name("next").value(value.next);
+			out.endObject();
+		}
 
+		@Override
+		public Paging read(JsonReader in) throws IOException {
+			Paging value = new Paging();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "cursors":
+						value.cursors = cursorsAdapter.read(in);
+						break;
+					case "previous":
+						value.previous = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "next":
+						value.next = ModelTypeAdapterFactory.nextString(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
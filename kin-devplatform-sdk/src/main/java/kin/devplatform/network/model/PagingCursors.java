@@ -1,6 +1,10 @@
 package kin.devplatform.network.model;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -68,7 +72,36 @@ public class PagingCursors {
 	public int hashCode() {
 		return Objects.hash(after, before);
 	}
-}
 
+	public static class Adapter extends TypeAdapter<PagingCursors> {
 
+		@Override
+		public void write(JsonWriter out, PagingCursors value) throws IOException {
+			out.beginObject();
+			out.name("after").value(value.after);
+			out.name("before").value(value.before);
+			out.endObject();
+		}
 
+		@Override
+		public PagingCursors read(JsonReader in) throws IOException {
+			PagingCursors value = new PagingCursors();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "after":
+						value.after = ModelTypeAdapterFactory.nextString(in);
+						break;
+					case "before":
+						value.before = ModelTypeAdapterFactory.nextString(in);
+						break;
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			return value;
+		}
+	}
+}
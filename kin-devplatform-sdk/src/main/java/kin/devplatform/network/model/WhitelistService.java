@@ -9,29 +9,48 @@ import kin.sdk.migration.common.interfaces.IWhitelistableTransaction;
 
 public class WhitelistService implements IWhitelistService {
 
+    // Shared by all the services, so the api client and its connections are reused.
+    private static volatile WhitelistApi whitelistApi;
+
     private final String orderId;
-    private WhitelistServiceListener whitelistServiceListener;
+    private final WhitelistServiceListener whitelistServiceListener;
 
     public WhitelistService(String orderId) {
         this(orderId, null);
     }
 
+    /**
+     * @param whitelistServiceListener notified with the outcome of the whitelisting, can be null.
+     */
     public WhitelistService(String orderId, WhitelistServiceListener whitelistServiceListener) {
         this.orderId = orderId;
+        this.whitelistServiceListener = whitelistServiceListener;
     }
 
     @Override
     public WhitelistResult onWhitelistableTransactionReady(IWhitelistableTransaction whitelistableTransaction) throws WhitelistTransactionFailedException {
-        WhitelistApi whitelistApi = new WhitelistApi();
         try {
-            String whitelistedTransaction = whitelistApi.whitelistTransaction(orderId, whitelistableTransaction);
+            String whitelistedTransaction = getWhitelistApi().whitelistTransaction(orderId, whitelistableTransaction);
+            if (whitelistServiceListener != null) {
+                whitelistServiceListener.onSuccess(whitelistedTransaction);
+            }
             return new WhitelistResult(whitelistedTransaction, true);
         } catch (ApiException e) {
+            if (whitelistServiceListener != null) {
+                whitelistServiceListener.onFailure(e);
+            }
             throw new WhitelistTransactionFailedException(e);
         }
     }
-}
-
-
-
 
+    private static WhitelistApi getWhitelistApi() {
+        if (whitelistApi == null) {
+            synchronized (WhitelistService.class) {
+                if (whitelistApi == null) {
+                    whitelistApi = new WhitelistApi();
+                }
+            }
+        }
+        return whitelistApi;
+    }
+}
@@ -51,6 +51,8 @@ public class ErrorUtil {
 	private static final String ACCOUNT_CREATION_TIMEOUT = "Account creation has timeout";
 	private static final String MIGRATION_FAILURE_MSG = "Migrating client to new blockchain has failed. cannot start the SDK";
 	private static final String BAD_JWT = "Bad or missing jwt";
+	private static final String ORDER_CANCELED = "The order was canceled";
+	private static final String TOO_MANY_OPERATIONS = "Too many operations are in progress, try again later";
 	private static final String WALLET_WAS_NOT_CREATED_IN_THIS_APP = "This wallet was not created in this app";
 
 
@@ -160,6 +162,12 @@ public class ErrorUtil {
 			case ClientException.BAD_JWT:
 				exception = new ClientException(ClientException.BAD_JWT, BAD_JWT, e);
 				break;
+			case ClientException.ORDER_CANCELED:
+				exception = new ClientException(ClientException.ORDER_CANCELED, ORDER_CANCELED, e);
+				break;
+			case ClientException.TOO_MANY_OPERATIONS:
+				exception = new ClientException(ClientException.TOO_MANY_OPERATIONS, TOO_MANY_OPERATIONS, e);
+				break;
 			case INTERNAL_INCONSISTENCY:
 			default:
 				exception = new ClientException(INTERNAL_INCONSISTENCY, ECOSYSTEM_SDK_ENCOUNTERED_AN_UNEXPECTED_ERROR,
@@ -0,0 +1,128 @@
+package kin.devplatform.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class SingleFlightTest {
+
+	@Mock
+	private Callback<String, Exception> firstCallback;
+
+	@Mock
+	private Callback<String, Exception> secondCallback;
+
+	private SingleFlight<String, String, Exception> singleFlight;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		singleFlight = new SingleFlight<>();
+	}
+
+	@Test
+	public void join_CallInFlight_JoinedAndGetsSameResponse() {
+		assertTrue(singleFlight.join("orders", firstCallback));
+		assertFalse(singleFlight.join("orders", secondCallback));
+
+		singleFlight.completionFor("orders").onResponse("response");
+
+		verify(firstCallback).onResponse("response");
+		verify(secondCallback).onResponse("response");
+	}
+
+	@Test
+	public void join_CallInFlight_JoinedAndGetsSameFailure() {
+		final Exception error = new Exception("failed");
+		singleFlight.join("orders", firstCallback);
+		singleFlight.join("orders", secondCallback);
+
+		singleFlight.completionFor("orders").onFailure(error);
+
+		verify(firstCallback).onFailure(error);
+		verify(secondCallback).onFailure(error);
+		verify(firstCallback, never()).onResponse(any(String.class));
+	}
+
+	@Test
+	public void join_DifferentKeys_NotCoalesced() {
+		assertTrue(singleFlight.join("orders", firstCallback));
+		assertTrue(singleFlight.join("offers", secondCallback));
+
+		singleFlight.completionFor("orders").onResponse("orders response");
+
+		verify(firstCallback).onResponse("orders response");
+		verify(secondCallback, never()).onResponse(any(String.class));
+	}
+
+	@Test
+	public void join_AfterCompletion_NewCallPerformed() {
+		singleFlight.join("orders", firstCallback);
+		singleFlight.completionFor("orders").onResponse("first");
+
+		assertTrue(singleFlight.join("orders", secondCallback));
+		singleFlight.completionFor("orders").onResponse("second");
+
+		verify(firstCallback).onResponse("first");
+		verify(firstCallback, never()).onResponse("second");
+		verify(secondCallback).onResponse("second");
+	}
+
+	@Test
+	public void join_ConcurrentIdenticalCalls_OnlyOnePerformed() throws Exception {
+		final int callers = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch joined = new CountDownLatch(callers);
+		final CountDownLatch responded = new CountDownLatch(callers);
+		final AtomicInteger performedCalls = new AtomicInteger();
+		final Callback<String, Exception> callback = new Callback<String, Exception>() {
+			@Override
+			public void onResponse(String response) {
+				responded.countDown();
+			}
+
+			@Override
+			public void onFailure(Exception error) {
+			}
+		};
+		for (int i = 0; i < callers; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					if (singleFlight.join("orders", callback)) {
+						performedCalls.incrementAndGet();
+					}
+					joined.countDown();
+				}
+			}).start();
+		}
+
+		start.countDown();
+		assertTrue(joined.await(5, TimeUnit.SECONDS));
+		assertEquals(1, performedCalls.get());
+
+		singleFlight.completionFor("orders").onResponse("response");
+		assertTrue(responded.await(5, TimeUnit.SECONDS));
+	}
+}
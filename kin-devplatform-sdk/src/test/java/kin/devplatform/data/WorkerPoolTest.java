@@ -0,0 +1,70 @@
+package kin.devplatform.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class WorkerPoolTest {
+
+	@Mock
+	private WorkerPool.Listener listener;
+
+	private WorkerPool workerPool;
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final Runnable blockingTask = new Runnable() {
+		@Override
+		public void run() {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	};
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		workerPool = new WorkerPool("test-worker", 1, 1);
+		workerPool.setListener(listener);
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+	}
+
+	@Test
+	public void submit_QueueFull_Rejected() throws Exception {
+		workerPool.submit(blockingTask);
+		started.await(1, TimeUnit.SECONDS);
+		workerPool.submit(blockingTask);
+		assertEquals(1, workerPool.getQueueSize());
+
+		try {
+			workerPool.submit(blockingTask);
+			fail("Expected the task to be rejected");
+		} catch (RejectedExecutionException e) {
+			verify(listener).onRejected();
+		}
+		assertEquals(1, workerPool.getActiveCount());
+		assertEquals(1, workerPool.getQueueSize());
+	}
+}
@@ -0,0 +1,119 @@
+package kin.devplatform.data.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.network.model.AuthToken;
+import kin.devplatform.network.model.SignInData;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class AuthRepositoryTest {
+
+	private static final String APP_ID = "appId";
+
+	@Mock
+	private AuthDataSource.Local authLocal;
+
+	@Mock
+	private AuthDataSource.Remote authRemote;
+
+	@Mock
+	private SignInData signInData;
+
+	private AuthToken refreshedToken;
+
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		when(signInData.getAppId()).thenReturn(APP_ID);
+		when(authLocal.getSignInData()).thenReturn(signInData);
+		refreshedToken = authToken("refreshed", utcDate(TimeUnit.HOURS.toMillis(1)));
+		when(authRemote.getAuthTokenSync()).thenReturn(refreshedToken);
+
+		Field instance = AuthRepository.class.getDeclaredField("instance");
+		instance.setAccessible(true);
+		instance.set(null, null);
+	}
+
+	@Test
+	public void getAuthTokenSync_UnreadableExpiration_Refreshed() {
+		initWithStoredToken(authToken("stored", "not a date"));
+
+		assertEquals(refreshedToken, AuthRepository.getInstance().getAuthTokenSync());
+		verify(authRemote).getAuthTokenSync();
+		verify(authLocal).setAuthToken(refreshedToken);
+	}
+
+	@Test
+	public void getAuthTokenSync_MissingExpiration_Refreshed() {
+		initWithStoredToken(authToken("stored", null));
+
+		assertEquals(refreshedToken, AuthRepository.getInstance().getAuthTokenSync());
+		verify(authRemote).getAuthTokenSync();
+	}
+
+	@Test
+	public void getAuthTokenSync_Expired_Refreshed() {
+		initWithStoredToken(authToken("stored", utcDate(-TimeUnit.HOURS.toMillis(1))));
+
+		assertEquals(refreshedToken, AuthRepository.getInstance().getAuthTokenSync());
+		verify(authRemote).getAuthTokenSync();
+	}
+
+	@Test
+	public void getAuthTokenSync_NotExpired_StoredTokenReturned() {
+		final AuthToken storedToken = authToken("stored", utcDate(TimeUnit.HOURS.toMillis(1)));
+		initWithStoredToken(storedToken);
+
+		assertEquals(storedToken, AuthRepository.getInstance().getAuthTokenSync());
+		verify(authRemote, never()).getAuthTokenSync();
+	}
+
+	@Test
+	public void refreshAuthTokenSync_RefreshedByAnotherCaller_NotRefreshedAgain() {
+		final AuthToken storedToken = authToken("stored", utcDate(TimeUnit.HOURS.toMillis(1)));
+		initWithStoredToken(storedToken);
+
+		assertEquals(storedToken, AuthRepository.getInstance().refreshAuthTokenSync("rejected"));
+		verify(authRemote, never()).getAuthTokenSync();
+	}
+
+	@Test
+	public void refreshAuthTokenSync_CurrentTokenRejected_Refreshed() {
+		initWithStoredToken(authToken("stored", utcDate(TimeUnit.HOURS.toMillis(1))));
+
+		assertEquals(refreshedToken, AuthRepository.getInstance().refreshAuthTokenSync("stored"));
+		verify(authRemote).getAuthTokenSync();
+	}
+
+	private void initWithStoredToken(AuthToken storedToken) {
+		when(authLocal.getAuthTokenSync()).thenReturn(storedToken);
+		AuthRepository.init(authLocal, authRemote);
+	}
+
+	private static AuthToken authToken(String token, String expirationDate) {
+		return new AuthToken(token, true, expirationDate, APP_ID, "userId", "ecosystemUserId");
+	}
+
+	private static String utcDate(long offsetMillis) {
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm", Locale.US);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format.format(new Date(System.currentTimeMillis() + offsetMillis));
+	}
+}
@@ -0,0 +1,136 @@
+package kin.devplatform.data.blockchain;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.KinCallback;
+import kin.devplatform.data.blockchain.BalanceSnapshot.Source;
+import kin.devplatform.data.model.Balance;
+import kin.devplatform.exception.KinEcosystemException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class BalanceRefresherTest {
+
+	private static final long WINDOW_MILLIS = 500;
+
+	private final Executor directExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Mock
+	private ScheduledExecutorService executor;
+
+	private int fetchCount;
+	private Source lastFetchSource;
+	private BalanceSnapshot snapshot = BalanceSnapshot.empty();
+	private long balanceRequests;
+	private long storedBalanceRequest;
+
+	private final BalanceRefresher.Fetcher fetcher = new BalanceRefresher.Fetcher() {
+		@Override
+		public void fetch(Source source) {
+			fetchCount++;
+			lastFetchSource = source;
+			setSnapshot(new BigDecimal(fetchCount * 10), source);
+		}
+
+		@Override
+		public BalanceSnapshot getBalanceSnapshot() {
+			return snapshot;
+		}
+
+		@Override
+		public long nextBalanceRequest() {
+			return ++balanceRequests;
+		}
+
+		@Override
+		public long getStoredBalanceRequest() {
+			return storedBalanceRequest;
+		}
+	};
+
+	private BalanceRefresher refresher;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		refresher = new BalanceRefresher(fetcher, executor, directExecutor, WINDOW_MILLIS);
+	}
+
+	@Test
+	public void request_BurstInWindow_OneFetchServesAll() {
+		KinCallback<Balance> firstCallback = mock(KinCallback.class);
+		KinCallback<Balance> secondCallback = mock(KinCallback.class);
+
+		refresher.request(Source.POLL, firstCallback);
+		refresher.request(Source.PAYMENT, null);
+		refresher.request(Source.PAYMENT, secondCallback);
+		runScheduledRefresh();
+
+		assertEquals(1, fetchCount);
+		assertEquals(Source.PAYMENT, lastFetchSource);
+		ArgumentCaptor<Balance> balanceCaptor = ArgumentCaptor.forClass(Balance.class);
+		verify(firstCallback).onResponse(balanceCaptor.capture());
+		verify(secondCallback).onResponse(balanceCaptor.capture());
+		assertEquals(new BigDecimal(10), balanceCaptor.getAllValues().get(0).getAmount());
+		assertEquals(new BigDecimal(10), balanceCaptor.getAllValues().get(1).getAmount());
+	}
+
+	@Test
+	public void request_AfterRound_ScheduledAgain() {
+		refresher.request(Source.PAYMENT, null);
+		runScheduledRefresh();
+		refresher.request(Source.PAYMENT, null);
+
+		verify(executor, times(2)).schedule(any(Runnable.class), eq(WINDOW_MILLIS), eq(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void request_NewerBalancePushed_FetchSkipped() {
+		KinCallback<Balance> callback = mock(KinCallback.class);
+		refresher.request(Source.PAYMENT, callback);
+		setSnapshot(new BigDecimal(42), Source.SSE);
+
+		runScheduledRefresh();
+
+		assertEquals(0, fetchCount);
+		ArgumentCaptor<Balance> balanceCaptor = ArgumentCaptor.forClass(Balance.class);
+		verify(callback).onResponse(balanceCaptor.capture());
+		verify(callback, never()).onFailure(any(KinEcosystemException.class));
+		assertEquals(new BigDecimal(42), balanceCaptor.getValue().getAmount());
+	}
+
+	private void setSnapshot(BigDecimal amount, Source source) {
+		storedBalanceRequest = ++balanceRequests;
+		snapshot = new BalanceSnapshot(amount, System.currentTimeMillis(), source, snapshot.getVersion() + 1);
+	}
+
+	private void runScheduledRefresh() {
+		ArgumentCaptor<Runnable> refreshTask = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor).schedule(refreshTask.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+		refreshTask.getValue().run();
+	}
+}
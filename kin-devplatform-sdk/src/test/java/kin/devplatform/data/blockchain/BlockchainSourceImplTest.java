@@ -6,20 +6,29 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import kin.devplatform.BaseTestClass;
+import kin.devplatform.KinCallback;
 import kin.devplatform.base.Observer;
 import kin.devplatform.bi.EventLogger;
 import kin.devplatform.bi.events.SpendTransactionBroadcastToBlockchainFailed;
 import kin.devplatform.bi.events.SpendTransactionBroadcastToBlockchainSucceeded;
+import kin.devplatform.data.blockchain.BalanceSnapshot.Source;
 import kin.devplatform.data.model.Balance;
 import kin.devplatform.data.model.Payment;
 import kin.devplatform.network.model.Offer.OfferType;
@@ -29,6 +38,7 @@ import kin.sdk.migration.common.interfaces.IBalance;
 import kin.sdk.migration.common.interfaces.IEventListener;
 import kin.sdk.migration.common.interfaces.IKinAccount;
 import kin.sdk.migration.common.interfaces.IKinClient;
+import kin.sdk.migration.common.interfaces.IPaymentInfo;
 import kin.sdk.migration.common.interfaces.ITransactionId;
 import kin.sdk.migration.common.interfaces.IWhitelistService;
 import kin.utils.Request;
@@ -38,12 +48,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InOrder;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
 
 @Config(manifest = Config.NONE)
 @RunWith(RobolectricTestRunner.class)
@@ -76,6 +85,12 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 	@Mock
 	private IBalance balanceObj;
 
+	@Mock
+	private ScheduledExecutorService balanceRefreshExecutor;
+
+	@Captor
+	private ArgumentCaptor<BalanceSnapshot> snapshotCaptor;
+
 
 	private BlockchainSourceImpl blockchainSource;
 	private Balance balance;
@@ -86,6 +101,7 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		MockitoAnnotations.initMocks(this);
 		when(kinClient.addAccount()).thenReturn(kinAccount);
 		when(kinAccount.getBalance()).thenReturn(getBalanceReq);
+		when(kinAccount.getBalanceSync()).thenReturn(balanceObj);
 		when(balanceObj.value()).thenReturn(new BigDecimal(20));
 		when(kinAccount.getPublicAddress()).thenReturn(PUBLIC_ADDRESS);
 
@@ -97,9 +113,9 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		verify(kinClient).addAccount();
 
 		// init Balance
-		verify(getBalanceReq).run(getBalanceCaptor.capture());
-		getBalanceCaptor.getValue().onResult(balanceObj);
-		verify(local).setBalance(balanceObj.value().intValue());
+		runScheduledBalanceRefresh();
+		verify(local).setBalanceSnapshot(snapshotCaptor.capture());
+		assertEquals(balanceObj.value(), snapshotCaptor.getValue().getAmount());
 
 		when(kinClient.getAccount(0)).thenReturn(kinAccount);
 		balance = new Balance();
@@ -110,10 +126,17 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		Field instance = BlockchainSourceImpl.class.getDeclaredField("instance");
 		instance.setAccessible(true);
 		instance.set(null, null);
-		BlockchainSourceImpl.init(eventLogger, kinClient, local);
+		BlockchainSourceImpl.init(eventLogger, kinClient, local, balanceRefreshExecutor);
 		blockchainSource = BlockchainSourceImpl.getInstance();
 	}
 
+	private void runScheduledBalanceRefresh() {
+		ArgumentCaptor<Runnable> refreshTask = forClass(Runnable.class);
+		verify(balanceRefreshExecutor, atLeastOnce())
+			.schedule(refreshTask.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+		refreshTask.getValue().run();
+	}
+
 	@Test
 	public void init_once_and_one_account() throws Exception {
 		BlockchainSourceImpl.init(eventLogger, kinClient, local);
@@ -210,7 +233,6 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		}, false);
 		assertEquals(new BigDecimal(20), balance.getAmount());
 
-		InOrder inOrder = Mockito.inOrder(local);
 		BigDecimal value = new BigDecimal(25);
 		when(innerBalance.value()).thenReturn(value);
 		blockchainSource.setBalance(innerBalance);
@@ -226,9 +248,96 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		blockchainSource.setBalance(innerBalance);
 		assertEquals(value, balance.getAmount());
 
-		inOrder.verify(local).setBalance(25);
-		inOrder.verify(local).setBalance(50);
-		inOrder.verify(local, never()).setBalance(any(Integer.class));
+		// Once on init, not again for the equal value.
+		verify(local, times(3)).setBalanceSnapshot(snapshotCaptor.capture());
+		List<BalanceSnapshot> snapshots = snapshotCaptor.getAllValues();
+		assertEquals(new BigDecimal(25), snapshots.get(snapshots.size() - 2).getAmount());
+		assertEquals(new BigDecimal(50), snapshots.get(snapshots.size() - 1).getAmount());
+	}
+
+	@Test
+	public void set_balance_fraction_kept_exactly() {
+		IBalance innerBalance = mock(IBalance.class);
+		BigDecimal value = new BigDecimal("20.75");
+		when(innerBalance.value()).thenReturn(value);
+
+		blockchainSource.setBalance(innerBalance);
+
+		assertEquals(value, blockchainSource.getBalance().getAmount());
+		assertEquals(value, blockchainSource.getBalanceSnapshot().getAmount());
+	}
+
+	@Test
+	public void get_balance_fresh_snapshot_served_from_memory() {
+		KinCallback<Balance> callback = mock(KinCallback.class);
+
+		blockchainSource.getBalance(60000, callback);
+		ShadowLooper.runUiThreadTasks();
+
+		ArgumentCaptor<Balance> balanceCaptor = forClass(Balance.class);
+		verify(callback).onResponse(balanceCaptor.capture());
+		assertEquals(new BigDecimal(20), balanceCaptor.getValue().getAmount());
+		verify(getBalanceReq, never()).run(any(ResultCallback.class));
+	}
+
+	@Test
+	public void get_balance_stale_snapshot_fetched() {
+		blockchainSource.getBalance(-1, mock(KinCallback.class));
+
+		verify(getBalanceReq).run(any(ResultCallback.class));
+	}
+
+	@Test
+	public void payment_burst_refreshes_balance_once() throws Exception {
+		ArgumentCaptor<IEventListener<IPaymentInfo>> paymentEventListener = forClass(IEventListener.class);
+		blockchainSource.addPaymentObservable(mock(Observer.class));
+		verify(kinAccount).addPaymentListener(paymentEventListener.capture());
+		IPaymentInfo paymentInfo = mock(IPaymentInfo.class);
+		when(paymentInfo.memo()).thenReturn(MEMO_FROM_SERVER_EXAMPLE);
+
+		for (int i = 0; i < 5; i++) {
+			paymentEventListener.getValue().onEvent(paymentInfo);
+		}
+
+		// Once on init, once for the burst.
+		verify(balanceRefreshExecutor, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+		runScheduledBalanceRefresh();
+		verify(kinAccount, times(2)).getBalanceSync();
+		assertEquals(Source.PAYMENT, blockchainSource.getBalanceSnapshot().getSource());
+	}
+
+	@Test
+	public void stored_balance_with_future_time_replaced() throws Exception {
+		when(local.getBalanceSnapshot()).thenReturn(new BalanceSnapshot(new BigDecimal(5),
+			System.currentTimeMillis() + 60 * 60 * 1000, Source.POLL, 7));
+		resetInstance();
+		IBalance innerBalance = mock(IBalance.class);
+		when(innerBalance.value()).thenReturn(new BigDecimal(25));
+
+		blockchainSource.setBalance(innerBalance);
+
+		assertEquals(new BigDecimal(25), blockchainSource.getBalanceSnapshot().getAmount());
+		assertEquals(8, blockchainSource.getBalanceSnapshot().getVersion());
+	}
+
+	@Test
+	public void fetched_balance_older_than_pushed_one_dropped() throws Exception {
+		ArgumentCaptor<IEventListener<IBalance>> balanceEventListener = forClass(IEventListener.class);
+		blockchainSource.addBalanceObserver(mock(Observer.class), true);
+		verify(kinAccount).addBalanceListener(balanceEventListener.capture());
+
+		blockchainSource.getBalance(null);
+		verify(getBalanceReq).run(getBalanceCaptor.capture());
+		IBalance pushedBalance = mock(IBalance.class);
+		when(pushedBalance.value()).thenReturn(new BigDecimal(30));
+		balanceEventListener.getValue().onEvent(pushedBalance);
+
+		// Fetch requested before the push, answered after it.
+		getBalanceCaptor.getValue().onResult(balanceObj);
+
+		BalanceSnapshot snapshot = blockchainSource.getBalanceSnapshot();
+		assertEquals(new BigDecimal(30), snapshot.getAmount());
+		assertEquals(Source.SSE, snapshot.getSource());
 	}
 
 	@Test
@@ -249,7 +358,9 @@ public class BlockchainSourceImplTest extends BaseTestClass {
 		balanceEventListener.getValue().onEvent(balanceObj);
 
 		assertEquals(value, balance.getAmount());
-		verify(local).setBalance(value.intValue());
+		verify(local, times(2)).setBalanceSnapshot(snapshotCaptor.capture());
+		assertEquals(value, snapshotCaptor.getValue().getAmount());
+		assertEquals(Source.SSE, snapshotCaptor.getValue().getSource());
 
 	}
 
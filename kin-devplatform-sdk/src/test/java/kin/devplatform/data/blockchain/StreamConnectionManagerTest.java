@@ -0,0 +1,166 @@
+package kin.devplatform.data.blockchain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.data.blockchain.StreamConnectionManager.Connector;
+import kin.devplatform.data.blockchain.StreamConnectionManager.Stream;
+import kin.devplatform.data.model.StreamStats;
+import kin.sdk.migration.common.interfaces.IEventListener;
+import kin.sdk.migration.common.interfaces.IListenerRegistration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class StreamConnectionManagerTest {
+
+	private static final String STREAM_NAME = "balance";
+
+	@Mock
+	private ScheduledExecutorService scheduler;
+
+	@Mock
+	private ScheduledFuture future;
+
+	@Mock
+	private IEventListener<String> listener;
+
+	private int connectCount;
+	private IEventListener<String> connectedListener;
+	private IListenerRegistration registration;
+
+	private final Connector<String> connector = new Connector<String>() {
+		@Override
+		public IListenerRegistration connect(IEventListener<String> listener) {
+			connectCount++;
+			connectedListener = listener;
+			registration = mock(IListenerRegistration.class);
+			return registration;
+		}
+	};
+
+	private StreamConnectionManager manager;
+	private Stream<String> stream;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		doReturn(future).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+		manager = new StreamConnectionManager(scheduler, new Random());
+		stream = manager.createStream(STREAM_NAME, connector, listener);
+	}
+
+	@Test
+	public void release_AcquiredAgainWhileLingering_StreamKept() {
+		stream.acquire();
+		stream.release();
+		stream.acquire();
+
+		verify(scheduler).schedule(any(Runnable.class), eq(StreamConnectionManager.LINGER_MILLIS),
+			eq(TimeUnit.MILLISECONDS));
+		verify(future).cancel(false);
+		verify(registration, never()).remove();
+		assertEquals(1, connectCount);
+	}
+
+	@Test
+	public void release_LingerEnded_StreamClosed() {
+		stream.acquire();
+		stream.release();
+
+		runScheduledTask();
+
+		verify(registration).remove();
+		assertFalse(manager.getStats().get(STREAM_NAME).isConnected());
+	}
+
+	@Test
+	public void reconnectAll_OpenStream_ReconnectedAfterBackoff() {
+		stream.acquire();
+		IListenerRegistration firstRegistration = registration;
+
+		manager.reconnectAll();
+		// Joins the reconnect already scheduled.
+		manager.reconnectAll();
+		runScheduledTask();
+
+		verify(firstRegistration).remove();
+		assertEquals(2, connectCount);
+		assertEquals(1, manager.getStats().get(STREAM_NAME).getReconnectCount());
+	}
+
+	@Test
+	public void reconnectAll_PreviousReconnectSucceeded_BackoffReset() {
+		// No jitter, each delay is half of the full delay.
+		manager = new StreamConnectionManager(scheduler, mock(Random.class));
+		stream = manager.createStream(STREAM_NAME, connector, listener);
+		stream.acquire();
+
+		manager.reconnectAll();
+		runScheduledTask();
+		manager.reconnectAll();
+
+		ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+		verify(scheduler, times(2)).schedule(any(Runnable.class), delays.capture(), eq(TimeUnit.MILLISECONDS));
+		long firstDelay = StreamConnectionManager.RECONNECT_BASE_DELAY_MILLIS / 2;
+		assertEquals(firstDelay, (long) delays.getAllValues().get(0));
+		assertEquals(firstDelay, (long) delays.getAllValues().get(1));
+	}
+
+	@Test
+	public void reconnectAll_ClosedStream_NothingScheduled() {
+		manager.reconnectAll();
+
+		verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+		assertEquals(0, connectCount);
+	}
+
+	@Test
+	public void event_Delivered_CountedAndForwarded() {
+		stream.acquire();
+
+		connectedListener.onEvent("event");
+
+		verify(listener).onEvent("event");
+		StreamStats stats = manager.getStats().get(STREAM_NAME);
+		assertTrue(stats.isConnected());
+		assertEquals(1, stats.getEventCount());
+		assertTrue(stats.getMillisSinceLastEvent() >= 0);
+	}
+
+	@Test
+	public void getReconnectDelayMillis_GrowsWithJitterUpToMax() {
+		for (int attempt = 0; attempt < 3; attempt++) {
+			long delay = manager.getReconnectDelayMillis(attempt);
+			long fullDelay = StreamConnectionManager.RECONNECT_BASE_DELAY_MILLIS << attempt;
+			assertTrue(delay >= fullDelay / 2 && delay <= fullDelay);
+		}
+		assertTrue(manager.getReconnectDelayMillis(100) <= StreamConnectionManager.RECONNECT_MAX_DELAY_MILLIS);
+	}
+
+	private void runScheduledTask() {
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduler, times(1)).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+		task.getValue().run();
+	}
+}
@@ -0,0 +1,102 @@
+package kin.devplatform.data.blockchain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import kin.devplatform.data.blockchain.TransactionSubmissionQueue.Submission;
+import kin.devplatform.data.model.TransactionQueueStats;
+import kin.sdk.migration.common.exception.OperationFailedException;
+import kin.sdk.migration.common.exception.WhitelistTransactionFailedException;
+import kin.sdk.migration.common.interfaces.IWhitelistService;
+import kin.sdk.migration.common.interfaces.IWhitelistableTransaction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class TransactionSubmissionQueueTest {
+
+	private static final String ACCOUNT_ADDRESS = "account";
+
+	private final TransactionSubmissionQueue queue = new TransactionSubmissionQueue();
+
+	@Test
+	public void submit_ConcurrentSameAccount_OneAtATime() throws Exception {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final Submission<String> submission = new Submission<String>() {
+			@Override
+			public String submit(IWhitelistService whitelistService) {
+				maxRunning.set(Math.max(maxRunning.get(), running.incrementAndGet()));
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				return "transactionID";
+			}
+		};
+
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						queue.submit(ACCOUNT_ADDRESS, mock(IWhitelistService.class), submission);
+					} catch (OperationFailedException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1, maxRunning.get());
+		TransactionQueueStats stats = queue.snapshot();
+		assertEquals(4, stats.getCount());
+		assertEquals(0, stats.getPendingCount());
+	}
+
+	@Test
+	public void submit_Failed_WhitelistingPassedThroughAndCounted() throws Exception {
+		final IWhitelistService whitelistService = mock(IWhitelistService.class);
+		final IWhitelistableTransaction transaction = mock(IWhitelistableTransaction.class);
+		final OperationFailedException exception = new OperationFailedException("failed");
+
+		try {
+			queue.submit(ACCOUNT_ADDRESS, whitelistService, new Submission<Void>() {
+				@Override
+				public Void submit(IWhitelistService timedWhitelistService) throws OperationFailedException {
+					try {
+						timedWhitelistService.onWhitelistableTransactionReady(transaction);
+					} catch (WhitelistTransactionFailedException e) {
+						fail();
+					}
+					throw exception;
+				}
+			});
+			fail();
+		} catch (OperationFailedException e) {
+			assertEquals(exception, e);
+		}
+
+		verify(whitelistService).onWhitelistableTransactionReady(transaction);
+		TransactionQueueStats stats = queue.snapshot();
+		assertEquals(1, stats.getCount());
+		assertEquals(1, stats.getFailedCount());
+		assertEquals(1, stats.getMaxPendingCount());
+	}
+}
@@ -0,0 +1,107 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import java.util.concurrent.TimeoutException;
+import kin.devplatform.data.order.OrderJournal.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OrderIdempotencyTableTest {
+
+	private static final String OFFER_JWT = "offerJwt";
+
+	private final Object owner = new Object();
+	private final Object otherOwner = new Object();
+
+	private SharedPreferences preferences;
+	private OrderIdempotencyTable table;
+
+	@Before
+	public void setUp() {
+		preferences = RuntimeEnvironment.application.getSharedPreferences("idempotency", Context.MODE_PRIVATE);
+		preferences.edit().clear().commit();
+		table = new OrderIdempotencyTable(preferences);
+	}
+
+	@Test
+	public void reserve_CreatedOrder_ReturnsOrderID() throws Exception {
+		assertNull(table.reserve(OFFER_JWT, owner, 0));
+		table.setCreated(OFFER_JWT, "1");
+
+		assertEquals("1", table.reserve(OFFER_JWT, otherOwner, 0));
+	}
+
+	@Test
+	public void reserve_Released_CreatedAgain() throws Exception {
+		assertNull(table.reserve(OFFER_JWT, owner, 0));
+		table.setCreated(OFFER_JWT, "1");
+		table.release(OFFER_JWT, owner);
+
+		assertNull(table.reserve(OFFER_JWT, otherOwner, 0));
+	}
+
+	@Test
+	public void reserve_BeingCreated_WaitsForOrderID() throws Exception {
+		assertNull(table.reserve(OFFER_JWT, owner, 0));
+		Thread creator = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				table.setCreated(OFFER_JWT, "1");
+			}
+		});
+		creator.start();
+
+		assertEquals("1", table.reserve(OFFER_JWT, otherOwner, 5000));
+		creator.join();
+	}
+
+	@Test
+	public void reserve_StillBeingCreated_TimesOutAndKeepsReservation() throws Exception {
+		assertNull(table.reserve(OFFER_JWT, owner, 0));
+
+		try {
+			table.reserve(OFFER_JWT, otherOwner, 0);
+			fail("Expected a timeout while the order is being created");
+		} catch (TimeoutException e) {
+			// expected
+		}
+
+		// Only the flow that reserved the offer can release it.
+		table.release(OFFER_JWT, otherOwner);
+		try {
+			table.reserve(OFFER_JWT, new Object(), 0);
+			fail("Expected the reservation to be kept");
+		} catch (TimeoutException e) {
+			// expected
+		}
+
+		table.release(OFFER_JWT, owner);
+		assertNull(table.reserve(OFFER_JWT, otherOwner, 0));
+	}
+
+	@Test
+	public void load_OnlySubmittedOrdersKept() throws Exception {
+		table.reserve(OFFER_JWT, owner, 0);
+		table.setCreated(OFFER_JWT, "1");
+		table.updateState("1", State.SUBMITTED);
+		table.reserve("otherJwt", owner, 0);
+		table.setCreated("otherJwt", "2");
+
+		OrderIdempotencyTable reloaded = new OrderIdempotencyTable(preferences);
+
+		assertEquals("1", reloaded.reserve(OFFER_JWT, otherOwner, 0));
+		// Only created, cancelled when the previous process is resumed.
+		assertNull(reloaded.reserve("otherJwt", otherOwner, 0));
+	}
+}
@@ -0,0 +1,86 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import kin.devplatform.data.order.OrderJournal.State;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OrderJournalTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final Executor directExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = new File(temporaryFolder.getRoot(), "journal");
+	}
+
+	@Test
+	public void replay_OnlyUnresolvedOrdersWithLastState() {
+		OrderJournal journal = new OrderJournal(file, directExecutor);
+		journal.append("1", State.CREATED);
+		journal.append("1", State.PAYMENT_SENDING);
+		journal.append("2", State.CREATED);
+		journal.append("2", State.SUBMITTED);
+		journal.append("2", State.RESOLVED);
+		journal.append("3", State.CREATED);
+
+		Map<String, State> unresolvedOrders = new OrderJournal(file, directExecutor).replay();
+
+		assertEquals(2, unresolvedOrders.size());
+		assertEquals(State.PAYMENT_SENDING, unresolvedOrders.get("1"));
+		assertEquals(State.CREATED, unresolvedOrders.get("3"));
+	}
+
+	@Test
+	public void replay_CompactsJournal() {
+		OrderJournal journal = new OrderJournal(file, directExecutor);
+		journal.append("1", State.CREATED);
+		journal.append("1", State.RESOLVED);
+		journal.append("2", State.SUBMITTED);
+		final long sizeBefore = file.length();
+
+		journal.replay();
+
+		assertTrue(file.length() < sizeBefore);
+		Map<String, State> unresolvedOrders = journal.replay();
+		assertEquals(1, unresolvedOrders.size());
+		assertEquals(State.SUBMITTED, unresolvedOrders.get("2"));
+	}
+
+	@Test
+	public void appendSync_WrittenBeforeReturn() {
+		final Executor neverRuns = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+			}
+		};
+		OrderJournal journal = new OrderJournal(file, neverRuns);
+		journal.append("1", State.CREATED);
+		journal.appendSync("1", State.PAYMENT_SENDING);
+
+		Map<String, State> unresolvedOrders = new OrderJournal(file, directExecutor).replay();
+		assertEquals(State.PAYMENT_SENDING, unresolvedOrders.get("1"));
+	}
+}
@@ -0,0 +1,54 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Field;
+import kin.devplatform.core.util.ExecutorsUtil;
+import kin.devplatform.data.order.OrderJournal.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OrderLocalDataTest {
+
+	private static final String OFFER_JWT = "offerJwt";
+
+	private OrderLocalData orderLocalData;
+
+	@Before
+	public void setUp() throws Exception {
+		Field instance = OrderLocalData.class.getDeclaredField("instance");
+		instance.setAccessible(true);
+		instance.set(null, null);
+		orderLocalData = OrderLocalData.getInstance(RuntimeEnvironment.application, new ExecutorsUtil());
+	}
+
+	@Test
+	public void reserveExternalOrder_OrderOfOtherUser_NotAttached() throws Exception {
+		orderLocalData.setUserID("firstUser");
+		assertNull(orderLocalData.reserveExternalOrder(OFFER_JWT, new Object(), 0));
+		orderLocalData.setExternalOrderCreated(OFFER_JWT, "1");
+		orderLocalData.appendOrderStateSync("1", State.SUBMITTED);
+
+		orderLocalData.setUserID("secondUser");
+		assertNull(orderLocalData.reserveExternalOrder(OFFER_JWT, new Object(), 0));
+
+		orderLocalData.setUserID("firstUser");
+		assertEquals("1", orderLocalData.reserveExternalOrder(OFFER_JWT, new Object(), 0));
+	}
+
+	@Test
+	public void reserveExternalOrder_NoUser_NothingToAttach() throws Exception {
+		orderLocalData.setUserID(null);
+
+		assertNull(orderLocalData.reserveExternalOrder(OFFER_JWT, new Object(), 0));
+		orderLocalData.setExternalOrderCreated(OFFER_JWT, "1");
+		assertNull(orderLocalData.reserveExternalOrder(OFFER_JWT, new Object(), 0));
+	}
+}
@@ -9,9 +9,13 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +54,8 @@ import kin.devplatform.network.model.Order.Origin;
 import kin.devplatform.network.model.Order.Status;
 import kin.devplatform.network.model.OrderList;
 import kin.devplatform.network.model.OrderSpendResult.TypeEnum;
+import kin.devplatform.network.model.Paging;
+import kin.devplatform.network.model.PagingCursors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -58,6 +64,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowLooper;
@@ -158,6 +166,119 @@ public class OrderRepositoryTest extends BaseTestClass {
 		verify(orderHistoryCallback).onResponse(orderList);
 	}
 
+	@Test
+	public void getAllOrderHistory_CachedHistory_FetchesNewerOrdersOnly() {
+		Order newerOrder = createOrder("3");
+		Order updatedOrder = createOrder(orderID);
+		Order olderOrder = createOrder("1");
+		when(remote.getOrderHistoryPageLimit()).thenReturn(100);
+		when(local.getCachedOrderHistory()).thenReturn(new OrderList().addOrder(order).addOrder(olderOrder)
+			.paging(createPaging("before", "after")));
+		KinCallback<OrderList> orderHistoryCallback = mock(KinCallback.class);
+		ArgumentCaptor<Callback<OrderList, ApiException>> orderHistoryCaptor = ArgumentCaptor.forClass(Callback.class);
+
+		orderRepository.getAllOrderHistory(orderHistoryCallback);
+		verify(remote).getOrderHistoryPage(eq("before"), isNull(String.class), orderHistoryCaptor.capture());
+		verify(remote, never()).getAllOrderHistory(any(Callback.class));
+		orderHistoryCaptor.getValue().onResponse(new OrderList().addOrder(newerOrder).addOrder(updatedOrder)
+			.paging(createPaging("newBefore", "newAfter")));
+
+		OrderList orderList = orderRepository.getAllCachedOrderHistory();
+		assertEquals(Arrays.asList(newerOrder, updatedOrder, olderOrder), orderList.getOrders());
+		assertEquals("newBefore", orderList.getPaging().getCursors().getBefore());
+		assertEquals("after", orderList.getPaging().getCursors().getAfter());
+		verify(local).setCachedOrderHistory(orderList);
+		verify(orderHistoryCallback).onResponse(orderList);
+	}
+
+	@Test
+	public void getAllOrderHistory_CachedPendingOrder_FullSyncUpdatesStatus() {
+		Order pendingOrder = createOrder(orderID).status(Status.PENDING);
+		Order completedOrder = createOrder(orderID);
+		when(local.getCachedOrderHistory()).thenReturn(new OrderList().addOrder(pendingOrder)
+			.paging(createPaging("before", "after")));
+		KinCallback<OrderList> orderHistoryCallback = mock(KinCallback.class);
+		ArgumentCaptor<Callback<OrderList, ApiException>> orderHistoryCaptor = ArgumentCaptor.forClass(Callback.class);
+
+		orderRepository.getAllOrderHistory(orderHistoryCallback);
+		verify(remote).getAllOrderHistory(orderHistoryCaptor.capture());
+		verify(remote, never()).getOrderHistoryPage(nullable(String.class), nullable(String.class),
+			any(Callback.class));
+		orderHistoryCaptor.getValue().onResponse(new OrderList().addOrder(completedOrder)
+			.paging(createPaging("newBefore", null)));
+
+		OrderList orderList = orderRepository.getAllCachedOrderHistory();
+		assertEquals(Arrays.asList(completedOrder), orderList.getOrders());
+		assertEquals(Status.COMPLETED, orderList.getOrders().get(0).getStatus());
+		verify(local).setCachedOrderHistory(orderList);
+		verify(orderHistoryCallback).onResponse(orderList);
+	}
+
+	@Test
+	public void getOlderOrderHistory_AppendsOlderPage() {
+		Order olderOrder = createOrder("1");
+		when(remote.getOrderHistoryPageLimit()).thenReturn(100);
+		when(local.getCachedOrderHistory()).thenReturn(new OrderList().addOrder(order)
+			.paging(createPaging("before", "after")));
+		KinCallback<OrderList> orderHistoryCallback = mock(KinCallback.class);
+		ArgumentCaptor<Callback<OrderList, ApiException>> orderHistoryCaptor = ArgumentCaptor.forClass(Callback.class);
+
+		orderRepository.getOlderOrderHistory(orderHistoryCallback);
+		verify(remote).getOrderHistoryPage(isNull(String.class), eq("after"), orderHistoryCaptor.capture());
+		orderHistoryCaptor.getValue().onResponse(new OrderList().addOrder(olderOrder)
+			.paging(createPaging("olderBefore", "olderAfter")));
+
+		OrderList orderList = orderRepository.getAllCachedOrderHistory();
+		assertEquals(Arrays.asList(order, olderOrder), orderList.getOrders());
+		assertEquals("before", orderList.getPaging().getCursors().getBefore());
+		// The page was not full, there are no older orders.
+		assertNull(orderList.getPaging().getCursors().getAfter());
+		ArgumentCaptor<OrderList> olderOrdersCaptor = ArgumentCaptor.forClass(OrderList.class);
+		verify(orderHistoryCallback).onResponse(olderOrdersCaptor.capture());
+		assertEquals(Arrays.asList(olderOrder), olderOrdersCaptor.getValue().getOrders());
+	}
+
+	@Test
+	public void setUserID_OtherUser_PreviousUserHistoryNotUsed() {
+		when(local.getCachedOrderHistory()).thenReturn(new OrderList().addOrder(order)
+			.paging(createPaging("before", "after")));
+		assertNotNull(orderRepository.getAllCachedOrderHistory());
+
+		when(local.getCachedOrderHistory()).thenReturn(null);
+		orderRepository.setUserID("otherUser");
+
+		verify(local).setUserID("otherUser");
+		assertNull(orderRepository.getAllCachedOrderHistory());
+		orderRepository.getAllOrderHistory(mock(KinCallback.class));
+		verify(remote).getAllOrderHistory(any(Callback.class));
+		verify(remote, never()).getOrderHistoryPage(nullable(String.class), nullable(String.class),
+			any(Callback.class));
+	}
+
+	@Test
+	public void resumeUnresolvedOrders_OncePerLoggedInUser() {
+		orderRepository.resumeUnresolvedOrders();
+		verify(local, never()).getUnresolvedOrders(any(Callback.class));
+
+		orderRepository.setUserID("user");
+		orderRepository.resumeUnresolvedOrders();
+		orderRepository.resumeUnresolvedOrders();
+		verify(local, times(1)).getUnresolvedOrders(any(Callback.class));
+
+		orderRepository.setUserID("otherUser");
+		orderRepository.resumeUnresolvedOrders();
+		verify(local).setUserID("otherUser");
+		verify(local, times(2)).getUnresolvedOrders(any(Callback.class));
+	}
+
+	private Order createOrder(String orderId) {
+		return new Order().orderId(orderId).offerId(offerID).status(Status.COMPLETED);
+	}
+
+	private Paging createPaging(String before, String after) {
+		return new Paging().cursors(new PagingCursors().before(before).after(after));
+	}
+
 	@Test
 	public void createOrder_Succeed() {
 		orderRepository.createOrder(offerID, openOrderCallback);
@@ -210,6 +331,7 @@ public class OrderRepositoryTest extends BaseTestClass {
 		when(payment.getAmount()).thenReturn(new BigDecimal(20));
 		when(payment.getType()).thenReturn(EARN);
 		paymentCapture.getValue().onChanged(payment);
+		ShadowLooper.runUiThreadTasks();
 
 		verify(eventLogger).send(any(EarnOrderPaymentConfirmed.class));
 		verify(remote).getOrder(anyString(), getOrderCapture.capture());
@@ -360,7 +482,7 @@ public class OrderRepositoryTest extends BaseTestClass {
 			new JWTBodyPaymentConfirmationResult().jwt("A JWT CONFIRMATION").type(TypeEnum.PAYMENT_CONFIRMATION));
 
 		when(remote.createExternalOrderSync(anyString())).thenReturn(openOrder);
-		when(remote.getOrderSync(anyString())).thenReturn(confirmedOrder);
+		respondToGetOrder(confirmedOrder);
 		when(openOrder.getOfferType()).thenReturn(OfferType.SPEND);
 
 		orderRepository.purchase("A GENERATED NATIVE OFFER JWT", new KinCallback<OrderConfirmation>() {
@@ -410,7 +532,7 @@ public class OrderRepositoryTest extends BaseTestClass {
 		when(apiException.getResponseHeaders()).thenReturn(responseHeaders);
 
 		when(remote.createExternalOrderSync(anyString())).thenThrow(apiException);
-		when(remote.getOrderSync(anyString())).thenReturn(confirmedOrder);
+		respondToGetOrder(confirmedOrder);
 
 		// Check not error, and got jwt confirmation
 		orderRepository.purchase("A GENERATED NATIVE OFFER JWT", new KinCallback<OrderConfirmation>() {
@@ -577,6 +699,17 @@ public class OrderRepositoryTest extends BaseTestClass {
 		verify(local).setIsFirstSpendOrder(true);
 	}
 
+	private void respondToGetOrder(final Order order) {
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				Callback<Order, ApiException> callback = invocation.getArgument(1);
+				callback.onResponse(order);
+				return null;
+			}
+		}).when(remote).getOrder(anyString(), any(Callback.class));
+	}
+
 	private ApiException getApiException() {
 		Exception exception = new IllegalArgumentException();
 		ApiException apiException = new ApiException(500, exception);
@@ -0,0 +1,134 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import kin.devplatform.core.network.ApiException;
+import kin.devplatform.data.Callback;
+import kin.devplatform.network.model.Offer.OfferType;
+import kin.devplatform.network.model.Order;
+import kin.devplatform.network.model.Order.Status;
+import kin.devplatform.network.model.OrderList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OrderStatusSchedulerTest {
+
+	@Mock
+	private OrderDataSource.Remote remote;
+
+	@Mock
+	private ScheduledExecutorService executor;
+
+	@Mock
+	private Callback<Order, ApiException> firstCallback;
+
+	@Mock
+	private Callback<Order, ApiException> secondCallback;
+
+	private ConfirmationLatencyTracker latencyTracker;
+
+	private OrderStatusScheduler scheduler;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		latencyTracker = new ConfirmationLatencyTracker();
+		scheduler = new OrderStatusScheduler(remote, executor, latencyTracker);
+	}
+
+	@Test
+	public void track_SeveralDueOrders_CheckedWithOneHistoryCall() {
+		Order first = new Order().orderId("1").status(Status.COMPLETED);
+		Order second = new Order().orderId("2").status(Status.FAILED);
+		when(remote.getAllOrderHistorySync()).thenReturn(new OrderList().orders(Arrays.asList(first, second)));
+
+		scheduler.track("1", firstCallback);
+		scheduler.track("2", secondCallback);
+		runFirstExecutedTask();
+
+		verify(remote).getAllOrderHistorySync();
+		verify(remote, never()).getOrderSync(anyString());
+		verify(firstCallback).onResponse(first);
+		verify(secondCallback).onResponse(second);
+		assertEquals(0, scheduler.getPendingOrdersCount());
+	}
+
+	@Test
+	public void track_SameOrderTwice_BothCallbacksGetResult() {
+		Order order = new Order().orderId("1").status(Status.COMPLETED);
+		when(remote.getOrderSync("1")).thenReturn(order);
+
+		scheduler.track("1", firstCallback);
+		scheduler.track("1", secondCallback);
+		runFirstExecutedTask();
+
+		verify(remote, times(1)).getOrderSync("1");
+		verify(firstCallback).onResponse(order);
+		verify(secondCallback).onResponse(order);
+	}
+
+	@Test
+	public void track_PendingOrder_RescheduledUntilCompleted() {
+		Order pending = new Order().orderId("1").status(Status.PENDING);
+		when(remote.getOrderSync("1")).thenReturn(pending);
+
+		scheduler.track("1", firstCallback);
+		runFirstExecutedTask();
+
+		verify(executor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+		verify(firstCallback, never()).onResponse(any(Order.class));
+		assertEquals(1, scheduler.getPendingOrdersCount());
+	}
+
+	@Test
+	public void track_LearnedLatency_PolledAtMedian() {
+		for (int i = 0; i < ConfirmationLatencyTracker.MIN_SAMPLES; i++) {
+			latencyTracker.record(OfferType.SPEND, 5000);
+		}
+		Order pending = new Order().orderId("1").status(Status.PENDING).offerType(OfferType.SPEND);
+		when(remote.getOrderSync("1")).thenReturn(pending);
+
+		scheduler.track("1", firstCallback);
+		runFirstExecutedTask();
+
+		ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+		verify(executor).schedule(any(Runnable.class), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+		assertTrue(delayCaptor.getValue() > 4000 && delayCaptor.getValue() <= 5000);
+	}
+
+	@Test
+	public void getDelayedMillis_FollowsLatencyWithinBounds() {
+		assertEquals(12000, OrderStatusScheduler.getDelayedMillis(new long[]{3000, 4000, 5000, 6000}));
+		// Never before the lower bound, never later than without samples.
+		assertEquals(10000, OrderStatusScheduler.getDelayedMillis(new long[]{1000, 1000, 1000, 1000}));
+		assertEquals(OrderStatusScheduler.getDelayedMillis(null),
+			OrderStatusScheduler.getDelayedMillis(new long[]{60000, 60000, 60000, 60000}));
+	}
+
+	private void runFirstExecutedTask() {
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, atLeastOnce()).execute(task.capture());
+		task.getAllValues().get(0).run();
+	}
+}
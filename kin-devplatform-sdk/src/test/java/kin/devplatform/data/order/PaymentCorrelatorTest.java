@@ -0,0 +1,142 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Looper;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import kin.devplatform.base.Observer;
+import kin.devplatform.data.blockchain.BlockchainSource;
+import kin.devplatform.data.model.Payment;
+import kin.devplatform.data.order.PaymentCorrelator.PaymentListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class PaymentCorrelatorTest {
+
+	@Mock
+	private BlockchainSource blockchainSource;
+
+	@Mock
+	private ScheduledExecutorService timer;
+
+	@Mock
+	private PaymentListener firstListener;
+
+	@Mock
+	private PaymentListener secondListener;
+
+	@Mock
+	private Payment firstPayment;
+
+	@Mock
+	private Payment secondPayment;
+
+	private PaymentCorrelator paymentCorrelator;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(firstPayment.getOrderID()).thenReturn("1");
+		when(secondPayment.getOrderID()).thenReturn("2");
+		paymentCorrelator = new PaymentCorrelator(blockchainSource, timer);
+	}
+
+	@Test
+	public void register_PaymentsDispatchedToMatchingOrderOnly() {
+		paymentCorrelator.register("1", 1000, firstListener);
+		paymentCorrelator.register("2", 1000, secondListener);
+		final Observer<Payment> paymentObserver = capturePaymentObserver();
+
+		paymentObserver.onChanged(secondPayment);
+		ShadowLooper.runUiThreadTasks();
+		verify(secondListener).onPayment(secondPayment);
+		verify(firstListener, never()).onPayment(any(Payment.class));
+		verify(blockchainSource, never()).removePaymentObserver(paymentObserver);
+
+		paymentObserver.onChanged(firstPayment);
+		ShadowLooper.runUiThreadTasks();
+		verify(firstListener).onPayment(firstPayment);
+		verify(blockchainSource).removePaymentObserver(paymentObserver);
+		assertEquals(0, paymentCorrelator.getRegistrationCount());
+	}
+
+	@Test
+	public void register_PaymentArrivedBeforeRegistration_Delivered() {
+		paymentCorrelator.acquire();
+		final Observer<Payment> paymentObserver = capturePaymentObserver();
+		paymentObserver.onChanged(secondPayment);
+
+		paymentCorrelator.register("2", 1000, secondListener);
+		paymentCorrelator.release();
+		ShadowLooper.runUiThreadTasks();
+
+		verify(secondListener).onPayment(secondPayment);
+		assertEquals(0, paymentCorrelator.getRegistrationCount());
+		verify(blockchainSource).removePaymentObserver(paymentObserver);
+	}
+
+	@Test
+	public void register_PaymentOnObserverThread_ListenerCalledOnMainThread() throws Exception {
+		final AtomicReference<Thread> listenerThread = new AtomicReference<>();
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				listenerThread.set(Thread.currentThread());
+				return null;
+			}
+		}).when(firstListener).onPayment(firstPayment);
+		paymentCorrelator.register("1", 1000, firstListener);
+		final Observer<Payment> paymentObserver = capturePaymentObserver();
+
+		Thread observerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				paymentObserver.onChanged(firstPayment);
+			}
+		});
+		observerThread.start();
+		observerThread.join();
+		verify(firstListener, never()).onPayment(any(Payment.class));
+
+		ShadowLooper.runUiThreadTasks();
+		verify(firstListener).onPayment(firstPayment);
+		assertEquals(Looper.getMainLooper().getThread(), listenerThread.get());
+	}
+
+	@Test
+	public void unregister_ListenerNotCalled() {
+		paymentCorrelator.register("1", 1000, firstListener);
+		final Observer<Payment> paymentObserver = capturePaymentObserver();
+
+		paymentCorrelator.unregister("1");
+		paymentObserver.onChanged(firstPayment);
+		ShadowLooper.runUiThreadTasks();
+
+		verify(firstListener, never()).onPayment(any(Payment.class));
+		verify(blockchainSource, times(1)).removePaymentObserver(paymentObserver);
+	}
+
+	private Observer<Payment> capturePaymentObserver() {
+		ArgumentCaptor<Observer<Payment>> observerCapture = ArgumentCaptor.forClass(Observer.class);
+		verify(blockchainSource).addPaymentObservable(observerCapture.capture());
+		return observerCapture.getValue();
+	}
+}
@@ -0,0 +1,101 @@
+package kin.devplatform.data.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import kin.devplatform.BatchCallback;
+import kin.devplatform.Cancellable;
+import kin.devplatform.KinCallback;
+import kin.devplatform.data.model.BatchResult;
+import kin.devplatform.data.model.OrderConfirmation;
+import kin.devplatform.exception.ClientException;
+import kin.devplatform.exception.KinEcosystemException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class SpendBatchTest {
+
+	private final Executor directExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private final List<KinCallback<OrderConfirmation>> startedFlows = new ArrayList<>();
+	private final List<Cancellable> flowHandles = new ArrayList<>();
+	private final SpendBatch.FlowStarter flowStarter = new SpendBatch.FlowStarter() {
+		@Override
+		public Cancellable start(String offerJwt, KinCallback<OrderConfirmation> callback) {
+			startedFlows.add(callback);
+			final Cancellable handle = mock(Cancellable.class);
+			flowHandles.add(handle);
+			return handle;
+		}
+	};
+
+	private BatchCallback batchCallback;
+
+	@Before
+	public void setUp() {
+		batchCallback = mock(BatchCallback.class);
+	}
+
+	@Test
+	public void start_BoundedConcurrency_NextStartsWhenOneEnds() {
+		new SpendBatch(Arrays.asList("a", "b", "c"), 2, flowStarter, batchCallback, directExecutor).start();
+		assertEquals(2, startedFlows.size());
+
+		OrderConfirmation confirmation = new OrderConfirmation();
+		startedFlows.get(1).onResponse(confirmation);
+		verify(batchCallback).onItemCompleted(1, confirmation);
+		assertEquals(3, startedFlows.size());
+
+		KinEcosystemException exception = mock(KinEcosystemException.class);
+		startedFlows.get(0).onFailure(exception);
+		startedFlows.get(2).onResponse(confirmation);
+
+		ArgumentCaptor<BatchResult> resultCaptor = ArgumentCaptor.forClass(BatchResult.class);
+		verify(batchCallback).onItemFailed(0, exception);
+		verify(batchCallback).onBatchCompleted(resultCaptor.capture());
+		BatchResult result = resultCaptor.getValue();
+		assertEquals(2, result.getCompletedCount());
+		assertEquals(1, result.getFailedCount());
+		assertNull(result.getConfirmation(0));
+		assertEquals(exception, result.getFailure(0));
+	}
+
+	@Test
+	public void cancel_RunningFlowsCancelledAndNotStartedItemsFailed() {
+		Cancellable batch = new SpendBatch(Arrays.asList("a", "b", "c"), 1, flowStarter, batchCallback,
+			directExecutor).start();
+
+		batch.cancel();
+
+		verify(flowHandles.get(0)).cancel();
+		assertEquals(1, startedFlows.size());
+		verify(batchCallback).onItemFailed(eq(1), any(ClientException.class));
+		verify(batchCallback).onItemFailed(eq(2), any(ClientException.class));
+		verify(batchCallback, never()).onBatchCompleted(any(BatchResult.class));
+
+		startedFlows.get(0).onFailure(mock(KinEcosystemException.class));
+		verify(batchCallback).onBatchCompleted(any(BatchResult.class));
+		verify(batchCallback, never()).onItemCompleted(anyInt(), any(OrderConfirmation.class));
+	}
+}
@@ -0,0 +1,75 @@
+package kin.devplatform.history.presenter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import kin.devplatform.history.presenter.OrderIndex.ChangeSet;
+import kin.devplatform.network.model.Order;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderIndexTest {
+
+	private OrderIndex orderIndex;
+	private Order first;
+	private Order second;
+
+	@Before
+	public void setUp() {
+		first = createOrder("1");
+		second = createOrder("2");
+		orderIndex = new OrderIndex();
+		orderIndex.setOrders(Arrays.asList(second, first));
+	}
+
+	@Test
+	public void mergeNewer_InsertsNewOrdersAtTopAndUpdatesKnownOrders() {
+		Order third = createOrder("3");
+		Order fourth = createOrder("4");
+		Order updatedFirst = createOrder("1");
+
+		ChangeSet changeSet = orderIndex.mergeNewer(Arrays.asList(fourth, third, second, updatedFirst));
+
+		assertEquals(Arrays.asList(fourth, third, second, updatedFirst), orderIndex.getOrders());
+		assertSame(updatedFirst, orderIndex.get(3));
+		assertEquals(2, changeSet.getInsertedAtTop());
+		// The same instance is not an update.
+		assertArrayEquals(new int[]{3}, changeSet.getUpdatedPositions());
+		assertEquals(0, changeSet.getAppendedCount());
+	}
+
+	@Test
+	public void mergeNewer_SameOrders_EmptyChangeSet() {
+		assertTrue(orderIndex.mergeNewer(Arrays.asList(second, first)).isEmpty());
+	}
+
+	@Test
+	public void appendOlder_SkipsKnownOrders() {
+		Order zero = createOrder("0");
+
+		ChangeSet changeSet = orderIndex.appendOlder(Arrays.asList(first, zero));
+
+		assertEquals(Arrays.asList(second, first, zero), orderIndex.getOrders());
+		assertEquals(2, changeSet.getAppendedStart());
+		assertEquals(1, changeSet.getAppendedCount());
+		assertEquals(0, changeSet.getInsertedAtTop());
+	}
+
+	@Test
+	public void mergeNewer_ThenUpdate_UsesShiftedPosition() {
+		Order third = createOrder("3");
+		orderIndex.mergeNewer(Collections.singletonList(third));
+
+		ChangeSet changeSet = orderIndex.mergeNewer(Collections.singletonList(createOrder("2")));
+
+		assertArrayEquals(new int[]{1}, changeSet.getUpdatedPositions());
+	}
+
+	private static Order createOrder(String orderId) {
+		return new Order().orderId(orderId);
+	}
+}